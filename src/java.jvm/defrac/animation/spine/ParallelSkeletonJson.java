@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.animation.spine;
+
+import defrac.json.JSONObject;
+import defrac.util.Array;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The ParallelSkeletonJson class reads skeleton data using a fork/join pool
+ *
+ * <p>Bones, IK constraints and slots are read in order on the calling thread.
+ * Skins are then decoded concurrently, followed by all animations since
+ * FFD timelines reference skin attachments. The skeleton data is published
+ * only after every task has completed.
+ *
+ * <p>If the underlying {@link SkeletonJson} defers animations via
+ * {@link SkeletonJson#lazyAnimations(boolean)} only skins are decoded in parallel.
+ *
+ * <p>Since skins are decoded on the threads of the pool, the {@link AttachmentLoader}
+ * of the {@link SkeletonJson} is called concurrently and must be thread-safe.
+ */
+public final class ParallelSkeletonJson {
+  @Nonnull
+  private final SkeletonJson json;
+
+  @Nonnull
+  private final ForkJoinPool pool;
+
+  public ParallelSkeletonJson(@Nonnull final SkeletonJson json) {
+    this(json, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param json The reader whose attachment loader is called concurrently; the loader must be thread-safe
+   * @param pool The pool on which skins and animations are decoded
+   */
+  public ParallelSkeletonJson(@Nonnull final SkeletonJson json,
+                              @Nonnull final ForkJoinPool pool) {
+    this.json = json;
+    this.pool = pool;
+  }
+
+  @Nonnull
+  public SkeletonData readSkeletonData(@Nonnull final JSONObject root) {
+    return readSkeletonData(root, null);
+  }
+
+  @Nonnull
+  public SkeletonData readSkeletonData(@Nonnull final JSONObject root, @Nullable final String name) {
+    final SkeletonData skeletonData = json.readSkeletonSetup(root, name);
+
+    // Skins.
+    final JSONObject skins = root.optObject("skins");
+    final Array<ForkJoinTask<Skin>> skinTasks = new Array<>(skins.size());
+
+    for(final String skinName : skins.keySet()) {
+      final JSONObject skinMap = skins.optObject(skinName);
+      skinTasks.push(pool.submit(() -> json.readSkin(skinName, skinMap, skeletonData)));
+    }
+
+    for(final ForkJoinTask<Skin> skinTask : skinTasks) {
+      SkeletonJson.publishSkin(skeletonData, skinTask.join());
+    }
+
+    SkeletonJson.readEvents(root, skeletonData);
+
+    // Animations.
+    if(json.lazyAnimations()) {
+      json.readAnimations(root, skeletonData);
+    } else {
+      final float scale = json.scale();
+      final int curveResolution = json.curveResolution();
+      final JSONObject animations = root.optObject("animations");
+      final Array<ForkJoinTask<Animation>> animationTasks = new Array<>(animations.size());
+
+      for(final String animationName : animations.keySet()) {
+        final JSONObject animationMap = animations.optObject(animationName);
+        animationTasks.push(pool.submit(
+            () -> SkeletonJson.readAnimation(animationName, animationMap, skeletonData, scale, curveResolution)));
+      }
+
+      for(final ForkJoinTask<Animation> animationTask : animationTasks) {
+        skeletonData.addAnimation(animationTask.join());
+      }
+    }
+
+    return SkeletonJson.trimToSize(skeletonData);
+  }
+}
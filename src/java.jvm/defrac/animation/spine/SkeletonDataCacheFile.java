@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.animation.spine;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The SkeletonDataCacheFile class stores {@link SkeletonDataCache} data on disk
+ *
+ * <p>Caches are read from a read-only memory mapping of the file so the data
+ * is paged in by the operating system instead of being copied through a stream.
+ */
+public final class SkeletonDataCacheFile {
+  /**
+   * Loads skeleton data from the given cache file
+   *
+   * @param cache The cache used to decode the data
+   * @param path The path of the cache file
+   * @param expectedKey The expected cache key; null to accept any key
+   * @return The skeleton data; null if the file does not exist or is stale
+   * @throws IOException If the file can't be read
+   */
+  @Nullable
+  public static SkeletonData load(@Nonnull final SkeletonDataCache cache,
+                                  @Nonnull final Path path,
+                                  @Nullable final String expectedKey) throws IOException {
+    if(!Files.isRegularFile(path)) {
+      return null;
+    }
+
+    try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+      return cache.read(buffer, expectedKey);
+    }
+  }
+
+  /**
+   * Stores the given skeleton data in a cache file
+   *
+   * @param path The path of the cache file
+   * @param data The skeleton data
+   * @param scale The scale the data has been loaded with
+   * @throws IOException If the file can't be written
+   */
+  public static void store(@Nonnull final Path path,
+                           @Nonnull final SkeletonData data,
+                           final float scale) throws IOException {
+    final ByteBuffer buffer = SkeletonDataCache.write(data, scale);
+
+    try(final FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while(buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  private SkeletonDataCacheFile() {}
+}
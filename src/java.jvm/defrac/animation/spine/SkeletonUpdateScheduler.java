@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.animation.spine;
+
+import defrac.util.Array;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * The SkeletonUpdateScheduler class updates independent skeletons in parallel
+ *
+ * <p>For each registered pair the scheduler runs {@link AnimationState#update(float)},
+ * {@link AnimationState#apply(Skeleton)} and {@link Skeleton#updateWorldTransform()}
+ * on a fork/join pool. A skeleton must not be shared between pairs and must not be
+ * touched by other threads while {@link #update(float)} is running.
+ *
+ * <p>Animation state listeners are invoked on the worker threads.
+ */
+public final class SkeletonUpdateScheduler {
+  private static final int DEFAULT_BATCH_SIZE = 8;
+
+  @Nonnull
+  private final ForkJoinPool pool;
+
+  private final int batchSize;
+
+  @Nonnull
+  private final Array<Skeleton> skeletons = new Array<>();
+
+  @Nonnull
+  private final Array<AnimationState> states = new Array<>();
+
+  public SkeletonUpdateScheduler() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  public SkeletonUpdateScheduler(@Nonnull final ForkJoinPool pool) {
+    this(pool, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Creates and returns a new SkeletonUpdateScheduler
+   *
+   * @param pool The pool to run updates on
+   * @param batchSize The number of skeletons updated by a single task; must be greater than zero
+   */
+  public SkeletonUpdateScheduler(@Nonnull final ForkJoinPool pool, final int batchSize) {
+    checkArgument(batchSize > 0, "batchSize must be > 0");
+    this.pool = pool;
+    this.batchSize = batchSize;
+  }
+
+  /** Adds a skeleton and the state that animates it. */
+  public void add(@Nonnull final Skeleton skeleton, @Nonnull final AnimationState state) {
+    checkArgument(skeletons.identityIndexOf(skeleton) == -1, "Skeleton already added");
+    skeletons.push(skeleton);
+    states.push(state);
+  }
+
+  /** Removes a skeleton added with {@link #add(Skeleton, AnimationState)}. */
+  public void remove(@Nonnull final Skeleton skeleton) {
+    final int index = skeletons.identityIndexOf(skeleton);
+
+    if(index == -1) {
+      return;
+    }
+
+    skeletons.remove(index);
+    states.remove(index);
+  }
+
+  public int size() {
+    return skeletons.size();
+  }
+
+  /**
+   * Updates, applies and transforms all skeletons and waits for completion
+   *
+   * @param delta Elapsed time since last update in seconds
+   */
+  public void update(final float delta) {
+    final int count = skeletons.size();
+
+    if(count == 0) {
+      return;
+    }
+
+    if(count <= batchSize) {
+      updateRange(delta, 0, count);
+      return;
+    }
+
+    pool.invoke(new UpdateAction(delta, 0, count));
+  }
+
+  private void updateRange(final float delta, final int start, final int end) {
+    for(int i = start; i < end; ++i) {
+      final Skeleton skeleton = skeletons.get(i);
+      final AnimationState state = states.get(i);
+
+      state.update(delta);
+      state.apply(skeleton);
+      skeleton.updateWorldTransform();
+    }
+  }
+
+  private final class UpdateAction extends RecursiveAction {
+    private final float delta;
+    private final int start;
+    private final int end;
+
+    UpdateAction(final float delta, final int start, final int end) {
+      this.delta = delta;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if(end - start <= batchSize) {
+        updateRange(delta, start, end);
+        return;
+      }
+
+      final int middle = (start + end) >>> 1;
+
+      invokeAll(
+          new UpdateAction(delta, start, middle),
+          new UpdateAction(delta, middle, end));
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package defrac.gaming;
+
+import defrac.animation.spine.Animation;
+import defrac.animation.spine.AnimationState;
+import defrac.animation.spine.AnimationStateData;
+import defrac.animation.spine.Event;
+import defrac.animation.spine.EventData;
+import defrac.animation.spine.Skeleton;
+import defrac.animation.spine.SkeletonData;
+import defrac.animation.spine.SkeletonJson;
+import defrac.json.JSON;
+import defrac.json.JSONObject;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Verifies that updating and applying an animation state does not allocate after warmup
+ *
+ * <p>The raptor skeleton alternates between two animations with a crossfade, so track
+ * entries are recycled and events and listeners are dispatched while the heap allocations
+ * of the current thread are measured. The raptor has no events, so an event timeline with
+ * {@link #EVENTS_PER_ANIMATION} keys is attached to both animations. Exits with status 1
+ * if anything has been allocated or no event has been dispatched.
+ */
+public final class AnimationAllocationCheck {
+  private static final int WARMUP_FRAMES = 10000;
+  private static final int FRAMES = 10000;
+  private static final int FRAMES_PER_ANIMATION = 90;
+  private static final float DELTA = 1.0f / 60.0f;
+  private static final int EVENTS_PER_ANIMATION = 4;
+
+  public static void main(String[] args) throws IOException {
+    final Path path = Paths.get(args.length > 0 ? args[0] : "resources/raptor/raptor.json");
+    final JSONObject root = (JSONObject)JSON.parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    final SkeletonData data = new SkeletonJson(new MeshOnlyAttachmentLoader()).readSkeletonData(root);
+    final EventData eventData = new EventData("step");
+
+    data.events().push(eventData);
+    addEvents(data.findAnimation("walk"), eventData);
+    addEvents(data.findAnimation("gungrab"), eventData);
+
+    final AnimationStateData stateData = new AnimationStateData(data);
+
+    stateData.setMix("walk", "gungrab", 0.2f);
+    stateData.setMix("gungrab", "walk", 0.2f);
+
+    final Skeleton skeleton = new Skeleton(data);
+    final AnimationState state = new AnimationState(stateData);
+    final CountingListener listener = new CountingListener();
+
+    state.addListener(listener);
+    state.setAnimation(0, "walk", true);
+
+    run(skeleton, state, WARMUP_FRAMES);
+
+    final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    final long before = threads.getThreadAllocatedBytes(threadId);
+
+    run(skeleton, state, FRAMES);
+
+    final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    System.out.println("frames:    "+FRAMES);
+    System.out.println("callbacks: "+listener.count);
+    System.out.println("events:    "+listener.eventCount);
+    System.out.println("allocated: "+allocated+" bytes");
+
+    if(allocated > 0L || listener.eventCount == 0) {
+      System.exit(1);
+    }
+  }
+
+  /** Adds an event timeline with evenly spaced keys to an animation */
+  private static void addEvents(final Animation animation, final EventData eventData) {
+    final Animation.EventTimeline timeline = new Animation.EventTimeline(EVENTS_PER_ANIMATION);
+    final float duration = animation.duration();
+
+    for(int frameIndex = 0; frameIndex < EVENTS_PER_ANIMATION; ++frameIndex) {
+      timeline.setFrame(frameIndex, duration * frameIndex / EVENTS_PER_ANIMATION, new Event(eventData));
+    }
+
+    animation.timelines().push(timeline);
+    animation.updateTouchMasks();
+  }
+
+  private static void run(final Skeleton skeleton, final AnimationState state, final int frames) {
+    for(int frame = 1; frame <= frames; ++frame) {
+      if(frame % FRAMES_PER_ANIMATION == 0) {
+        state.setAnimation(0, (frame / FRAMES_PER_ANIMATION) % 2 == 0 ? "walk" : "gungrab", true);
+      }
+
+      state.update(DELTA);
+      state.apply(skeleton);
+      skeleton.update(DELTA);
+      skeleton.updateWorldTransform();
+    }
+  }
+
+  private static final class CountingListener extends AnimationState.SimpleListener {
+    int count;
+    int eventCount;
+
+    @Override
+    public void event(int trackIndex, Event event) {
+      ++count;
+      ++eventCount;
+    }
+
+    @Override
+    public void complete(int trackIndex, int loopCount) {
+      ++count;
+    }
+
+    @Override
+    public void start(int trackIndex) {
+      ++count;
+    }
+
+    @Override
+    public void end(int trackIndex) {
+      ++count;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package defrac.gaming;
+
+import defrac.animation.spine.Animation;
+
+import java.util.Random;
+
+/**
+ * Verifies the precomputed bezier tables of {@link Animation.CurveTimeline}
+ *
+ * <p>Random curves are evaluated with a table, with the ten line segments used without a
+ * table and with an exact solution of the bezier curve. Exits with status 1 if the table
+ * deviates from the exact curve by more than {@link #TABLE_ERROR_BOUND} at most or
+ * {@link #MEAN_TABLE_ERROR_BOUND} on average, is less accurate than the segments or deviates
+ * from the segments by more than {@link #SEGMENT_DEVIATION_BOUND}.
+ *
+ * <p>The bounds hold for the default resolution of 256 samples; another resolution may be
+ * passed as the first argument to report its errors.
+ */
+public final class CurveTableCheck {
+  private static final int RESOLUTION = 256;
+  private static final int CURVES = 1000;
+  private static final int SAMPLES = 1000;
+
+  /** Maximum error of a table with {@link #RESOLUTION} samples against the exact curve. */
+  private static final double TABLE_ERROR_BOUND = 1e-2;
+
+  /** Maximum mean error of a table with {@link #RESOLUTION} samples against the exact curve. */
+  private static final double MEAN_TABLE_ERROR_BOUND = 1e-4;
+
+  /** Maximum difference between a table and the segment evaluation it replaces, which is off by up to 0.1 itself. */
+  private static final double SEGMENT_DEVIATION_BOUND = 1.1e-1;
+
+  public static void main(String[] args) {
+    final int resolution = args.length > 0 ? Integer.parseInt(args[0]) : RESOLUTION;
+    final Random random = new Random(0x5eedL);
+
+    double tableError = 0.0, segmentError = 0.0, segmentDeviation = 0.0;
+    double tableErrorSum = 0.0, segmentErrorSum = 0.0;
+
+    for(int curve = 0; curve < CURVES; ++curve) {
+      final float cx1 = random.nextFloat();
+      final float cy1 = random.nextFloat() * 2.0f - 0.5f;
+      final float cx2 = random.nextFloat();
+      final float cy2 = random.nextFloat() * 2.0f - 0.5f;
+
+      final Animation.RotateTimeline table = new Animation.RotateTimeline(2);
+      final Animation.RotateTimeline segments = new Animation.RotateTimeline(2);
+
+      table.curveResolution(resolution);
+      table.setCurve(0, cx1, cy1, cx2, cy2);
+      segments.setCurve(0, cx1, cy1, cx2, cy2);
+
+      for(int sample = 0; sample <= SAMPLES; ++sample) {
+        final float percent = (float)sample / SAMPLES;
+        final double exact = exact(percent, cx1, cy1, cx2, cy2);
+        final float tableValue = table.getCurvePercent(0, percent);
+        final float segmentValue = segments.getCurvePercent(0, percent);
+
+        tableError = Math.max(tableError, Math.abs(tableValue - exact));
+        segmentError = Math.max(segmentError, Math.abs(segmentValue - exact));
+        tableErrorSum += Math.abs(tableValue - exact);
+        segmentErrorSum += Math.abs(segmentValue - exact);
+        segmentDeviation = Math.max(segmentDeviation, Math.abs(tableValue - segmentValue));
+      }
+    }
+
+    final int sampleCount = CURVES * (SAMPLES + 1);
+    final double meanTableError = tableErrorSum / sampleCount;
+    final double meanSegmentError = segmentErrorSum / sampleCount;
+
+    System.out.println("resolution:         "+resolution);
+    System.out.println("table error:        "+tableError+" (bound "+TABLE_ERROR_BOUND+")");
+    System.out.println("mean table error:   "+meanTableError+" (bound "+MEAN_TABLE_ERROR_BOUND+")");
+    System.out.println("segment error:      "+segmentError);
+    System.out.println("mean segment error: "+meanSegmentError);
+    System.out.println("segment deviation:  "+segmentDeviation+" (bound "+SEGMENT_DEVIATION_BOUND+")");
+
+    if(    tableError > TABLE_ERROR_BOUND
+        || meanTableError > MEAN_TABLE_ERROR_BOUND
+        || tableError > segmentError
+        || meanTableError > meanSegmentError
+        || segmentDeviation > SEGMENT_DEVIATION_BOUND) {
+      System.exit(1);
+    }
+  }
+
+  /** Evaluates the curve at x by bisection of the monotonic x(t) in double precision. */
+  private static double exact(final double x, final double cx1, final double cy1, final double cx2, final double cy2) {
+    double low = 0.0, high = 1.0;
+
+    for(int i = 0; i < 64; ++i) {
+      final double t = (low + high) * 0.5;
+
+      if(bezier(t, cx1, cx2) < x) {
+        low = t;
+      } else {
+        high = t;
+      }
+    }
+
+    return bezier((low + high) * 0.5, cy1, cy2);
+  }
+
+  private static double bezier(final double t, final double c1, final double c2) {
+    final double u = 1.0 - t;
+    return 3.0 * u * t * (u * c1 + t * c2) + t * t * t;
+  }
+}
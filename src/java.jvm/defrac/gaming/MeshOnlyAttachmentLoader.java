@@ -0,0 +1,33 @@
+package defrac.gaming;
+
+import defrac.animation.spine.Skin;
+import defrac.animation.spine.attachments.AttachmentLoader;
+import defrac.animation.spine.attachments.BoundingBoxAttachment;
+import defrac.animation.spine.attachments.MeshAttachment;
+import defrac.animation.spine.attachments.RegionAttachment;
+import defrac.animation.spine.attachments.SkinnedMeshAttachment;
+
+import javax.annotation.Nonnull;
+
+/** Loads meshes and bounding boxes only, so skeletons can be loaded without a texture atlas */
+final class MeshOnlyAttachmentLoader implements AttachmentLoader {
+  @Override
+  public RegionAttachment newRegionAttachment(Skin skin, @Nonnull final String name, @Nonnull final String path) {
+    return null;
+  }
+
+  @Override
+  public MeshAttachment newMeshAttachment(Skin skin, @Nonnull final String name, @Nonnull final String path) {
+    return new MeshAttachment(name);
+  }
+
+  @Override
+  public SkinnedMeshAttachment newSkinnedMeshAttachment(Skin skin, @Nonnull final String name, @Nonnull final String path) {
+    return new SkinnedMeshAttachment(name);
+  }
+
+  @Override
+  public BoundingBoxAttachment newBoundingBoxAttachment(Skin skin, @Nonnull final String name) {
+    return new BoundingBoxAttachment(name);
+  }
+}
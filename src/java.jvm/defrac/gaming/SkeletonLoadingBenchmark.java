@@ -0,0 +1,57 @@
+package defrac.gaming;
+
+import defrac.animation.spine.ParallelSkeletonJson;
+import defrac.animation.spine.SkeletonData;
+import defrac.animation.spine.SkeletonJson;
+import defrac.json.JSON;
+import defrac.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compares sequential and parallel loading of the raptor skeleton
+ *
+ * <p>Prints the mean time of both paths without asserting that either is faster.
+ * Region attachments are skipped since they require a texture atlas.
+ */
+public final class SkeletonLoadingBenchmark {
+  private static final int WARMUP_ITERATIONS = 20;
+  private static final int ITERATIONS = 50;
+
+  public static void main(String[] args) throws IOException {
+    final Path path = Paths.get(args.length > 0 ? args[0] : "resources/raptor/raptor.json");
+    final JSONObject root = (JSONObject)JSON.parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    final SkeletonJson json = new SkeletonJson(new MeshOnlyAttachmentLoader());
+    final ParallelSkeletonJson parallelJson = new ParallelSkeletonJson(json);
+
+    for(int i = 0; i < WARMUP_ITERATIONS; ++i) {
+      json.readSkeletonData(root);
+      parallelJson.readSkeletonData(root);
+    }
+
+    long sequentialTime = 0L;
+    long parallelTime = 0L;
+
+    for(int i = 0; i < ITERATIONS; ++i) {
+      long start = System.nanoTime();
+      final SkeletonData sequential = json.readSkeletonData(root);
+      sequentialTime += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      final SkeletonData parallel = parallelJson.readSkeletonData(root);
+      parallelTime += System.nanoTime() - start;
+
+      if(sequential.animations().size() != parallel.animations().size()
+          || sequential.skins().size() != parallel.skins().size()) {
+        throw new IllegalStateException("Parallel loading produced different skeleton data");
+      }
+    }
+
+    System.out.println("sequential: "+(sequentialTime / ITERATIONS / 1000L)+"us");
+    System.out.println("parallel:   "+(parallelTime / ITERATIONS / 1000L)+"us");
+  }
+}
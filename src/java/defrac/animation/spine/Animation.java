@@ -42,8 +42,10 @@ import defrac.util.MathUtil;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 import static defrac.lang.Preconditions.checkArgument;
+import static defrac.lang.Preconditions.checkState;
 
 public final class Animation {
   /** @param target After the first and before the last value.
@@ -80,36 +82,222 @@ public final class Animation {
     }
   }
 
+  /** Finds the frame for the given time, starting at the cached frame of the cursor.
+   * @param target After the first and before the last value.
+   * @param cursors May be null to always perform a binary search.
+   * @return index of first value greater than the target. */
+  static int search(@Nonnull final float[] values,
+                    final float target,
+                    final int step,
+                    @Nullable final int[] cursors,
+                    final int cursorIndex) {
+    if(cursors == null) {
+      return binarySearch(values, target, step);
+    }
+
+    final int cursor = cursors[cursorIndex];
+
+    if(cursor >= step && cursor < values.length) {
+      if(values[cursor - step] <= target) {
+        if(target < values[cursor]) {
+          return cursor; // Same frame as before.
+        }
+
+        final int next = cursor + step;
+
+        if(next < values.length && target < values[next]) {
+          cursors[cursorIndex] = next; // Advanced by a single frame.
+          return next;
+        }
+      }
+    }
+
+    final int result = binarySearch(values, target, step);
+    cursors[cursorIndex] = result;
+    return result;
+  }
+
   @Nonnull
   final String name;
 
+  /** Index of this animation in its skeleton data; -1 if not owned by any skeleton data. */
+  int index = -1;
+
   @Nonnull
-  private final Array<Timeline> timelines;
+  private Array<Timeline> timelines;
 
   private float duration;
 
+  /** Non-null until the animation has been materialized. */
+  @Nullable
+  private volatile Decoder decoder;
+
+  /** Bits of the bones, slots, IK constraints and deformed slots targeted by the timelines. */
+  @Nonnull
+  long[] boneMask = EMPTY_MASK, slotMask = EMPTY_MASK, ikConstraintMask = EMPTY_MASK, ffdMask = EMPTY_MASK;
+
+  private boolean touchesDrawOrder;
+
+  /** Whether a timeline of an unknown type may touch anything. */
+  boolean touchesAll;
+
+  private static final long[] EMPTY_MASK = new long[0];
+
   public Animation(@Nonnull final String name,
                    @Nonnull final Array<Timeline> timelines,
                    final float duration) {
     this.name = name;
     this.timelines = timelines;
     this.duration = duration;
+
+    updateTouchMasks();
+  }
+
+  /** Creates an animation whose timelines are decoded on first use. */
+  Animation(@Nonnull final String name,
+            @Nonnull final Decoder decoder) {
+    this.name = name;
+    this.timelines = new Array<>(0);
+    this.decoder = decoder;
   }
 
   @Nonnull
   public Array<Timeline> timelines() {
+    materialize();
     return timelines;
   }
 
   /** Returns the duration of the animation in seconds. */
   public float duration() {
+    materialize();
     return duration;
   }
 
   public void duration(float durationInSeconds) {
+    materialize();
     duration = durationInSeconds;
   }
 
+  /** Whether or not the timelines of this animation have been decoded. */
+  public boolean isMaterialized() {
+    return decoder == null;
+  }
+
+  /** Decodes the timelines of this animation if they have been deferred. */
+  public void materialize() {
+    if(decoder != null) {
+      materializeSlow();
+    }
+  }
+
+  private synchronized void materializeSlow() {
+    final Decoder decoder = this.decoder;
+
+    if(decoder == null) {
+      return;
+    }
+
+    final Animation animation = decoder.decode();
+
+    timelines = animation.timelines;
+    duration = animation.duration;
+    boneMask = animation.boneMask;
+    slotMask = animation.slotMask;
+    ikConstraintMask = animation.ikConstraintMask;
+    ffdMask = animation.ffdMask;
+    touchesDrawOrder = animation.touchesDrawOrder;
+    touchesAll = animation.touchesAll;
+
+    this.decoder = null;
+  }
+
+  /** Computes which bones, slots, IK constraints and deformed slots the timelines target.
+   *
+   * <p>Called when the animation is created. Must be called again if timelines are added,
+   * removed or retargeted afterwards. */
+  public void updateTouchMasks() {
+    long[] boneMask = EMPTY_MASK, slotMask = EMPTY_MASK, ikConstraintMask = EMPTY_MASK, ffdMask = EMPTY_MASK;
+    boolean touchesDrawOrder = false, touchesAll = false;
+
+    for(final Timeline timeline : timelines()) {
+      if(timeline instanceof RotateTimeline) {
+        boneMask = setBit(boneMask, ((RotateTimeline)timeline).boneIndex);
+      } else if(timeline instanceof TranslateTimeline) {
+        boneMask = setBit(boneMask, ((TranslateTimeline)timeline).boneIndex);
+      } else if(timeline instanceof FlipXTimeline) {
+        boneMask = setBit(boneMask, ((FlipXTimeline)timeline).boneIndex);
+      } else if(timeline instanceof ColorTimeline) {
+        slotMask = setBit(slotMask, ((ColorTimeline)timeline).slotIndex);
+      } else if(timeline instanceof AttachmentTimeline) {
+        slotMask = setBit(slotMask, ((AttachmentTimeline)timeline).slotIndex);
+      } else if(timeline instanceof FfdTimeline) {
+        final int slotIndex = ((FfdTimeline)timeline).slotIndex;
+        slotMask = setBit(slotMask, slotIndex);
+        ffdMask = setBit(ffdMask, slotIndex);
+      } else if(timeline instanceof IkConstraintTimeline) {
+        ikConstraintMask = setBit(ikConstraintMask, ((IkConstraintTimeline)timeline).ikConstraintIndex);
+      } else if(timeline instanceof DrawOrderTimeline) {
+        touchesDrawOrder = true;
+      } else if(!(timeline instanceof EventTimeline)) {
+        touchesAll = true;
+      }
+    }
+
+    this.boneMask = boneMask;
+    this.slotMask = slotMask;
+    this.ikConstraintMask = ikConstraintMask;
+    this.ffdMask = ffdMask;
+    this.touchesDrawOrder = touchesDrawOrder;
+    this.touchesAll = touchesAll;
+  }
+
+  /** Whether or not a timeline of this animation targets the bone at the given index. */
+  public boolean touchesBone(final int boneIndex) {
+    materialize();
+    return touchesAll || isBitSet(boneMask, boneIndex);
+  }
+
+  /** Whether or not a timeline of this animation targets the slot at the given index. */
+  public boolean touchesSlot(final int slotIndex) {
+    materialize();
+    return touchesAll || isBitSet(slotMask, slotIndex);
+  }
+
+  /** Whether or not a timeline of this animation targets the IK constraint at the given index. */
+  public boolean touchesIkConstraint(final int ikConstraintIndex) {
+    materialize();
+    return touchesAll || isBitSet(ikConstraintMask, ikConstraintIndex);
+  }
+
+  /** Whether or not a timeline of this animation deforms the attachment of the slot at the given index. */
+  public boolean touchesFfd(final int slotIndex) {
+    materialize();
+    return touchesAll || isBitSet(ffdMask, slotIndex);
+  }
+
+  /** Whether or not a timeline of this animation changes the draw order. */
+  public boolean touchesDrawOrder() {
+    materialize();
+    return touchesAll || touchesDrawOrder;
+  }
+
+  @Nonnull
+  private static long[] setBit(@Nonnull long[] mask, final int index) {
+    final int word = index >>> 6;
+
+    if(word >= mask.length) {
+      mask = Arrays.copyOf(mask, word + 1);
+    }
+
+    mask[word] |= 1L << index;
+    return mask;
+  }
+
+  static boolean isBitSet(@Nonnull final long[] mask, final int index) {
+    final int word = index >>> 6;
+    return word < mask.length && (mask[word] & (1L << index)) != 0L;
+  }
+
   /** Poses the skeleton at the specified time for this animation.
    * @param lastTime The last time the animation was applied.
    * @param events Any triggered events are added. */
@@ -118,15 +306,20 @@ public final class Animation {
                     float time,
                     final boolean loop,
                     final Array<Event> events) {
+    apply(skeleton, lastTime, time, loop, events, null);
+  }
 
-    if(loop && duration != 0) {
-      time %= duration;
-      lastTime %= duration;
-    }
-
-    for(final Timeline timeline : timelines) {
-      timeline.apply(skeleton, lastTime, time, events, 1);
-    }
+  /** Poses the skeleton at the specified time for this animation.
+   * @param lastTime The last time the animation was applied.
+   * @param events Any triggered events are added.
+   * @param cursors May be null; otherwise one frame cursor per timeline, see {@link #newCursors()}. */
+  public void apply(@Nonnull final Skeleton skeleton,
+                    float lastTime,
+                    float time,
+                    final boolean loop,
+                    final Array<Event> events,
+                    @Nullable final int[] cursors) {
+    mix(skeleton, lastTime, time, loop, events, 1, cursors);
   }
 
   /** Poses the skeleton at the specified time for this animation mixed with the current pose.
@@ -139,42 +332,196 @@ public final class Animation {
                   final boolean loop,
                   final Array<Event> events,
                   final float alpha) {
+    mix(skeleton, lastTime, time, loop, events, alpha, null);
+  }
+
+  /** Poses the skeleton at the specified time for this animation mixed with the current pose.
+   * @param lastTime The last time the animation was applied.
+   * @param events Any triggered events are added.
+   * @param alpha The amount of this animation that affects the current pose.
+   * @param cursors May be null; otherwise one frame cursor per timeline, see {@link #newCursors()}. */
+  public void mix(@Nonnull final Skeleton skeleton,
+                  float lastTime,
+                  float time,
+                  final boolean loop,
+                  final Array<Event> events,
+                  final float alpha,
+                  @Nullable final int[] cursors) {
+    materialize();
+
     if (loop && duration != 0) {
       time %= duration;
       lastTime %= duration;
     }
 
-    Array<Timeline> timelines = this.timelines;
-    for(final Timeline timeline : timelines) {
-      timeline.apply(skeleton, lastTime, time, events, alpha);
+    final Array<Timeline> timelines = this.timelines;
+    final int timelineCount = timelines.size();
+
+    if(cursors == null) {
+      for(int i = 0; i < timelineCount; ++i) {
+        timelines.get(i).apply(skeleton, lastTime, time, events, alpha);
+      }
+    } else {
+      checkArgument(cursors.length >= timelineCount, "cursors.length < timelines.size()");
+
+      for(int i = 0; i < timelineCount; ++i) {
+        timelines.get(i).apply(skeleton, lastTime, time, events, alpha, cursors, i);
+      }
     }
   }
 
+  /** Blends this animation into a pose with the given weight.
+   *
+   * <p>Rotation, translation and scale timelines write into {@code pose} instead of the bones;
+   * all other timelines are applied to the skeleton like {@link #mix}.
+   *
+   * @param pose Local transforms of all bones, laid out like {@link Skeleton#boneLocal}.
+   * @param cursors May be null; otherwise one frame cursor per timeline, see {@link #newCursors()}.
+   * @param boneMask May be null; otherwise timelines of bones whose bit is not set are skipped. */
+  void blend(@Nonnull final Skeleton skeleton,
+             float lastTime,
+             float time,
+             final boolean loop,
+             final Array<Event> events,
+             final float alpha,
+             @Nullable final int[] cursors,
+             @Nonnull final float[] pose,
+             @Nullable final long[] boneMask) {
+    materialize();
+
+    if (loop && duration != 0) {
+      time %= duration;
+      lastTime %= duration;
+    }
+
+    final Array<Timeline> timelines = this.timelines;
+    final int timelineCount = timelines.size();
+
+    if(cursors != null) {
+      checkArgument(cursors.length >= timelineCount, "cursors.length < timelines.size()");
+    }
+
+    for(int i = 0; i < timelineCount; ++i) {
+      final Timeline timeline = timelines.get(i);
+
+      if(timeline instanceof BoneTimeline) {
+        final BoneTimeline boneTimeline = (BoneTimeline)timeline;
+
+        if(boneMask == null || isBitSet(boneMask, boneTimeline.boneIndex())) {
+          boneTimeline.blend(skeleton, time, alpha, pose, cursors, i);
+        }
+      } else {
+        timeline.apply(skeleton, lastTime, time, events, alpha, cursors, i);
+      }
+    }
+  }
+
+  /** Applies only the event timelines of this animation, leaving the pose of the skeleton unchanged.
+   * @param events Any triggered events are added. */
+  void applyEvents(@Nonnull final Skeleton skeleton,
+                   float lastTime,
+                   float time,
+                   final boolean loop,
+                   final Array<Event> events) {
+    materialize();
+
+    if (loop && duration != 0) {
+      time %= duration;
+      lastTime %= duration;
+    }
+
+    final Array<Timeline> timelines = this.timelines;
+
+    for(int i = 0, n = timelines.size(); i < n; ++i) {
+      final Timeline timeline = timelines.get(i);
+
+      if(timeline instanceof EventTimeline) {
+        timeline.apply(skeleton, lastTime, time, events, 1.0f);
+      }
+    }
+  }
+
+  /** Creates the frame cursors to pass to {@link #apply(Skeleton, float, float, boolean, Array, int[])}.
+   *
+   * <p>Cursors hold the last frame of each timeline so coherent playback does not need
+   * to search for the frame. They belong to the caller and are never shared between
+   * skeletons; the animation itself is not modified. */
+  @Nonnull
+  public int[] newCursors() {
+    return new int[timelines().size()];
+  }
+
   @Nonnull
   public String name() {
     return name;
   }
 
+  /** Returns the stable index of this animation in {@link SkeletonData#animations()}, or -1. */
+  public int index() {
+    return index;
+  }
+
   @Override
   @Nonnull
   public String toString() {
     return name;
   }
 
+  /** Whether or not the timeline affects the local transform of bones, directly or through IK. */
+  static boolean isBoneTimeline(@Nonnull final Timeline timeline) {
+    return timeline instanceof RotateTimeline
+        || timeline instanceof TranslateTimeline
+        || timeline instanceof IkConstraintTimeline
+        || timeline instanceof FlipXTimeline;
+  }
+
+  /** Decodes the timelines of a deferred animation. */
+  interface Decoder {
+    @Nonnull
+    Animation decode();
+  }
+
   public interface Timeline {
     /** Sets the value(s) for the specified time.
      * @param events May be null to not collect fired events. */
     void apply(@Nonnull Skeleton skeleton, float lastTime, float time, @Nullable Array<Event> events, float alpha);
+
+    /** Sets the value(s) for the specified time, starting the frame search at a cursor.
+     * @param events May be null to not collect fired events.
+     * @param cursors May be null; otherwise {@code cursors[cursorIndex]} holds the last frame of this timeline. */
+    default void apply(@Nonnull Skeleton skeleton, float lastTime, float time, @Nullable Array<Event> events, float alpha,
+                       @Nullable int[] cursors, int cursorIndex) {
+      apply(skeleton, lastTime, time, events, alpha);
+    }
+  }
+
+  /** A timeline of the local transform of a single bone which can be blended into a packed pose. */
+  interface BoneTimeline extends Timeline {
+    int boneIndex();
+
+    /** Blends the keyed value(s) for the specified time into a pose.
+     * @param pose Local transforms of all bones, laid out like {@link Skeleton#boneLocal}.
+     * @param cursors May be null; otherwise {@code cursors[cursorIndex]} holds the last frame of this timeline. */
+    void blend(@Nonnull Skeleton skeleton, float time, float alpha, @Nonnull float[] pose,
+               @Nullable int[] cursors, int cursorIndex);
   }
 
   /** Base class for frames that use an interpolation bezier curve. */
   public static abstract class CurveTimeline implements Timeline {
     public static final float LINEAR = 0, STEPPED = 1, BEZIER = 2;
     private static final int BEZIER_SEGMENTS = 10, BEZIER_SIZE = BEZIER_SEGMENTS * 2 - 1;
+    /** Number of values in front of the samples of a bezier table: cx1, cy1, cx2, cy2. */
+    private static final int TABLE_HEADER = 4;
 
     @Nonnull
     private final float[] curves; // type, x, y, ...
 
+    /** Control points and uniformly sampled bezier curves, TABLE_HEADER + curveResolution + 1 values per frame; null if disabled. */
+    @Nullable
+    private float[] curveTable;
+
+    private int curveResolution;
+
     public CurveTimeline(@Nonnegative final int frameCount) {
       checkArgument(frameCount > 0, "frameCount must be > 0");
       curves = new float[(frameCount - 1) * BEZIER_SIZE];
@@ -184,6 +531,39 @@ public final class Animation {
       return curves.length / BEZIER_SIZE + 1;
     }
 
+    @Nonnull
+    float[] curves() {
+      return curves;
+    }
+
+    @Nullable
+    float[] curveTable() {
+      return curveTable;
+    }
+
+    /** Returns the number of samples of the bezier tables, or 0 if bezier curves are evaluated segment by segment. */
+    public int curveResolution() {
+      return curveResolution;
+    }
+
+    /** Evaluates bezier curves using a precomputed table with {@code value} uniform samples per keyframe.
+     *
+     * <p>Evaluation of a table is constant-time and samples the exact curve instead of the ten line
+     * segments used otherwise. The first and last interval of a curve are solved exactly since
+     * the curve may be arbitrarily steep at its ends. The resolution must be set before any bezier curve.
+     *
+     * @param value The resolution of the tables; 0 to disable tables */
+    public void curveResolution(@Nonnegative final int value) {
+      checkArgument(value >= 0, "value must be >= 0");
+
+      for(int i = 0, n = curves.length; i < n; i += BEZIER_SIZE) {
+        checkState(curves[i] != BEZIER, "Curve resolution must be set before bezier curves");
+      }
+
+      curveResolution = value;
+      curveTable = value == 0 ? null : new float[(frameCount() - 1) * (TABLE_HEADER + value + 1)];
+    }
+
     public void setLinearAt(final int frameIndex) {
       curves[frameIndex * BEZIER_SIZE] = LINEAR;
     }
@@ -227,6 +607,56 @@ public final class Animation {
         x += dfx;
         y += dfy;
       }
+
+      final float[] curveTable = this.curveTable;
+
+      if(curveTable != null) {
+        final int resolution = curveResolution;
+        final int offset = frameIndex * (TABLE_HEADER + resolution + 1);
+
+        curveTable[offset    ] = cx1;
+        curveTable[offset + 1] = cy1;
+        curveTable[offset + 2] = cx2;
+        curveTable[offset + 3] = cy2;
+
+        for(int j = 0; j <= resolution; ++j) {
+          curveTable[offset + TABLE_HEADER + j] = bezier(bezierParameter((float)j / resolution, cx1, cx2), cy1, cy2);
+        }
+      }
+    }
+
+    /** Evaluates the bezier curve from (0,0) to (1,1) with the inner control points c1 and c2 at t. */
+    private static float bezier(final float t, final float c1, final float c2) {
+      final float u = 1.0f - t;
+      return 3.0f * u * t * (u * c1 + t * c2) + t * t * t;
+    }
+
+    /** Solves bezier(t, cx1, cx2) = x for t using Newton's method with a bisection fallback. */
+    private static float bezierParameter(final float x, final float cx1, final float cx2) {
+      float low = 0.0f, high = 1.0f;
+      float t = x;
+
+      for(int i = 0; i < 16; ++i) {
+        final float error = bezier(t, cx1, cx2) - x;
+
+        if(Math.abs(error) < 1e-6f) {
+          return t;
+        }
+
+        if(error > 0.0f) {
+          high = t;
+        } else {
+          low = t;
+        }
+
+        final float u = 1.0f - t;
+        final float slope = 3.0f * (u * u * cx1 + 2.0f * u * t * (cx2 - cx1) + t * t * (1.0f - cx2));
+        final float next = slope != 0.0f ? t - error / slope : low;
+
+        t = next > low && next < high ? next : (low + high) * 0.5f;
+      }
+
+      return t;
     }
 
     public float getCurvePercent(int frameIndex, float percent) {
@@ -235,6 +665,21 @@ public final class Animation {
       float type = curves[i];
       if (type == LINEAR) return percent;
       if (type == STEPPED) return 0;
+      final float[] curveTable = this.curveTable;
+      if (curveTable != null) {
+        final int resolution = curveResolution;
+        final float mapped = percent * resolution;
+        final int index = Math.min((int)mapped, resolution - 1);
+        final int offset = frameIndex * (TABLE_HEADER + resolution + 1);
+        if (index == 0 || index == resolution - 1) {
+          final float cx1 = curveTable[offset], cy1 = curveTable[offset + 1];
+          final float cx2 = curveTable[offset + 2], cy2 = curveTable[offset + 3];
+          return bezier(bezierParameter(percent, cx1, cx2), cy1, cy2);
+        }
+        final int sample = offset + TABLE_HEADER + index;
+        final float a = curveTable[sample];
+        return a + (mapped - index) * (curveTable[sample + 1] - a);
+      }
       i++;
       float x = 0;
       for (int start = i, n = i + BEZIER_SIZE - 1; i < n; i += 2) {
@@ -256,7 +701,7 @@ public final class Animation {
     }
   }
 
-  public static class RotateTimeline extends CurveTimeline {
+  public static class RotateTimeline extends CurveTimeline implements BoneTimeline {
     private static final int PREV_FRAME_TIME = -2;
     private static final int FRAME_VALUE = 1;
 
@@ -292,46 +737,63 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha) {
-      float[] frames = this.frames;
+      apply(skeleton, lastTime, time, events, alpha, null, 0);
+    }
 
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       if(time < frames[0]) {
         return; // Time is before first frame.
       }
 
       Bone bone = skeleton.bones.get(boneIndex);
+      float rotation = bone.rotation();
+      bone.rotation(rotation + wrapAngle(bone.data.rotation + rotation(time, cursors, cursorIndex) - rotation) * alpha);
+    }
+
+    @Override
+    public void blend(@Nonnull Skeleton skeleton, float time, float alpha, @Nonnull float[] pose,
+                      @Nullable int[] cursors, int cursorIndex) {
+      if(time < frames[0]) {
+        return; // Time is before first frame.
+      }
+
+      int offset = boneIndex * Skeleton.LOCAL_STRIDE + Skeleton.LOCAL_ROTATION;
+      float rotation = pose[offset];
+      float target = skeleton.data.bones.get(boneIndex).rotation + rotation(time, cursors, cursorIndex);
+      pose[offset] = rotation + wrapAngle(target - rotation) * alpha;
+    }
+
+    /** Returns the keyed rotation at the given time, relative to the setup pose. */
+    private float rotation(float time, @Nullable int[] cursors, int cursorIndex) {
+      float[] frames = this.frames;
 
       if(time >= frames[frames.length - 2]) { // Time is after last frame.
-        float amount = bone.data.rotation + frames[frames.length - 1] - bone.rotation;
-        while (amount > 180)
-          amount -= 360;
-        while (amount < -180)
-          amount += 360;
-        bone.rotation += amount * alpha;
-        return;
+        return frames[frames.length - 1];
       }
 
       // Interpolate between the previous frame and the current frame.
-      int frameIndex = binarySearch(frames, time, 2);
+      int frameIndex = search(frames, time, 2, cursors, cursorIndex);
       float prevFrameValue = frames[frameIndex - 1];
       float frameTime = frames[frameIndex];
       float percent = MathUtil.clamp(1 - (time - frameTime) / (frames[frameIndex + PREV_FRAME_TIME] - frameTime), 0, 1);
       percent = getCurvePercent((frameIndex >> 1) - 1, percent);
 
-      float amount = frames[frameIndex + FRAME_VALUE] - prevFrameValue;
-      while (amount > 180)
-        amount -= 360;
-      while (amount < -180)
-        amount += 360;
-      amount = bone.data.rotation + (prevFrameValue + amount * percent) - bone.rotation;
-      while (amount > 180)
-        amount -= 360;
-      while (amount < -180)
-        amount += 360;
-      bone.rotation += amount * alpha;
+      return prevFrameValue + wrapAngle(frames[frameIndex + FRAME_VALUE] - prevFrameValue) * percent;
     }
   }
 
-  public static class TranslateTimeline extends CurveTimeline {
+  /** Wraps an angle in degrees into the range {@code [-180, 180]}, so rotations take the shortest path. */
+  static float wrapAngle(float amount) {
+    while (amount > 180)
+      amount -= 360;
+    while (amount < -180)
+      amount += 360;
+    return amount;
+  }
+
+  public static class TranslateTimeline extends CurveTimeline implements BoneTimeline {
     static final int PREV_FRAME_TIME = -3;
     static final int FRAME_X = 1;
     static final int FRAME_Y = 2;
@@ -369,27 +831,62 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha) {
-      float[] frames = this.frames;
+      apply(skeleton, lastTime, time, events, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       if (time < frames[0]) return; // Time is before first frame.
 
       Bone bone = skeleton.bones.get(boneIndex);
+      int frameIndex = frameIndex(time, cursors, cursorIndex);
+      float percent = percent(frameIndex, time);
 
-      if (time >= frames[frames.length - 3]) { // Time is after last frame.
-        bone.x += (bone.data.x + frames[frames.length - 2] - bone.x) * alpha;
-        bone.y += (bone.data.y + frames[frames.length - 1] - bone.y) * alpha;
-        return;
+      bone.x(bone.x() + (bone.data.x + value(frameIndex, percent, FRAME_X) - bone.x()) * alpha);
+      bone.y(bone.y() + (bone.data.y + value(frameIndex, percent, FRAME_Y) - bone.y()) * alpha);
+    }
+
+    @Override
+    public void blend(@Nonnull Skeleton skeleton, float time, float alpha, @Nonnull float[] pose,
+                      @Nullable int[] cursors, int cursorIndex) {
+      if (time < frames[0]) return; // Time is before first frame.
+
+      BoneData data = skeleton.data.bones.get(boneIndex);
+      int offset = boneIndex * Skeleton.LOCAL_STRIDE;
+      int frameIndex = frameIndex(time, cursors, cursorIndex);
+      float percent = percent(frameIndex, time);
+      float x = pose[offset + Skeleton.LOCAL_X];
+      float y = pose[offset + Skeleton.LOCAL_Y];
+
+      pose[offset + Skeleton.LOCAL_X] = x + (data.x + value(frameIndex, percent, FRAME_X) - x) * alpha;
+      pose[offset + Skeleton.LOCAL_Y] = y + (data.y + value(frameIndex, percent, FRAME_Y) - y) * alpha;
+    }
+
+    /** Returns the index of the frame after the given time; -1 if the time is after the last frame. */
+    int frameIndex(float time, @Nullable int[] cursors, int cursorIndex) {
+      return time >= frames[frames.length - 3] ? -1 : search(frames, time, 3, cursors, cursorIndex);
+    }
+
+    /** Returns the curved percentage between the previous frame and the frame at the given index. */
+    float percent(int frameIndex, float time) {
+      if(frameIndex == -1) {
+        return 0.0f;
       }
 
-      // Interpolate between the previous frame and the current frame.
-      int frameIndex = binarySearch(frames, time, 3);
-      float prevFrameX = frames[frameIndex - 2];
-      float prevFrameY = frames[frameIndex - 1];
       float frameTime = frames[frameIndex];
       float percent = MathUtil.clamp(1 - (time - frameTime) / (frames[frameIndex + PREV_FRAME_TIME] - frameTime), 0, 1);
-      percent = getCurvePercent(frameIndex / 3 - 1, percent);
+      return getCurvePercent(frameIndex / 3 - 1, percent);
+    }
+
+    /** Returns the keyed {@link #FRAME_X} or {@link #FRAME_Y} value interpolated up to the frame at the given index. */
+    float value(int frameIndex, float percent, int frameOffset) {
+      if(frameIndex == -1) { // Time is after last frame.
+        return frames[frames.length - 3 + frameOffset];
+      }
 
-      bone.x += (bone.data.x + prevFrameX + (frames[frameIndex + FRAME_X] - prevFrameX) * percent - bone.x) * alpha;
-      bone.y += (bone.data.y + prevFrameY + (frames[frameIndex + FRAME_Y] - prevFrameY) * percent - bone.y) * alpha;
+      float prevFrameValue = frames[frameIndex - 3 + frameOffset];
+      return prevFrameValue + (frames[frameIndex + frameOffset] - prevFrameValue) * percent;
     }
   }
 
@@ -400,28 +897,36 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha) {
-      float[] frames = this.frames;
+      apply(skeleton, lastTime, time, events, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       if (time < frames[0]) return; // Time is before first frame.
 
       Bone bone = skeleton.bones.get(boneIndex);
-      if (time >= frames[frames.length - 3]) { // Time is after last frame.
-        bone.scaleX += (bone.data.scaleX * frames[frames.length - 2] - bone.scaleX) * alpha;
-        bone.scaleY += (bone.data.scaleY * frames[frames.length - 1] - bone.scaleY) * alpha;
-        return;
-      }
+      int frameIndex = frameIndex(time, cursors, cursorIndex);
+      float percent = percent(frameIndex, time);
 
-      // Interpolate between the previous frame and the current frame.
-      int frameIndex = binarySearch(frames, time, 3);
-      float prevFrameX = frames[frameIndex - 2];
-      float prevFrameY = frames[frameIndex - 1];
-      float frameTime = frames[frameIndex];
-      float percent = MathUtil.clamp(1 - (time - frameTime) / (frames[frameIndex + PREV_FRAME_TIME] - frameTime), 0, 1);
-      percent = getCurvePercent(frameIndex / 3 - 1, percent);
+      bone.scaleX(bone.scaleX() + (bone.data.scaleX * value(frameIndex, percent, FRAME_X) - bone.scaleX()) * alpha);
+      bone.scaleY(bone.scaleY() + (bone.data.scaleY * value(frameIndex, percent, FRAME_Y) - bone.scaleY()) * alpha);
+    }
+
+    @Override
+    public void blend(@Nonnull Skeleton skeleton, float time, float alpha, @Nonnull float[] pose,
+                      @Nullable int[] cursors, int cursorIndex) {
+      if (time < frames[0]) return; // Time is before first frame.
 
-      bone.scaleX += (bone.data.scaleX * (prevFrameX + (frames[frameIndex + FRAME_X] - prevFrameX) * percent) - bone.scaleX)
-          * alpha;
-      bone.scaleY += (bone.data.scaleY * (prevFrameY + (frames[frameIndex + FRAME_Y] - prevFrameY) * percent) - bone.scaleY)
-          * alpha;
+      BoneData data = skeleton.data.bones.get(boneIndex);
+      int offset = boneIndex * Skeleton.LOCAL_STRIDE;
+      int frameIndex = frameIndex(time, cursors, cursorIndex);
+      float percent = percent(frameIndex, time);
+      float scaleX = pose[offset + Skeleton.LOCAL_SCALE_X];
+      float scaleY = pose[offset + Skeleton.LOCAL_SCALE_Y];
+
+      pose[offset + Skeleton.LOCAL_SCALE_X] = scaleX + (data.scaleX * value(frameIndex, percent, FRAME_X) - scaleX) * alpha;
+      pose[offset + Skeleton.LOCAL_SCALE_Y] = scaleY + (data.scaleY * value(frameIndex, percent, FRAME_Y) - scaleY) * alpha;
     }
   }
 
@@ -460,6 +965,12 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha) {
+      apply(skeleton, lastTime, time, events, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       float[] frames = this.frames;
       if (time < frames[0]) return; // Time is before first frame.
 
@@ -473,7 +984,7 @@ public final class Animation {
         a = frames[i];
       } else {
         // Interpolate between the previous frame and the current frame.
-        int frameIndex = binarySearch(frames, time, 5);
+        int frameIndex = search(frames, time, 5, cursors, cursorIndex);
         float prevFrameR = frames[frameIndex - 4];
         float prevFrameG = frames[frameIndex - 3];
         float prevFrameB = frames[frameIndex - 2];
@@ -509,6 +1020,14 @@ public final class Animation {
     @Nonnull
     final String[] attachmentNames;
 
+    /** Attachment id of each frame, -1 for no attachment; null if not resolved. */
+    @Nullable
+    int[] attachmentIds;
+
+    /** The skeleton data the attachment ids belong to. */
+    @Nullable
+    SkeletonData attachmentIdData;
+
     int slotIndex;
 
     public AttachmentTimeline(int frameCount) {
@@ -516,6 +1035,20 @@ public final class Animation {
       attachmentNames = new String[frameCount];
     }
 
+    /** Resolves the attachment names of all frames to attachment ids of the given skeleton data. */
+    void resolveAttachmentIds(@Nonnull final SkeletonData data) {
+      final String[] attachmentNames = this.attachmentNames;
+      final int[] attachmentIds = new int[attachmentNames.length];
+
+      for(int i = 0, n = attachmentNames.length; i < n; ++i) {
+        final String attachmentName = attachmentNames[i];
+        attachmentIds[i] = attachmentName == null ? -1 : data.attachmentId(slotIndex, attachmentName);
+      }
+
+      this.attachmentIds = attachmentIds;
+      this.attachmentIdData = data;
+    }
+
     public int frameCount() {
       return frames.length;
     }
@@ -541,10 +1074,17 @@ public final class Animation {
     public void setFrame(int frameIndex, float time, String attachmentName) {
       frames[frameIndex] = time;
       attachmentNames[frameIndex] = attachmentName;
+      attachmentIds = null;
     }
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha) {
+      apply(skeleton, lastTime, time, events, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       float[] frames = this.frames;
       if (time < frames[0]) {
         if (lastTime > time) apply(skeleton, lastTime, Integer.MAX_VALUE, null, 0);
@@ -552,9 +1092,16 @@ public final class Animation {
       } else if (lastTime > time) //
         lastTime = -1;
 
-      int frameIndex = (time >= frames[frames.length - 1] ? frames.length : binarySearch(frames, time)) - 1;
+      int frameIndex = (time >= frames[frames.length - 1] ? frames.length : search(frames, time, 1, cursors, cursorIndex)) - 1;
       if (frames[frameIndex] < lastTime) return;
 
+      final int[] attachmentIds = this.attachmentIds;
+      if (attachmentIds != null && skeleton.data == attachmentIdData) {
+        final int attachmentId = attachmentIds[frameIndex];
+        skeleton.slots.get(slotIndex).attachment(attachmentId == -1 ? null : skeleton.getAttachment(attachmentId));
+        return;
+      }
+
       String attachmentName = attachmentNames[frameIndex];
       skeleton.slots.get(slotIndex).attachment(
           attachmentName == null ? null : skeleton.getAttachment(slotIndex, attachmentName));
@@ -658,6 +1205,12 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> firedEvents, float alpha) {
+      apply(skeleton, lastTime, time, firedEvents, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> firedEvents, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       float[] frames = this.frames;
       if (time < frames[0]) return; // Time is before first frame.
 
@@ -665,7 +1218,7 @@ public final class Animation {
       if (time >= frames[frames.length - 1]) // Time is after last frame.
         frameIndex = frames.length - 1;
       else
-        frameIndex = binarySearch(frames, time) - 1;
+        frameIndex = search(frames, time, 1, cursors, cursorIndex) - 1;
 
       Array<Slot> drawOrder = skeleton.drawOrder;
       Array<Slot> slots = skeleton.slots;
@@ -731,6 +1284,12 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> firedEvents, float alpha) {
+      apply(skeleton, lastTime, time, firedEvents, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> firedEvents, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       Slot slot = skeleton.slots.get(slotIndex);
       if (slot.attachment() != attachment) return;
 
@@ -756,7 +1315,7 @@ public final class Animation {
       }
 
       // Interpolate between the previous frame and the current frame.
-      int frameIndex = binarySearch(frames, time);
+      int frameIndex = search(frames, time, 1, cursors, cursorIndex);
       float frameTime = frames[frameIndex];
       float percent = MathUtil.clamp(1 - (time - frameTime) / (frames[frameIndex - 1] - frameTime), 0, 1);
       percent = getCurvePercent(frameIndex - 1, percent);
@@ -817,6 +1376,12 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha) {
+      apply(skeleton, lastTime, time, events, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       float[] frames = this.frames;
       if (time < frames[0]) return; // Time is before first frame.
 
@@ -829,7 +1394,7 @@ public final class Animation {
       }
 
       // Interpolate between the previous frame and the current frame.
-      int frameIndex = binarySearch(frames, time, 3);
+      int frameIndex = search(frames, time, 3, cursors, cursorIndex);
       float prevFrameMix = frames[frameIndex + PREV_FRAME_MIX];
       float frameTime = frames[frameIndex];
       float percent = MathUtil.clamp(1 - (time - frameTime) / (frames[frameIndex + PREV_FRAME_TIME] - frameTime), 0, 1);
@@ -877,13 +1442,19 @@ public final class Animation {
 
     @Override
     public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha) {
+      apply(skeleton, lastTime, time, events, alpha, null, 0);
+    }
+
+    @Override
+    public void apply(@Nonnull Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha,
+                      @Nullable int[] cursors, int cursorIndex) {
       float[] frames = this.frames;
       if (time < frames[0]) {
         if (lastTime > time) apply(skeleton, lastTime, Integer.MAX_VALUE, null, 0);
         return;
       } else if (lastTime > time) //
         lastTime = -1;
-      int frameIndex = (time >= frames[frames.length - 2] ? frames.length : binarySearch(frames, time, 2)) - 2;
+      int frameIndex = (time >= frames[frames.length - 2] ? frames.length : search(frames, time, 2, cursors, cursorIndex)) - 2;
       if (frames[frameIndex] < lastTime) return;
       setFlip(skeleton.bones.get(boneIndex), frames[frameIndex + 1] != 0);
     }
@@ -33,21 +33,23 @@
 
 package defrac.animation.spine;
 
-import defrac.event.Listeners;
-import defrac.pool.ObjectPool;
-import defrac.pool.ObjectPools;
 import defrac.util.Array;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 import static defrac.lang.Preconditions.checkArgument;
 
-/** Stores state for an animation and automatically mixes between animations. */
+/** Stores state for an animation and automatically mixes between animations.
+ *
+ * <p>Once all track entries have been allocated, {@link #update(float)} and {@link #apply(Skeleton)}
+ * do not allocate: track entries are recycled by a pool owned by the state and listeners are
+ * dispatched by index. */
 public final class AnimationState {
-  @Nonnull
-  private static final ObjectPool<TrackEntry> TRACK_ENTRY_POOL =
-      ObjectPools.newPool(TrackEntry::new);
+  public static final int DEFAULT_TRACK_ENTRY_POOL_CAPACITY = 8;
+
+  private static final Listener[] NO_LISTENERS = new Listener[0];
 
   @Nonnull
   private final AnimationStateData data;
@@ -55,16 +57,59 @@ public final class AnimationState {
   @Nonnull
   private final Array<Event> events = new Array<>();
 
+  /** Listeners are replaced on modification, so dispatch never sees a partial update. */
   @Nonnull
-  private final Listeners<Listener> listeners = Listeners.create();
+  private Listener[] listeners = NO_LISTENERS;
 
   @Nonnull
   private final Array<TrackEntry> tracks = new Array<>();
 
+  /** Track entries are pooled per state so states can be updated on different threads. */
+  @Nonnull
+  private final TrackEntry[] trackEntryPool;
+
+  private int trackEntryPoolSize;
+
+  /** Baked animations by animation index, see {@link #bakedAnimation(BakedAnimation)}. */
+  @Nonnull
+  private BakedAnimation[] bakedAnimations = new BakedAnimation[0];
+
+  /** Local pose of the skeleton before and after blending all tracks, see {@link #beginBlend(Skeleton)}. */
+  @Nonnull
+  private float[] blendBase = new float[0], blendPose = new float[0];
+
+  /** Bits of the bones targeted by the blended animations; see {@link #blendMask(Animation)}. */
+  @Nonnull
+  private long[] blendMask = new long[0];
+
+  private boolean blendAll;
+
+  /** Bits of the bones which may be posed, see {@link #boneMask(long[])}; null if all bones are posed. */
+  @Nullable
+  private long[] boneMask;
+
   private float timeScale = 1.0f;
 
   public AnimationState(@Nonnull final AnimationStateData data) {
+    this(data, DEFAULT_TRACK_ENTRY_POOL_CAPACITY);
+  }
+
+  /**
+   * @param trackEntryPoolCapacity The number of track entries allocated up front and
+   *                               kept for reuse once they are no longer needed
+   */
+  public AnimationState(@Nonnull final AnimationStateData data,
+                        final int trackEntryPoolCapacity) {
+    checkArgument(trackEntryPoolCapacity >= 0, "trackEntryPoolCapacity must not be negative");
+
     this.data = data;
+    this.trackEntryPool = new TrackEntry[trackEntryPoolCapacity];
+
+    for(int i = 0; i < trackEntryPoolCapacity; ++i) {
+      trackEntryPool[i] = new TrackEntry();
+    }
+
+    trackEntryPoolSize = trackEntryPoolCapacity;
   }
 
   /**
@@ -108,8 +153,47 @@ public final class AnimationState {
   }
 
   public void apply(@Nonnull final Skeleton skeleton) {
+    apply(skeleton, true);
+  }
+
+  /**
+   * Advances the tracks like {@link #apply(Skeleton)} without posing the skeleton
+   *
+   * <p>Only event timelines are applied: events are fired, completions are reported and
+   * crossfades are retired, but bones, slots and the draw order of the skeleton are unchanged.
+   * This is used when the pose is taken from a cache instead of being evaluated.
+   */
+  public void applyEvents(@Nonnull final Skeleton skeleton) {
+    apply(skeleton, false);
+  }
+
+  /** @return The entry of the only track that plays, if it is not mixed with anything; null otherwise */
+  @Nullable
+  public TrackEntry soloEntry() {
+    TrackEntry result = null;
+
+    for(int trackIndex = 0, trackCount = tracks.size(); trackIndex < trackCount; trackIndex++) {
+      final TrackEntry current = tracks.get(trackIndex);
+
+      if(current == null) {
+        continue;
+      }
+
+      if(result != null) {
+        return null;
+      }
+
+      result = current;
+    }
+
+    return result != null && result.previous == null && result.mix >= 1.0f ? result : null;
+  }
+
+  private void apply(@Nonnull final Skeleton skeleton, final boolean pose) {
     final Array<Event> events = this.events;
     final int trackCount = tracks.size();
+    final TrackEntry solo = soloEntry();
+    float[] blendPose = null;
 
     for(int trackIndex = 0; trackIndex < trackCount; trackIndex++) {
       final TrackEntry current = tracks.get(trackIndex);
@@ -131,9 +215,30 @@ public final class AnimationState {
 
       final TrackEntry previous = current.previous;
 
-      if(previous == null) {
+      if(!pose) {
+        if(previous != null && current.mixTime / current.mixDuration * current.mix >= 1.0f) {
+          freeEntry(previous);
+          current.previous = null;
+        }
+
+        assert current.animation != null;
+        current.animation.applyEvents(skeleton, lastTime, time, loop, events);
+      } else if(previous == null) {
         assert current.animation != null;
-        current.animation.mix(skeleton, lastTime, time, loop, events, current.mix);
+
+        // Baked poses replace the whole pose, so they are only used when nothing is mixed.
+        final BakedAnimation baked = current == solo && boneMask == null ? bakedAnimation(current.animation) : null;
+
+        if(baked != null) {
+          baked.apply(skeleton, lastTime, time, loop, events, current.cursors());
+        } else {
+          if(blendPose == null) {
+            blendPose = beginBlend(skeleton);
+          }
+
+          blendMask(current.animation);
+          current.animation.blend(skeleton, lastTime, time, loop, events, current.mix, current.cursors(), blendPose, boneMask);
+        }
       } else {
         float previousTime = previous.time;
 
@@ -141,46 +246,87 @@ public final class AnimationState {
           previousTime = previous.endTime;
         }
 
+        if(blendPose == null) {
+          blendPose = beginBlend(skeleton);
+        }
+
         assert previous.animation != null;
-        previous.animation.apply(skeleton, previousTime, previousTime, previous.loop, null);
+        blendMask(previous.animation);
+        previous.animation.blend(skeleton, previousTime, previousTime, previous.loop, null, 1.0f, previous.cursors(), blendPose, boneMask);
 
         float alpha = current.mixTime / current.mixDuration * current.mix;
 
         if(alpha >= 1.0f) {
           alpha = 1.0f;
-          TRACK_ENTRY_POOL.ret(previous);
+          freeEntry(previous);
           current.previous = null;
         }
 
         assert current.animation != null;
-        current.animation.mix(skeleton, lastTime, time, loop, events, alpha);
+        blendMask(current.animation);
+        current.animation.blend(skeleton, lastTime, time, loop, events, alpha, current.cursors(), blendPose, boneMask);
       }
 
-      for(final Event event : events) {
-        if(current.listener != null) {
-          current.listener.event(trackIndex, event);
-        }
-
-        for(final Listener listener : listeners) {
-          listener.event(trackIndex, event);
-        }
+      for(int i = 0, n = events.size(); i < n; ++i) {
+        dispatchEvent(current, trackIndex, events.get(i));
       }
 
       // Check if completed the animation or a loop iteration.
       if(loop ? (lastTime % endTime > time % endTime) : (lastTime < endTime && time >= endTime)) {
-        final int count = (int)(time / endTime);
-
-        if(current.listener != null) {
-          current.listener.complete(trackIndex, count);
-        }
-
-        for(final Listener listener : listeners) {
-          listener.complete(trackIndex, count);
-        }
+        dispatchComplete(current, trackIndex, (int)(time / endTime));
       }
 
       current.lastTime = current.time;
     }
+
+    if(blendPose != null) {
+      skeleton.applyLocalPose(blendBase, blendPose, blendAll ? null : blendMask);
+    }
+  }
+
+  /**
+   * Starts blending the tracks into a copy of the local pose of the skeleton
+   *
+   * <p>Rotation, translation and scale timelines of all tracks and of entries being mixed
+   * out accumulate their weighted values in the copy, which is written to the bones once
+   * after all tracks have been applied.
+   */
+  @Nonnull
+  private float[] beginBlend(@Nonnull final Skeleton skeleton) {
+    final float[] boneLocal = skeleton.boneLocal;
+    final int length = boneLocal.length;
+
+    if(blendPose.length != length) {
+      blendBase = new float[length];
+      blendPose = new float[length];
+    }
+
+    System.arraycopy(boneLocal, 0, blendBase, 0, length);
+    System.arraycopy(boneLocal, 0, blendPose, 0, length);
+    Arrays.fill(blendMask, 0L);
+    blendAll = false;
+
+    return blendPose;
+  }
+
+  /** Adds the bones targeted by an animation to the bones written after blending. */
+  private void blendMask(@Nonnull final Animation animation) {
+    animation.materialize();
+
+    if(animation.touchesAll) {
+      blendAll = true;
+      return;
+    }
+
+    final long[] boneMask = animation.boneMask;
+
+    if(boneMask.length > blendMask.length) {
+      blendMask = Arrays.copyOf(blendMask, boneMask.length);
+    }
+
+    for(int i = 0; i < boneMask.length; ++i) {
+      blendMask[i] |= boneMask[i];
+    }
   }
 
   public void clearTracks() {
@@ -204,27 +350,23 @@ public final class AnimationState {
       return;
     }
 
-    if(current.listener != null) {
-      current.listener.end(trackIndex);
-    }
-
-    for(final Listener listener : listeners) {
-      listener.end(trackIndex);
-    }
+    dispatchEnd(current, trackIndex);
 
     tracks.set(trackIndex, null);
 
+    final TrackEntry previous = current.previous;
+
     freeAll(current);
 
-    if(current.previous != null) {
-      TRACK_ENTRY_POOL.ret(current.previous);
+    if(previous != null) {
+      freeEntry(previous);
     }
   }
 
   private void freeAll(@Nullable TrackEntry entry) {
     while(entry != null) {
       final TrackEntry next = entry.next;
-      TRACK_ENTRY_POOL.ret(entry);
+      freeEntry(entry);
       entry = next;
     }
   }
@@ -247,13 +389,7 @@ public final class AnimationState {
       TrackEntry previous = current.previous;
       current.previous = null;
 
-      if(current.listener != null) {
-        current.listener.end(index);
-      }
-
-      for(final Listener listener : listeners) {
-        listener.end(index);
-      }
+      dispatchEnd(current, index);
 
       entry.mixDuration = data.getMix(current.animation, entry.animation);
 
@@ -268,22 +404,77 @@ public final class AnimationState {
           entry.previous = current;
         }
       } else {
-        TRACK_ENTRY_POOL.ret(current);
+        freeEntry(current);
       }
 
       if(previous != null) {
-        TRACK_ENTRY_POOL.ret(previous);
+        freeEntry(previous);
       }
     }
 
     tracks.set(index, entry);
 
+    dispatchStart(entry, index);
+  }
+
+  @Nonnull
+  private TrackEntry obtainEntry() {
+    return trackEntryPoolSize > 0 ? trackEntryPool[--trackEntryPoolSize] : new TrackEntry();
+  }
+
+  private void freeEntry(@Nonnull final TrackEntry entry) {
+    entry.reset();
+
+    if(trackEntryPoolSize < trackEntryPool.length) {
+      trackEntryPool[trackEntryPoolSize++] = entry;
+    }
+  }
+
+  private void dispatchEvent(@Nonnull final TrackEntry entry, final int trackIndex, @Nonnull final Event event) {
+    final Listener[] listeners = this.listeners;
+
     if(entry.listener != null) {
-      entry.listener.start(index);
+      entry.listener.event(trackIndex, event);
     }
 
-    for(final Listener listener : listeners) {
-      listener.start(index);
+    for(int i = 0, n = listeners.length; i < n; ++i) {
+      listeners[i].event(trackIndex, event);
+    }
+  }
+
+  private void dispatchComplete(@Nonnull final TrackEntry entry, final int trackIndex, final int loopCount) {
+    final Listener[] listeners = this.listeners;
+
+    if(entry.listener != null) {
+      entry.listener.complete(trackIndex, loopCount);
+    }
+
+    for(int i = 0, n = listeners.length; i < n; ++i) {
+      listeners[i].complete(trackIndex, loopCount);
+    }
+  }
+
+  private void dispatchStart(@Nonnull final TrackEntry entry, final int trackIndex) {
+    final Listener[] listeners = this.listeners;
+
+    if(entry.listener != null) {
+      entry.listener.start(trackIndex);
+    }
+
+    for(int i = 0, n = listeners.length; i < n; ++i) {
+      listeners[i].start(trackIndex);
+    }
+  }
+
+  private void dispatchEnd(@Nonnull final TrackEntry entry, final int trackIndex) {
+    final Listener[] listeners = this.listeners;
+
+    if(entry.listener != null) {
+      entry.listener.end(trackIndex);
+    }
+
+    for(int i = 0, n = listeners.length; i < n; ++i) {
+      listeners[i].end(trackIndex);
     }
   }
 
@@ -309,9 +500,10 @@ public final class AnimationState {
 
     if(current != null) {
       freeAll(current.next);
+      current.next = null;
     }
 
-    final TrackEntry entry = TRACK_ENTRY_POOL.get();
+    final TrackEntry entry = obtainEntry();
 
     entry.animation = animation;
     entry.loop = loop;
@@ -342,7 +534,7 @@ public final class AnimationState {
                                  @Nonnull final Animation animation,
                                  final boolean loop,
                                  float delay) {
-    final TrackEntry entry = TRACK_ENTRY_POOL.get();
+    final TrackEntry entry = obtainEntry();
 
     entry.animation = animation;
     entry.loop = loop;
@@ -383,7 +575,13 @@ public final class AnimationState {
 
   /** Adds a listener to receive events for all animations. */
   public void addListener(@Nonnull final Listener listener) {
-    listeners.add(listener);
+    final Listener[] listeners = this.listeners;
+    final int count = listeners.length;
+    final Listener[] result = Arrays.copyOf(listeners, count + 1);
+
+    result[count] = listener;
+
+    this.listeners = result;
   }
 
   /** Removes the listener added with {@link #addListener(Listener)}. */
@@ -392,7 +590,56 @@ public final class AnimationState {
       return;
     }
 
-    listeners.remove(listener);
+    final Listener[] listeners = this.listeners;
+
+    for(int i = 0, n = listeners.length; i < n; ++i) {
+      if(listeners[i] == listener) {
+        final Listener[] result = new Listener[n - 1];
+
+        System.arraycopy(listeners, 0, result, 0, i);
+        System.arraycopy(listeners, i + 1, result, i, n - i - 1);
+
+        this.listeners = n == 1 ? NO_LISTENERS : result;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Plays the baked animation instead of evaluating its animation live
+   *
+   * <p>The baked pose is used while the animation plays on a single track without a
+   * crossfade; mixes fall back to live evaluation.
+   */
+  public void bakedAnimation(@Nonnull final BakedAnimation value) {
+    checkArgument(value.data() == data.skeletonData(), "Baked animation does not belong to skeleton data");
+
+    final int index = value.animation().index();
+
+    if(index >= bakedAnimations.length) {
+      bakedAnimations = Arrays.copyOf(bakedAnimations, data.skeletonData().animations().size());
+    }
+
+    bakedAnimations[index] = value;
+  }
+
+  /** @return The baked animation registered for the given animation; null if there is none. */
+  @Nullable
+  public BakedAnimation bakedAnimation(@Nonnull final Animation animation) {
+    final int index = animation.index();
+    final BakedAnimation[] bakedAnimations = this.bakedAnimations;
+
+    if(index < 0 || index >= bakedAnimations.length) {
+      return null;
+    }
+
+    final BakedAnimation baked = bakedAnimations[index];
+    return baked != null && baked.animation() == animation ? baked : null;
+  }
+
+  /** Removes all baked animations added with {@link #bakedAnimation(BakedAnimation)}. */
+  public void clearBakedAnimations() {
+    bakedAnimations = new BakedAnimation[0];
   }
 
   public float timeScale() {
@@ -403,6 +650,24 @@ public final class AnimationState {
     timeScale = value;
   }
 
+  /** @return The bones which may be posed by {@link #apply(Skeleton)}; null if all bones are posed. */
+  @Nullable
+  public long[] boneMask() {
+    return boneMask;
+  }
+
+  /**
+   * Restricts the bones posed by rotation, translation and scale timelines
+   *
+   * <p>Timelines of bones which are not in the mask are not evaluated and those bones
+   * keep their local transform. Baked animations are not used while a mask is set.
+   *
+   * @param value One bit per bone index, see {@link SkeletonData#boneMask(String...)}; null to pose all bones
+   */
+  public void boneMask(@Nullable final long[] value) {
+    boneMask = value;
+  }
+
   @Nonnull
   public AnimationStateData data() {
     return data;
@@ -455,14 +720,28 @@ public final class AnimationState {
     float mixTime, mixDuration;
     float mix = 1;
 
+    /** Frame cursors of each timeline, owned by this entry; valid for cursorAnimation only. */
+    @Nullable
+    private int[] cursors;
+
+    @Nullable
+    private Animation cursorAnimation;
+
     public void reset() {
       next = null;
       previous = null;
       animation = null;
       listener = null;
+      loop = false;
+      delay = 0;
+      endTime = 0;
       timeScale = 1;
       lastTime = -1; // Trigger events on frame zero.
       time = 0;
+      mixTime = 0;
+      mixDuration = 0;
+      mix = 1;
+      cursorAnimation = null; // Keeps the cursors for reuse.
     }
 
     @Nullable
@@ -553,6 +832,30 @@ public final class AnimationState {
       return time >= endTime;
     }
 
+    /** Returns the frame cursors for the current animation, so timelines can skip searching for frames. */
+    @Nonnull
+    int[] cursors() {
+      final Animation animation = this.animation;
+      int[] cursors = this.cursors;
+
+      assert animation != null;
+
+      if(animation != cursorAnimation) {
+        final int timelineCount = animation.timelines().size();
+
+        if(cursors == null || cursors.length < timelineCount) {
+          cursors = this.cursors = new int[timelineCount];
+        } else {
+          Arrays.fill(cursors, 0);
+        }
+
+        cursorAnimation = animation;
+      }
+
+      assert cursors != null;
+      return cursors;
+    }
+
     @Nonnull
     @Override
     public String toString() {
@@ -37,26 +37,34 @@ import defrac.lang.Objects;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import static defrac.lang.Preconditions.checkArgument;
 
-/** Stores mixing times between animations. */
+/** Stores mixing times between animations.
+ *
+ * <p>Mixes between animations of the skeleton data are stored in a matrix indexed by
+ * {@link Animation#index()}. Mixes involving animations which do not belong to the
+ * skeleton data are kept in a map instead. */
 public final class AnimationStateData {
   @Nonnull
-  private static final Key LOOKUP_KEY = new Key();
+  private final SkeletonData skeletonData;
 
+  /** The mix matrix; replaced as a whole when it grows so that readers never see a partial resize. */
   @Nonnull
-  final Map<Key, Float> animationToMixTime = new HashMap<>();
+  private volatile Mixes mixes;
 
+  /** Mixes involving at least one animation which does not belong to the skeleton data. */
   @Nonnull
-  private final SkeletonData skeletonData;
+  private final Map<Key, Float> foreignMixes = new HashMap<>();
 
   float defaultMix;
 
   public AnimationStateData(@Nonnull final SkeletonData skeletonData) {
     this.skeletonData = skeletonData;
+    this.mixes = new Mixes(skeletonData.animations.size(), 0.0f);
   }
 
   @Nonnull
@@ -80,18 +88,45 @@ public final class AnimationStateData {
   public void setMix(@Nonnull final Animation from,
                      @Nonnull final Animation to,
                      final float duration) {
-    final Key key = new Key();
-    key.from = from;
-    key.to = to;
-    animationToMixTime.put(key, duration);
+    if(!isOwned(from) || !isOwned(to)) {
+      foreignMixes.put(new Key(from, to), duration);
+      return;
+    }
+
+    Mixes mixes = this.mixes;
+
+    if(from.index >= mixes.count || to.index >= mixes.count) {
+      mixes = this.mixes = mixes.grow(skeletonData.animations.size(), defaultMix);
+    }
+
+    final int index = from.index * mixes.count + to.index;
+
+    mixes.durations[index] = duration;
+    mixes.explicit[index] = true;
   }
 
   public float getMix(@Nullable final Animation from,
                       @Nullable final Animation to) {
-    LOOKUP_KEY.from = from;
-    LOOKUP_KEY.to = to;
+    if(from == null || to == null) {
+      return defaultMix;
+    }
 
-    final Float result = animationToMixTime.get(LOOKUP_KEY);
+    if(isOwned(from) && isOwned(to)) {
+      final Mixes mixes = this.mixes;
+
+      if(from.index >= mixes.count || to.index >= mixes.count) {
+        // Animations added after the matrix has been sized have no explicit mix yet
+        return defaultMix;
+      }
+
+      return mixes.durations[from.index * mixes.count + to.index];
+    }
+
+    if(foreignMixes.isEmpty()) {
+      return defaultMix;
+    }
+
+    final Float result = foreignMixes.get(new Key(from, to));
 
     return result == null
         ? defaultMix
@@ -104,10 +139,64 @@ public final class AnimationStateData {
 
   public void defaultMix(final float value) {
     this.defaultMix = value;
+
+    final Mixes mixes = this.mixes;
+    final float[] durations = mixes.durations;
+    final boolean[] explicit = mixes.explicit;
+
+    for(int i = 0, n = durations.length; i < n; ++i) {
+      if(!explicit[i]) {
+        durations[i] = value;
+      }
+    }
+  }
+
+  private boolean isOwned(@Nonnull final Animation animation) {
+    final int index = animation.index;
+    return index >= 0 && index < skeletonData.animations.size() && skeletonData.animations.get(index) == animation;
+  }
+
+  /** Mix durations indexed by {@code from.index() * count + to.index()}. */
+  private static final class Mixes {
+    final int count;
+
+    @Nonnull
+    final float[] durations;
+
+    /** Whether or not a mix has been set explicitly and must survive a change of the default mix. */
+    @Nonnull
+    final boolean[] explicit;
+
+    Mixes(final int count, final float defaultMix) {
+      this.count = count;
+      this.durations = new float[count * count];
+      this.explicit = new boolean[durations.length];
+
+      Arrays.fill(durations, defaultMix);
+    }
+
+    /** Returns a copy covering {@code newCount} animations which keeps the existing mixes. */
+    @Nonnull
+    Mixes grow(final int newCount, final float defaultMix) {
+      final Mixes result = new Mixes(newCount, defaultMix);
+
+      for(int from = 0; from < count; ++from) {
+        System.arraycopy(durations, from * count, result.durations, from * newCount, count);
+        System.arraycopy(explicit, from * count, result.explicit, from * newCount, count);
+      }
+
+      return result;
+    }
   }
 
-  static class Key {
-    Animation from, to;
+  static final class Key {
+    @Nonnull
+    final Animation from, to;
+
+    Key(@Nonnull final Animation from, @Nonnull final Animation to) {
+      this.from = from;
+      this.to = to;
+    }
 
     @Override
     public int hashCode() {
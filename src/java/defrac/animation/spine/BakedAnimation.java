@@ -0,0 +1,302 @@
+/******************************************************************************
+ * Spine Runtimes Software License
+ * Version 2.3
+ * <p>
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ * <p>
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+// Ported from the Spine runtime by defrac 2015.
+
+package defrac.animation.spine;
+
+import defrac.animation.spine.Animation.*;
+import defrac.util.Array;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * The BakedAnimation class stores the world transforms of all bones of an animation sampled at a fixed rate
+ *
+ * <p>Applying a baked animation copies, or interpolates, the sampled world transforms into the
+ * skeleton. Bone timelines, curves, IK constraints and {@link Skeleton#updateWorldTransform()}
+ * are skipped entirely; only slot timelines (attachments, colors, deformations, draw order and
+ * events) are still evaluated.
+ *
+ * <p>The pose is sampled for an unflipped skeleton. A flipped skeleton falls back to live
+ * evaluation, just like an {@link AnimationState} does while a crossfade is running.
+ */
+public final class BakedAnimation {
+  public static final float DEFAULT_SAMPLE_RATE = 30.0f;
+
+  /** Creates a baked animation with the {@link #DEFAULT_SAMPLE_RATE default sample rate}. */
+  @Nonnull
+  public static BakedAnimation bake(@Nonnull final SkeletonData data,
+                                    @Nonnull final Animation animation) {
+    return bake(data, animation, DEFAULT_SAMPLE_RATE);
+  }
+
+  /**
+   * Creates a baked animation
+   *
+   * @param data The skeleton data the animation belongs to
+   * @param animation The animation to sample
+   * @param sampleRate The number of samples per second
+   * @return The baked animation
+   */
+  @Nonnull
+  public static BakedAnimation bake(@Nonnull final SkeletonData data,
+                                    @Nonnull final Animation animation,
+                                    final float sampleRate) {
+    checkArgument(sampleRate > 0.0f, "sampleRate must be positive");
+    checkArgument(animation.index >= 0 && data.animations.get(animation.index) == animation,
+        "Animation does not belong to skeleton data: " + animation);
+
+    final float duration = animation.duration();
+    final int frameCount = (int)Math.ceil(duration * sampleRate) + 1;
+    final int boneCount = data.bones.size();
+    final int frameSize = boneCount * Skeleton.WORLD_STRIDE;
+    final float[] transforms = new float[frameCount * frameSize];
+    final boolean[] flips = new boolean[frameCount * boneCount * 2];
+    final Skeleton skeleton = new Skeleton(data);
+
+    for(int frame = 0; frame < frameCount; ++frame) {
+      final float time = Math.min(frame / sampleRate, duration);
+
+      skeleton.setBonesToSetupPose();
+      animation.apply(skeleton, time, time, false, null);
+      skeleton.updateWorldTransform();
+
+      System.arraycopy(skeleton.boneWorld, 0, transforms, frame * frameSize, frameSize);
+
+      for(int boneIndex = 0, flipIndex = frame * boneCount * 2; boneIndex < boneCount; ++boneIndex, flipIndex += 2) {
+        flips[flipIndex    ] = skeleton.boneWorldFlipX[boneIndex];
+        flips[flipIndex + 1] = skeleton.boneWorldFlipY[boneIndex];
+      }
+    }
+
+    final Array<Timeline> timelines = animation.timelines();
+    final int timelineCount = timelines.size();
+    final Array<Timeline> slotTimelines = new Array<>(timelineCount);
+    final int[] indices = new int[timelineCount];
+
+    for(int i = 0; i < timelineCount; ++i) {
+      final Timeline timeline = timelines.get(i);
+
+      if(Animation.isBoneTimeline(timeline)) {
+        continue;
+      }
+
+      indices[slotTimelines.size()] = i;
+      slotTimelines.push(timeline);
+    }
+
+    slotTimelines.trimToSize();
+
+    return new BakedAnimation(data, animation, sampleRate, frameCount, boneCount, transforms, flips, slotTimelines,
+        Arrays.copyOf(indices, slotTimelines.size()));
+  }
+
+  @Nonnull
+  private final SkeletonData data;
+
+  @Nonnull
+  private final Animation animation;
+
+  private final float sampleRate;
+
+  private final int frameCount;
+
+  private final int boneCount;
+
+  /** World transforms, {@link Skeleton#WORLD_STRIDE} values per bone per frame. */
+  @Nonnull
+  private final float[] transforms;
+
+  /** World flips, two values per bone per frame. */
+  @Nonnull
+  private final boolean[] flips;
+
+  /** Timelines of the animation that do not affect bones. */
+  @Nonnull
+  private final Array<Timeline> slotTimelines;
+
+  /** Index of each slot timeline in {@link Animation#timelines()}, used for its frame cursor. */
+  @Nonnull
+  private final int[] slotTimelineIndices;
+
+  private boolean interpolate = true;
+
+  private BakedAnimation(@Nonnull final SkeletonData data,
+                         @Nonnull final Animation animation,
+                         final float sampleRate,
+                         final int frameCount,
+                         final int boneCount,
+                         @Nonnull final float[] transforms,
+                         @Nonnull final boolean[] flips,
+                         @Nonnull final Array<Timeline> slotTimelines,
+                         @Nonnull final int[] slotTimelineIndices) {
+    this.data = data;
+    this.animation = animation;
+    this.sampleRate = sampleRate;
+    this.frameCount = frameCount;
+    this.boneCount = boneCount;
+    this.transforms = transforms;
+    this.flips = flips;
+    this.slotTimelines = slotTimelines;
+    this.slotTimelineIndices = slotTimelineIndices;
+  }
+
+  @Nonnull
+  public SkeletonData data() {
+    return data;
+  }
+
+  @Nonnull
+  public Animation animation() {
+    return animation;
+  }
+
+  /** Returns the number of samples per second. */
+  public float sampleRate() {
+    return sampleRate;
+  }
+
+  /** Returns the number of sampled frames. */
+  public int frameCount() {
+    return frameCount;
+  }
+
+  /** Whether or not to interpolate linearly between two samples; otherwise the previous sample is held. */
+  public boolean interpolate() {
+    return interpolate;
+  }
+
+  public void interpolate(final boolean value) {
+    interpolate = value;
+  }
+
+  /** Returns the approximate number of bytes used by the sampled frames. */
+  public int memoryUsage() {
+    return (transforms.length << 2) + flips.length + (slotTimelineIndices.length << 2);
+  }
+
+  /** Whether or not the baked pose can be applied to the given skeleton. */
+  public boolean canApply(@Nonnull final Skeleton skeleton) {
+    return skeleton.data == data && !skeleton.flipX && !skeleton.flipY;
+  }
+
+  /** Poses the skeleton at the specified time.
+   * @param lastTime The last time the animation was applied.
+   * @param events Any triggered events are added. */
+  public void apply(@Nonnull final Skeleton skeleton,
+                    final float lastTime,
+                    final float time,
+                    final boolean loop,
+                    @Nullable final Array<Event> events) {
+    apply(skeleton, lastTime, time, loop, events, null);
+  }
+
+  /** Poses the skeleton at the specified time.
+   *
+   * <p>Falls back to {@link Animation#apply(Skeleton, float, float, boolean, Array, int[])}
+   * if the pose {@link #canApply(Skeleton) cannot be applied}.
+   *
+   * @param lastTime The last time the animation was applied.
+   * @param events Any triggered events are added.
+   * @param cursors May be null; otherwise the frame cursors of the animation, see {@link Animation#newCursors()}. */
+  public void apply(@Nonnull final Skeleton skeleton,
+                    float lastTime,
+                    float time,
+                    final boolean loop,
+                    @Nullable final Array<Event> events,
+                    @Nullable final int[] cursors) {
+    if(!canApply(skeleton)) {
+      animation.apply(skeleton, lastTime, time, loop, events, cursors);
+      return;
+    }
+
+    final float duration = animation.duration();
+
+    if(loop && duration != 0) {
+      time %= duration;
+      lastTime %= duration;
+    }
+
+    applyPose(skeleton, time);
+
+    final Array<Timeline> slotTimelines = this.slotTimelines;
+    final int[] slotTimelineIndices = this.slotTimelineIndices;
+
+    for(int i = 0, n = slotTimelines.size(); i < n; ++i) {
+      slotTimelines.get(i).apply(skeleton, lastTime, time, events, 1.0f, cursors, slotTimelineIndices[i]);
+    }
+  }
+
+  private void applyPose(@Nonnull final Skeleton skeleton, final float time) {
+    final int boneCount = this.boneCount;
+    final int frameSize = boneCount * Skeleton.WORLD_STRIDE;
+    final float[] transforms = this.transforms;
+    final float[] boneWorld = skeleton.boneWorld;
+    final int lastFrame = frameCount - 1;
+    final int frame = Math.min((int)Math.max(0.0f, time * sampleRate), lastFrame);
+    final int offset = frame * frameSize;
+
+    // The last sample is taken at the duration, which may end its interval early
+    final float frameTime = frame / sampleRate;
+    final float nextFrameTime = Math.min((frame + 1) / sampleRate, animation.duration());
+    final float percent = nextFrameTime > frameTime
+        ? Math.min(1.0f, (time - frameTime) / (nextFrameTime - frameTime))
+        : 0.0f;
+
+    if(!interpolate || frame == lastFrame || percent <= 0.0f) {
+      System.arraycopy(transforms, offset, boneWorld, 0, frameSize);
+    } else {
+      for(int i = 0, next = offset + frameSize; i < frameSize; ++i) {
+        final float value = transforms[offset + i];
+        final float delta = i % Skeleton.WORLD_STRIDE == Skeleton.WORLD_ROTATION
+            ? Animation.wrapAngle(transforms[next + i] - value)
+            : transforms[next + i] - value;
+        boneWorld[i] = value + delta * percent;
+      }
+    }
+
+    final boolean[] flips = this.flips;
+    final boolean[] boneWorldFlipX = skeleton.boneWorldFlipX;
+    final boolean[] boneWorldFlipY = skeleton.boneWorldFlipY;
+
+    for(int boneIndex = 0, flipIndex = frame * boneCount * 2; boneIndex < boneCount; ++boneIndex, flipIndex += 2) {
+      boneWorldFlipX[boneIndex] = flips[flipIndex    ];
+      boneWorldFlipY[boneIndex] = flips[flipIndex + 1];
+    }
+
+    skeleton.bakedPoseApplied();
+  }
+}
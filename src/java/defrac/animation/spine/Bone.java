@@ -35,11 +35,17 @@ package defrac.animation.spine;
 
 import defrac.geom.Matrix;
 import defrac.geom.Point;
-import defrac.util.MathUtil;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * A bone of a skeleton
+ *
+ * <p>Bones are views of the packed transform arrays owned by their {@link Skeleton}.
+ */
 public final class Bone {
   @Nonnull
   final BoneData data;
@@ -50,16 +56,11 @@ public final class Bone {
   @Nullable
   final Bone parent;
 
-  float x, y;
-  float rotation, rotationIK;
-  float scaleX, scaleY;
-  boolean flipX, flipY;
+  /** Index of this bone in the skeleton. */
+  final int index;
 
-  float m00, m01, worldX; // a b x
-  float m10, m11, worldY; // c d y
-  float worldRotation;
-  float worldScaleX, worldScaleY;
-  boolean worldFlipX, worldFlipY;
+  /** Offsets of this bone in the packed local and world transform arrays. */
+  private final int local, world;
 
   /** @param parent May be null. */
   public Bone(@Nonnull final BoneData data,
@@ -68,6 +69,12 @@ public final class Bone {
     this.data = data;
     this.skeleton = skeleton;
     this.parent = parent;
+    this.index = skeleton.data.bones.identityIndexOf(data);
+
+    checkArgument(index >= 0, "Bone data does not belong to the skeleton data: " + data);
+
+    this.local = index * Skeleton.LOCAL_STRIDE;
+    this.world = index * Skeleton.WORLD_STRIDE;
 
     setToSetupPose();
   }
@@ -80,80 +87,46 @@ public final class Bone {
     this.skeleton = skeleton;
     this.parent = parent;
     data = bone.data;
-    x = bone.x;
-    y = bone.y;
-    rotation = bone.rotation;
-    rotationIK = bone.rotationIK;
-    scaleX = bone.scaleX;
-    scaleY = bone.scaleY;
-    flipX = bone.flipX;
-    flipY = bone.flipY;
+    index = bone.index;
+    local = bone.local;
+    world = bone.world;
+
+    System.arraycopy(bone.skeleton.boneLocal, local, skeleton.boneLocal, local, Skeleton.LOCAL_STRIDE);
+    skeleton.boneFlipX[index] = bone.skeleton.boneFlipX[index];
+    skeleton.boneFlipY[index] = bone.skeleton.boneFlipY[index];
+    skeleton.boneDirty[index] = true;
   }
 
-  /** Computes the world SRT using the parent bone and the local SRT. */
+  /** Computes the world SRT using the parent bone and the local SRT.
+   *
+   * <p>The bone is recomputed unconditionally; its dirty flag is left untouched. */
   public void updateWorldTransform() {
-    final Skeleton skeleton = this.skeleton;
-    final Bone parent = this.parent;
-    final float x = this.x;
-    final float y = this.y;
-
-    if(parent != null) {
-      worldX = x * parent.m00 + y * parent.m01 + parent.worldX;
-      worldY = x * parent.m10 + y * parent.m11 + parent.worldY;
-
-      if(data.inheritScale) {
-        worldScaleX = parent.worldScaleX * scaleX;
-        worldScaleY = parent.worldScaleY * scaleY;
-      } else {
-        worldScaleX = scaleX;
-        worldScaleY = scaleY;
-      }
-
-      worldRotation = data.inheritRotation ? parent.worldRotation + rotationIK : rotationIK;
-      worldFlipX = parent.worldFlipX != flipX;
-      worldFlipY = parent.worldFlipY != flipY;
-    } else {
-      final boolean skeletonFlipX = skeleton.flipX, skeletonFlipY = skeleton.flipY;
-
-      worldX = skeletonFlipX ? -x : x;
-      worldY = skeletonFlipY ? y : -y;
-      worldScaleX = scaleX;
-      worldScaleY = scaleY;
-      worldRotation = rotationIK;
-      worldFlipX = skeletonFlipX != flipX;
-      worldFlipY = skeletonFlipY != flipY;
-    }
-
-    final float radians = MathUtil.degToRad(worldRotation);
-    final float cos = MathUtil.cos(radians);
-    final float sin = MathUtil.sin(radians);
-
-    if(worldFlipX) {
-      m00 = -cos * worldScaleX;
-      m01 =  sin * worldScaleY;
-    } else {
-      m00 =  cos * worldScaleX;
-      m01 = -sin * worldScaleY;
-    }
-
-    if(worldFlipY) {
-      m10 = sin * worldScaleX;
-      m11 = cos * worldScaleY;
-    } else {
-      m10 = -sin * worldScaleX;
-      m11 = -cos * worldScaleY;
-    }
+    skeleton.updateBoneWorldTransform(index);
+    skeleton.stampBone(index);
   }
 
   public void setToSetupPose() {
-    x = data.x;
-    y = data.y;
-    rotation = data.rotation;
-    rotationIK = rotation;
-    scaleX = data.scaleX;
-    scaleY = data.scaleY;
-    flipX = data.flipX;
-    flipY = data.flipY;
+    final BoneData data = this.data;
+
+    local(Skeleton.LOCAL_X, data.x);
+    local(Skeleton.LOCAL_Y, data.y);
+    local(Skeleton.LOCAL_ROTATION, data.rotation);
+    local(Skeleton.LOCAL_ROTATION_IK, data.rotation);
+    local(Skeleton.LOCAL_SCALE_X, data.scaleX);
+    local(Skeleton.LOCAL_SCALE_Y, data.scaleY);
+    flipX(data.flipX);
+    flipY(data.flipY);
+  }
+
+  /** Writes a local transform value and marks the bone dirty if it changed. */
+  private void local(final int offset, final float value) {
+    final float[] boneLocal = skeleton.boneLocal;
+    final int index = local + offset;
+
+    if(boneLocal[index] != value) {
+      boneLocal[index] = value;
+      skeleton.boneDirty[this.index] = true;
+    }
   }
 
   public BoneData data() {
@@ -169,145 +142,167 @@ public final class Bone {
     return parent;
   }
 
+  /** Returns the index of this bone in {@link Skeleton#bones()}. */
+  public int index() {
+    return index;
+  }
+
   public float x() {
-    return x;
+    return skeleton.boneLocal[local + Skeleton.LOCAL_X];
   }
 
   public void x(final float value) {
-    x = value;
+    local(Skeleton.LOCAL_X, value);
   }
 
   public float y() {
-    return y;
+    return skeleton.boneLocal[local + Skeleton.LOCAL_Y];
   }
 
   public void y(final float value) {
-    y = value;
+    local(Skeleton.LOCAL_Y, value);
   }
 
   public void moveTo(final float x, final float y) {
-    this.x = x;
-    this.y = y;
+    local(Skeleton.LOCAL_X, x);
+    local(Skeleton.LOCAL_Y, y);
   }
 
   /** Returns the forward kinetics rotation. */
   public float rotation() {
-    return rotation;
+    return skeleton.boneLocal[local + Skeleton.LOCAL_ROTATION];
   }
 
   public void rotation(final float value) {
-    rotation = value;
+    local(Skeleton.LOCAL_ROTATION, value);
   }
 
   /** Returns the inverse kinetics rotation, as calculated by any IK constraints. */
   public float rotationIk() {
-    return rotationIK;
+    return skeleton.boneLocal[local + Skeleton.LOCAL_ROTATION_IK];
   }
 
   public void rotationIk(final float value) {
-    rotationIK = value;
+    local(Skeleton.LOCAL_ROTATION_IK, value);
   }
 
   public float scaleX() {
-    return scaleX;
+    return skeleton.boneLocal[local + Skeleton.LOCAL_SCALE_X];
   }
 
   public void scaleX(final float value) {
-    scaleX = value;
+    local(Skeleton.LOCAL_SCALE_X, value);
   }
 
   public float scaleY() {
-    return scaleY;
+    return skeleton.boneLocal[local + Skeleton.LOCAL_SCALE_Y];
   }
 
   public void scaleY(final float value) {
-    scaleY = value;
+    local(Skeleton.LOCAL_SCALE_Y, value);
   }
 
   public void scaleTo(final float scaleX, final float scaleY) {
-    this.scaleX = scaleX;
-    this.scaleY = scaleY;
+    local(Skeleton.LOCAL_SCALE_X, scaleX);
+    local(Skeleton.LOCAL_SCALE_Y, scaleY);
   }
 
   public void scaleTo(final float value) {
-    scaleX = value;
-    scaleY = value;
+    scaleTo(value, value);
   }
 
   public boolean flipX() {
-    return flipX;
+    return skeleton.boneFlipX[index];
   }
 
   public void flipX(final boolean value) {
-    flipX = value;
+    final boolean[] boneFlipX = skeleton.boneFlipX;
+
+    if(boneFlipX[index] != value) {
+      boneFlipX[index] = value;
+      skeleton.boneDirty[index] = true;
+    }
   }
 
   public boolean flipY() {
-    return flipY;
+    return skeleton.boneFlipY[index];
   }
 
   public void flipY(final boolean value) {
-    flipY = value;
+    final boolean[] boneFlipY = skeleton.boneFlipY;
+
+    if(boneFlipY[index] != value) {
+      boneFlipY[index] = value;
+      skeleton.boneDirty[index] = true;
+    }
   }
 
   public float m00() {
-    return m00;
+    return skeleton.boneWorld[world + Skeleton.WORLD_M00];
   }
 
   public float m01() {
-    return m01;
+    return skeleton.boneWorld[world + Skeleton.WORLD_M01];
   }
 
   public float m10() {
-    return m10;
+    return skeleton.boneWorld[world + Skeleton.WORLD_M10];
   }
 
   public float m11() {
-    return m11;
+    return skeleton.boneWorld[world + Skeleton.WORLD_M11];
   }
 
   public float worldX() {
-    return worldX;
+    return skeleton.boneWorld[world + Skeleton.WORLD_X];
   }
 
   public float worldY() {
-    return worldY;
+    return skeleton.boneWorld[world + Skeleton.WORLD_Y];
   }
 
   public float worldRotation() {
-    return worldRotation;
+    return skeleton.boneWorld[world + Skeleton.WORLD_ROTATION];
   }
 
   public float worldScaleX() {
-    return worldScaleX;
+    return skeleton.boneWorld[world + Skeleton.WORLD_SCALE_X];
   }
 
   public float worldScaleY() {
-    return worldScaleY;
+    return skeleton.boneWorld[world + Skeleton.WORLD_SCALE_Y];
   }
 
   public boolean worldFlipX() {
-    return worldFlipX;
+    return skeleton.boneWorldFlipX[index];
   }
 
   public boolean worldFlipY() {
-    return worldFlipY;
+    return skeleton.boneWorldFlipY[index];
   }
 
   @Nonnull
   public Matrix worldTransform(@Nonnull final Matrix target) {
-    target.set(m01, m01, m10, m11, worldX, worldY);
+    final float[] boneWorld = skeleton.boneWorld;
+    final int world = this.world;
+    target.set(
+        boneWorld[world + Skeleton.WORLD_M00], boneWorld[world + Skeleton.WORLD_M01],
+        boneWorld[world + Skeleton.WORLD_M10], boneWorld[world + Skeleton.WORLD_M11],
+        boneWorld[world + Skeleton.WORLD_X], boneWorld[world + Skeleton.WORLD_Y]);
     return target;
   }
 
   @Nonnull
   public Point worldToLocal(@Nonnull final Point world) {
-    final float dx = world.x - worldX;
-    final float dy = world.y - worldY;
+    final float[] boneWorld = skeleton.boneWorld;
+    final int offset = this.world;
+    final float dx = world.x - boneWorld[offset + Skeleton.WORLD_X];
+    final float dy = world.y - boneWorld[offset + Skeleton.WORLD_Y];
 
-    float m00 = this.m00, m10 = this.m10, m01 = this.m01, m11 = this.m11;
+    float m00 = boneWorld[offset + Skeleton.WORLD_M00], m10 = boneWorld[offset + Skeleton.WORLD_M10];
+    float m01 = boneWorld[offset + Skeleton.WORLD_M01], m11 = boneWorld[offset + Skeleton.WORLD_M11];
 
-    if(worldFlipX == worldFlipY) {
+    if(worldFlipX() == worldFlipY()) {
       m00 = -m00;
       m11 = -m11;
     }
@@ -322,9 +317,11 @@ public final class Bone {
 
   @Nonnull
   public Point localToWorld(@Nonnull final Point local) {
+    final float[] boneWorld = skeleton.boneWorld;
+    final int world = this.world;
     float x = local.x, y = local.y;
-    local.x = x * m00 + y * m01 + worldX;
-    local.y = x * m10 + y * m11 + worldY;
+    local.x = x * boneWorld[world + Skeleton.WORLD_M00] + y * boneWorld[world + Skeleton.WORLD_M01] + boneWorld[world + Skeleton.WORLD_X];
+    local.y = x * boneWorld[world + Skeleton.WORLD_M10] + y * boneWorld[world + Skeleton.WORLD_M11] + boneWorld[world + Skeleton.WORLD_Y];
     return local;
   }
 
@@ -43,9 +43,6 @@ import javax.annotation.Nullable;
 import static defrac.lang.Preconditions.checkNotNull;
 
 public final class IkConstraint {
-  @Nonnull
-  private static final Point TEMP_POSITION = new Point();
-
   @Nonnull
   final IkConstraintData data;
 
@@ -58,6 +55,10 @@ public final class IkConstraint {
   float mix = 1.0f;
   int bendDirection;
 
+  /** Scratch point owned by this constraint so constraints of different skeletons can be applied concurrently. */
+  @Nonnull
+  private final Point position = new Point();
+
   public IkConstraint(@Nonnull final IkConstraintData data,
                       @Nonnull final Skeleton skeleton) {
     this.data = data;
@@ -88,8 +89,8 @@ public final class IkConstraint {
     final Array<Bone> bones = this.bones;
 
     switch(bones.size()) {
-      case 1: apply(bones.get(0), target.worldX, target.worldY, mix); break;
-      case 2: apply(bones.get(0), bones.get(1), target.worldX, target.worldY, bendDirection, mix); break;
+      case 1: apply(bones.get(0), target.worldX(), target.worldY(), mix); break;
+      case 2: apply(bones.get(0), bones.get(1), target.worldX(), target.worldY(), bendDirection, mix, position); break;
     }
   }
 
@@ -99,70 +100,83 @@ public final class IkConstraint {
                            final float targetX,
                            final float targetY,
                            final float alpha) {
-    final float parentRotation = (!bone.data.inheritRotation || bone.parent == null) ? 0.0f : bone.parent.worldRotation;
-    final float rotation = bone.rotation;
+    final float parentRotation = (!bone.data.inheritRotation || bone.parent == null) ? 0.0f : bone.parent.worldRotation();
+    final float rotation = bone.rotation();
 
     float rotationIK =
         (float)Math.atan2(
-            targetY - bone.worldY,
-            targetX - bone.worldX) * MathUtil.RAD_TO_DEG;
+            targetY - bone.worldY(),
+            targetX - bone.worldX()) * MathUtil.RAD_TO_DEG;
 
-    if(bone.worldFlipX == bone.worldFlipY) {
+    if(bone.worldFlipX() == bone.worldFlipY()) {
       rotationIK = -rotationIK;
     }
 
     rotationIK -= parentRotation;
-    bone.rotationIK = rotation + (rotationIK - rotation) * alpha;
+    bone.rotationIk(rotation + (rotationIK - rotation) * alpha);
   }
 
   /** Adjusts the parent and child bone rotations so the tip of the child is as close to the target position as possible. The
    * target is specified in the world coordinate system.
    * @param child Any descendant bone of the parent. */
+  static public void apply(@Nonnull final Bone parent,
+                           @Nonnull final Bone child,
+                           final float targetX,
+                           final float targetY,
+                           final int bendDirection,
+                           final float alpha) {
+    apply(parent, child, targetX, targetY, bendDirection, alpha, new Point());
+  }
+
+  /** Adjusts the parent and child bone rotations so the tip of the child is as close to the target position as possible. The
+   * target is specified in the world coordinate system.
+   * @param child Any descendant bone of the parent.
+   * @param position Scratch point used during the computation. */
   static public void apply(@Nonnull final Bone parent,
                            @Nonnull final Bone child,
                            float targetX,
                            float targetY,
                            final int bendDirection,
-                           final float alpha) {
-    final float childRotation = child.rotation, parentRotation = parent.rotation;
+                           final float alpha,
+                           @Nonnull final Point position) {
+    final float childRotation = child.rotation(), parentRotation = parent.rotation();
 
     if(alpha == 0.0f) {
-      child.rotationIK = childRotation;
-      parent.rotationIK = parentRotation;
+      child.rotationIk(childRotation);
+      parent.rotationIk(parentRotation);
       return;
     }
 
-    final Point position = TEMP_POSITION;
     final Bone parentParent = parent.parent;
 
     if(parentParent != null) {
       parentParent.worldToLocal(position.set(targetX, targetY));
-      targetX = (position.x - parent.x) * parentParent.worldScaleX;
-      targetY = (position.y - parent.y) * parentParent.worldScaleY;
+      targetX = (position.x - parent.x()) * parentParent.worldScaleX();
+      targetY = (position.y - parent.y()) * parentParent.worldScaleY();
     } else {
-      targetX -= parent.x;
-      targetY -= parent.y;
+      targetX -= parent.x();
+      targetY -= parent.y();
     }
 
     if(child.parent == parent) {
-      position.set(child.x, child.y);
+      position.set(child.x(), child.y());
     } else {
-      parent.worldToLocal(child.parent.localToWorld(position.set(child.x, child.y)));
+      parent.worldToLocal(child.parent.localToWorld(position.set(child.x(), child.y())));
     }
 
-    final float childX = position.x * parent.worldScaleX;
-    final float childY = position.y * parent.worldScaleY;
+    final float childX = position.x * parent.worldScaleX();
+    final float childY = position.y * parent.worldScaleY();
     final float offset = (float)Math.atan2(childY, childX);
     final float len1 = (float)Math.sqrt(childX * childX + childY * childY);
-    final float len2 = child.data.length * child.worldScaleX;
+    final float len2 = child.data.length * child.worldScaleX();
     // Based on code by Ryan Juckett with permission: Copyright (c) 2008-2009 Ryan Juckett, http://www.ryanjuckett.com/
     final float cosDenom = 2.0f * len1 * len2;
     if(cosDenom < 0.0001f) {
-      child.rotationIK =
+      child.rotationIk(
           childRotation +
               (
                   (float)Math.atan2(targetY, targetX) * MathUtil.RAD_TO_DEG - parentRotation - childRotation
-              ) * alpha;
+              ) * alpha);
       return;
     }
     final float cos = MathUtil.clamp(
@@ -181,7 +195,7 @@ public final class IkConstraint {
       rotation += 360;
     }
 
-    parent.rotationIK = parentRotation + rotation * alpha;
+    parent.rotationIk(parentRotation + rotation * alpha);
 
     rotation = (childAngle + offset) * MathUtil.RAD_TO_DEG - childRotation;
 
@@ -191,7 +205,7 @@ public final class IkConstraint {
       rotation += 360;
     }
 
-    child.rotationIK = childRotation + (rotation + parent.worldRotation - child.parent.worldRotation) * alpha;
+    child.rotationIk(childRotation + (rotation + parent.worldRotation() - child.parent.worldRotation()) * alpha);
   }
 
   @Nonnull
@@ -0,0 +1,267 @@
+/******************************************************************************
+ * Spine Runtimes Software License
+ * Version 2.3
+ * <p>
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ * <p>
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+// Ported from the Spine runtime by defrac 2015.
+
+package defrac.animation.spine;
+
+import defrac.animation.spine.Animation.Timeline;
+import defrac.util.Array;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * The PoseCache class shares computed poses between skeletons playing the same animation
+ *
+ * <p>Poses are keyed by skeleton data, animation, quantized time, skin and flip. A pose stores
+ * the world transforms of all bones after {@link Skeleton#updateWorldTransform()}. Skeletons
+ * that find their pose in the cache copy the world transforms and only evaluate the slot
+ * timelines of the animation; their position is applied through {@link Skeleton#x()} and
+ * {@link Skeleton#y()} as usual.
+ *
+ * <p>The cache holds a bounded number of poses and evicts the least recently used pose
+ * first. It is not thread-safe.
+ */
+public final class PoseCache {
+  public static final int DEFAULT_CAPACITY = 256;
+  public static final float DEFAULT_TIME_STEP = 1.0f / 30.0f;
+
+  @Nonnull
+  private final LinkedHashMap<Key, Pose> poses = new LinkedHashMap<>(16, 0.75f, true);
+
+  @Nonnull
+  private final Key lookupKey = new Key();
+
+  private final int capacity;
+
+  private final float timeStep;
+
+  private int hitCount, missCount;
+
+  public PoseCache() {
+    this(DEFAULT_CAPACITY, DEFAULT_TIME_STEP);
+  }
+
+  /**
+   * @param capacity The maximum number of poses
+   * @param timeStep The time in seconds poses are quantized to
+   */
+  public PoseCache(final int capacity, final float timeStep) {
+    checkArgument(capacity > 0, "capacity must be positive");
+    checkArgument(timeStep > 0.0f, "timeStep must be positive");
+    this.capacity = capacity;
+    this.timeStep = timeStep;
+  }
+
+  /** Returns the maximum number of poses. */
+  public int capacity() {
+    return capacity;
+  }
+
+  /** Returns the time in seconds poses are quantized to. */
+  public float timeStep() {
+    return timeStep;
+  }
+
+  /** Returns the number of cached poses. */
+  public int size() {
+    return poses.size();
+  }
+
+  /** Returns the number of times a pose has been found. */
+  public int hitCount() {
+    return hitCount;
+  }
+
+  /** Returns the number of times a pose has not been found. */
+  public int missCount() {
+    return missCount;
+  }
+
+  public void resetCounters() {
+    hitCount = 0;
+    missCount = 0;
+  }
+
+  /** Removes all poses. */
+  public void clear() {
+    poses.clear();
+  }
+
+  /** Returns the quantized frame of the animation at the given time. */
+  public int frameIndex(@Nonnull final Animation animation, float time, final boolean loop) {
+    final float duration = animation.duration();
+
+    if(loop && duration != 0) {
+      time %= duration;
+    } else if(time > duration) {
+      time = duration;
+    }
+
+    return time <= 0.0f ? 0 : (int)(time / timeStep);
+  }
+
+  /** Returns the animation time of a quantized frame. */
+  public float frameTime(final int frameIndex) {
+    return frameIndex * timeStep;
+  }
+
+  /** Poses the skeleton with a cached pose.
+   *
+   * <p>The world transforms of the bones are copied and kept by the next
+   * {@link Skeleton#updateWorldTransform()}; slot timelines are applied at the time of the frame.
+   * Events are not fired.
+   *
+   * @return false if the pose is not cached; the skeleton is unchanged. */
+  public boolean apply(@Nonnull final Skeleton skeleton,
+                       @Nonnull final Animation animation,
+                       final int frameIndex) {
+    final Pose pose = poses.get(lookupKey.set(skeleton, animation, frameIndex));
+
+    if(pose == null) {
+      ++missCount;
+      return false;
+    }
+
+    ++hitCount;
+
+    System.arraycopy(pose.world, 0, skeleton.boneWorld, 0, pose.world.length);
+    System.arraycopy(pose.worldFlipX, 0, skeleton.boneWorldFlipX, 0, pose.worldFlipX.length);
+    System.arraycopy(pose.worldFlipY, 0, skeleton.boneWorldFlipY, 0, pose.worldFlipY.length);
+
+    final float time = frameTime(frameIndex);
+    final Array<Timeline> timelines = animation.timelines();
+
+    for(int i = 0, n = timelines.size(); i < n; ++i) {
+      final Timeline timeline = timelines.get(i);
+
+      if(!Animation.isBoneTimeline(timeline)) {
+        timeline.apply(skeleton, time, time, null, 1.0f);
+      }
+    }
+
+    skeleton.bakedPoseApplied();
+
+    return true;
+  }
+
+  /** Stores the world transforms of the skeleton as the pose of the animation at the given frame.
+   *
+   * <p>The skeleton must have been posed at {@link #frameTime(int)} from the setup pose of its
+   * bones and its world transforms must be up to date; the pose is shared with every skeleton
+   * with the same key. */
+  public void store(@Nonnull final Skeleton skeleton,
+                    @Nonnull final Animation animation,
+                    final int frameIndex) {
+    poses.put(new Key().set(skeleton, animation, frameIndex), new Pose(skeleton));
+
+    if(poses.size() > capacity) {
+      final Iterator<Pose> iterator = poses.values().iterator();
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  private static final class Key {
+    private SkeletonData data;
+    private Animation animation;
+    private int frameIndex;
+    @Nullable
+    private Skin skin;
+    private boolean flipX, flipY;
+    private int hashCode;
+
+    @Nonnull
+    Key set(@Nonnull final Skeleton skeleton,
+            @Nonnull final Animation animation,
+            final int frameIndex) {
+      this.data = skeleton.data;
+      this.animation = animation;
+      this.frameIndex = frameIndex;
+      this.skin = skeleton.skin;
+      this.flipX = skeleton.flipX;
+      this.flipY = skeleton.flipY;
+
+      int hash = System.identityHashCode(data);
+      hash = 31 * hash + System.identityHashCode(animation);
+      hash = 31 * hash + frameIndex;
+      hash = 31 * hash + System.identityHashCode(skin);
+      hash = 31 * hash + (flipX ? 2 : 0) + (flipY ? 1 : 0);
+      this.hashCode = hash;
+
+      return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if(this == o) {
+        return true;
+      }
+
+      if(!(o instanceof Key)) {
+        return false;
+      }
+
+      final Key that = (Key)o;
+
+      return data == that.data
+          && animation == that.animation
+          && frameIndex == that.frameIndex
+          && skin == that.skin
+          && flipX == that.flipX
+          && flipY == that.flipY;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Pose {
+    @Nonnull
+    final float[] world;
+
+    @Nonnull
+    final boolean[] worldFlipX, worldFlipY;
+
+    Pose(@Nonnull final Skeleton skeleton) {
+      world = skeleton.boneWorld.clone();
+      worldFlipX = skeleton.boneWorldFlipX.clone();
+      worldFlipY = skeleton.boneWorldFlipY.clone();
+    }
+  }
+}
@@ -40,13 +40,74 @@ import defrac.util.MathUtil;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 import static defrac.lang.Preconditions.checkArgument;
 
 public final class Skeleton {
+  static final int LOCAL_X = 0;
+  static final int LOCAL_Y = 1;
+  static final int LOCAL_ROTATION = 2;
+  static final int LOCAL_ROTATION_IK = 3;
+  static final int LOCAL_SCALE_X = 4;
+  static final int LOCAL_SCALE_Y = 5;
+  static final int LOCAL_STRIDE = 6;
+
+  /** Offsets into the world transform of a bone; see {@link #boneWorldTransforms()}. */
+  public static final int WORLD_M00 = 0;
+  public static final int WORLD_M01 = 1;
+  public static final int WORLD_X = 2;
+  public static final int WORLD_M10 = 3;
+  public static final int WORLD_M11 = 4;
+  public static final int WORLD_Y = 5;
+  public static final int WORLD_ROTATION = 6;
+  public static final int WORLD_SCALE_X = 7;
+  public static final int WORLD_SCALE_Y = 8;
+  public static final int WORLD_STRIDE = 9;
+
   @Nonnull
   final SkeletonData data;
 
+  /** Local transforms of all bones, {@link #LOCAL_STRIDE} values per bone. */
+  @Nonnull
+  final float[] boneLocal;
+
+  /** World transforms of all bones, {@link #WORLD_STRIDE} values per bone. */
+  @Nonnull
+  final float[] boneWorld;
+
+  @Nonnull
+  final boolean[] boneFlipX, boneFlipY;
+
+  @Nonnull
+  final boolean[] boneWorldFlipX, boneWorldFlipY;
+
+  /** Raised when the local transform of a bone changes; cleared once its world transform is recomputed. */
+  @Nonnull
+  final boolean[] boneDirty;
+
+  /** Value of {@link #updateStamp} when the world transform of each bone was last recomputed. */
+  @Nonnull
+  private final int[] boneUpdateStamps;
+
+  private int updateStamp;
+
+  private int updatedBoneCount;
+
+  /** Whether the world transforms have been written by a {@link BakedAnimation} since the last update. */
+  private boolean bakedPose;
+
+  /** Parent index of each bone; -1 for the root. */
+  @Nonnull
+  private final int[] boneParents;
+
+  @Nonnull
+  private final boolean[] boneInheritScale, boneInheritRotation;
+
+  /** Bone indices of each partition of the bone cache, in update order. */
+  @Nonnull
+  private int[][] boneCacheIndices = new int[0][];
+
   @Nonnull
   final Array<Bone> bones;
 
@@ -65,6 +126,10 @@ public final class Skeleton {
   @Nullable
   Skin skin;
 
+  /** Attachments of the current skin by attachment id; rebuilt when the skin changes. */
+  @Nonnull
+  private Attachment[] attachmentTable = new Attachment[0];
+
   float time;
   boolean flipX, flipY;
   float x, y;
@@ -74,6 +139,20 @@ public final class Skeleton {
   public Skeleton(@Nonnull final SkeletonData data) {
     this.data = data;
 
+    final int boneCount = data.bones.size();
+    boneLocal = new float[boneCount * LOCAL_STRIDE];
+    boneWorld = new float[boneCount * WORLD_STRIDE];
+    boneFlipX = new boolean[boneCount];
+    boneFlipY = new boolean[boneCount];
+    boneWorldFlipX = new boolean[boneCount];
+    boneWorldFlipY = new boolean[boneCount];
+    boneParents = new int[boneCount];
+    boneInheritScale = new boolean[boneCount];
+    boneInheritRotation = new boolean[boneCount];
+    boneDirty = new boolean[boneCount];
+    boneUpdateStamps = new int[boneCount];
+    invalidateWorldTransform();
+
     bones = new Array<>(data.bones.size());
     for(final BoneData boneData : data.bones) {
       final Bone parent = boneData.parent == null ? null : bones.get(data.bones.identityIndexOf(boneData.parent));
@@ -105,12 +184,26 @@ public final class Skeleton {
     ikConstraints.trimToSize();
 
     updateCache();
+    updateAttachmentTable();
   }
 
   /** Copy constructor. */
   public Skeleton(@Nonnull final Skeleton skeleton) {
     data = skeleton.data;
 
+    boneLocal = new float[skeleton.boneLocal.length];
+    boneWorld = new float[skeleton.boneWorld.length];
+    boneFlipX = new boolean[skeleton.boneFlipX.length];
+    boneFlipY = new boolean[skeleton.boneFlipY.length];
+    boneWorldFlipX = new boolean[skeleton.boneWorldFlipX.length];
+    boneWorldFlipY = new boolean[skeleton.boneWorldFlipY.length];
+    boneParents = new int[skeleton.boneParents.length];
+    boneInheritScale = new boolean[skeleton.boneInheritScale.length];
+    boneInheritRotation = new boolean[skeleton.boneInheritRotation.length];
+    boneDirty = new boolean[skeleton.boneDirty.length];
+    boneUpdateStamps = new int[skeleton.boneUpdateStamps.length];
+    invalidateWorldTransform();
+
     bones = new Array<>(skeleton.bones.size());
     for(final Bone bone : skeleton.bones) {
       final Bone parent = bone.parent == null ? null : bones.get(skeleton.bones.identityIndexOf(bone.parent));
@@ -155,6 +248,7 @@ public final class Skeleton {
     ikConstraints.trimToSize();
 
     updateCache();
+    updateAttachmentTable();
   }
 
   /** Caches information about bones and IK constraints. Must be called if bones or IK constraints are added or removed. */
@@ -208,23 +302,164 @@ public final class Skeleton {
 
       nonIkBones.push(bone);
     }
+
+    final int[][] boneCacheIndices = new int[arrayCount][];
+
+    for(int i = 0; i < arrayCount; ++i) {
+      final Array<Bone> cachedBones = boneCache.get(i);
+      final int[] indices = new int[cachedBones.size()];
+
+      for(int ii = 0, nn = indices.length; ii < nn; ++ii) {
+        indices[ii] = cachedBones.get(ii).index;
+      }
+
+      boneCacheIndices[i] = indices;
+    }
+
+    this.boneCacheIndices = boneCacheIndices;
+
+    Arrays.fill(boneDirty, true);
+  }
+
+  /** Forces the next {@link #updateWorldTransform()} to recompute every bone.
+   *
+   * <p>Must be called if the inheritance settings of a {@link BoneData} have been changed
+   * after the skeleton was created. */
+  public void invalidateWorldTransform() {
+    initBoneData();
+    Arrays.fill(boneDirty, true);
+  }
+
+  /** Returns the number of world transforms recomputed by the last {@link #updateWorldTransform()}.
+   *
+   * <p>Bones that are not dirty and whose parent was not recomputed are skipped. Bones affected by
+   * an IK constraint are part of two cache partitions and may be counted twice. */
+  public int updatedBoneCount() {
+    return updatedBoneCount;
+  }
+
+  /** Writes the values of a blended local pose that differ from the pose it started from.
+   *
+   * <p>Only bones whose values change are marked dirty. Values the blend has not touched are
+   * left alone, so writes made by other timelines during blending are kept.
+   *
+   * @param mask Bits of the bones the blend may have changed; null to check every bone. */
+  void applyLocalPose(@Nonnull final float[] base, @Nonnull final float[] pose, @Nullable final long[] mask) {
+    final int boneCount = boneDirty.length;
+
+    if(mask == null) {
+      for(int boneIndex = 0; boneIndex < boneCount; ++boneIndex) {
+        applyLocalPose(base, pose, boneIndex);
+      }
+
+      return;
+    }
+
+    for(int word = 0, n = mask.length; word < n; ++word) {
+      long bits = mask[word];
+
+      while(bits != 0L) {
+        final int boneIndex = (word << 6) + Long.numberOfTrailingZeros(bits);
+
+        if(boneIndex < boneCount) {
+          applyLocalPose(base, pose, boneIndex);
+        }
+
+        bits &= bits - 1L;
+      }
+    }
+  }
+
+  private void applyLocalPose(@Nonnull final float[] base, @Nonnull final float[] pose, final int boneIndex) {
+    final float[] boneLocal = this.boneLocal;
+
+    for(int i = boneIndex * LOCAL_STRIDE, end = i + LOCAL_STRIDE; i < end; ++i) {
+      final float value = pose[i];
+
+      if(value != base[i] && value != boneLocal[i]) {
+        boneLocal[i] = value;
+        boneDirty[boneIndex] = true;
+      }
+    }
+  }
+
+  /** Returns a stamp that changes whenever the world transform of the bone is recomputed or replaced.
+   *
+   * <p>Comparing the stamp with a previously seen value tells whether anything derived from the
+   * world transform of the bone has to be recomputed. */
+  public int boneWorldTransformStamp(final int boneIndex) {
+    return boneUpdateStamps[boneIndex];
+  }
+
+  /** Stamps a bone whose world transform has been recomputed outside of {@link #updateWorldTransform()}. */
+  void stampBone(final int boneIndex) {
+    boneUpdateStamps[boneIndex] = ++updateStamp;
+  }
+
+  /** Called after a {@link BakedAnimation} has written the world transforms of all bones.
+   *
+   * <p>The local transforms no longer match the world transforms, so every bone is recomputed
+   * once the skeleton is evaluated live again. */
+  void bakedPoseApplied() {
+    bakedPose = true;
+    Arrays.fill(boneDirty, true);
+  }
+
+  private void initBoneData() {
+    final Array<BoneData> boneDatas = data.bones;
+
+    for(int i = 0, n = boneParents.length; i < n; ++i) {
+      final BoneData boneData = boneDatas.get(i);
+      boneParents[i] = boneData.parent == null ? -1 : boneDatas.identityIndexOf(boneData.parent);
+      boneInheritScale[i] = boneData.inheritScale;
+      boneInheritRotation[i] = boneData.inheritRotation;
+    }
   }
 
-  /** Updates the world transform for each bone and applies IK constraints. */
+  /** Updates the world transform for each bone and applies IK constraints.
+   *
+   * <p>Only bones whose local transform changed, or whose parent has been recomputed in the
+   * same pass, are recomputed. A pose written by a {@link BakedAnimation} is kept as is. */
   public void updateWorldTransform() {
-    for(final Bone bone : bones) {
-      bone.rotationIK = bone.rotation;
+    if(bakedPose) {
+      bakedPose = false;
+      updatedBoneCount = 0;
+      Arrays.fill(boneUpdateStamps, ++updateStamp);
+      return;
+    }
+
+    final float[] boneLocal = this.boneLocal;
+    final boolean[] boneDirty = this.boneDirty;
+    final int[] boneParents = this.boneParents;
+    final int[] boneUpdateStamps = this.boneUpdateStamps;
+    final int stamp = ++updateStamp;
+
+    for(int boneIndex = 0, local = 0, n = boneDirty.length; boneIndex < n; ++boneIndex, local += LOCAL_STRIDE) {
+      final float rotation = boneLocal[local + LOCAL_ROTATION];
+
+      if(boneLocal[local + LOCAL_ROTATION_IK] != rotation) {
+        boneLocal[local + LOCAL_ROTATION_IK] = rotation;
+        boneDirty[boneIndex] = true;
+      }
     }
 
-    Array<Array<Bone>> boneCache = this.boneCache;
-    Array<IkConstraint> ikConstraints = this.ikConstraints;
+    final int[][] boneCacheIndices = this.boneCacheIndices;
+    final Array<IkConstraint> ikConstraints = this.ikConstraints;
 
     int i = 0;
-    int last = boneCache.size() - 1;
+    int last = boneCacheIndices.length - 1;
+    int updated = 0;
 
     while(true) {
-      for(final Bone bone : boneCache.get(i)) {
-        bone.updateWorldTransform();
+      for(final int boneIndex : boneCacheIndices[i]) {
+        final int parentIndex = boneParents[boneIndex];
+
+        if(boneDirty[boneIndex] || (parentIndex != -1 && boneUpdateStamps[parentIndex] == stamp)) {
+          updateBoneWorldTransform(boneIndex);
+          boneDirty[boneIndex] = false;
+          boneUpdateStamps[boneIndex] = stamp;
+          ++updated;
+        }
       }
 
       if(i == last) {
@@ -234,6 +469,89 @@ public final class Skeleton {
       ikConstraints.get(i).apply();
       ++i;
     }
+
+    updatedBoneCount = updated;
+  }
+
+
+  /** Computes the world SRT of a bone using its parent bone and its local SRT. */
+  void updateBoneWorldTransform(final int boneIndex) {
+    final float[] boneLocal = this.boneLocal;
+    final float[] boneWorld = this.boneWorld;
+    final boolean[] boneWorldFlipX = this.boneWorldFlipX;
+    final boolean[] boneWorldFlipY = this.boneWorldFlipY;
+    final int local = boneIndex * LOCAL_STRIDE;
+    final int world = boneIndex * WORLD_STRIDE;
+    final int parentIndex = boneParents[boneIndex];
+    final float x = boneLocal[local + LOCAL_X];
+    final float y = boneLocal[local + LOCAL_Y];
+    final float scaleX = boneLocal[local + LOCAL_SCALE_X];
+    final float scaleY = boneLocal[local + LOCAL_SCALE_Y];
+    final float rotationIK = boneLocal[local + LOCAL_ROTATION_IK];
+    final float worldScaleX, worldScaleY, worldRotation;
+    final boolean worldFlipX, worldFlipY;
+
+    if(parentIndex != -1) {
+      final int parent = parentIndex * WORLD_STRIDE;
+
+      boneWorld[world + WORLD_X] = x * boneWorld[parent + WORLD_M00] + y * boneWorld[parent + WORLD_M01] + boneWorld[parent + WORLD_X];
+      boneWorld[world + WORLD_Y] = x * boneWorld[parent + WORLD_M10] + y * boneWorld[parent + WORLD_M11] + boneWorld[parent + WORLD_Y];
+
+      if(boneInheritScale[boneIndex]) {
+        worldScaleX = boneWorld[parent + WORLD_SCALE_X] * scaleX;
+        worldScaleY = boneWorld[parent + WORLD_SCALE_Y] * scaleY;
+      } else {
+        worldScaleX = scaleX;
+        worldScaleY = scaleY;
+      }
+
+      worldRotation = boneInheritRotation[boneIndex] ? boneWorld[parent + WORLD_ROTATION] + rotationIK : rotationIK;
+      worldFlipX = boneWorldFlipX[parentIndex] != boneFlipX[boneIndex];
+      worldFlipY = boneWorldFlipY[parentIndex] != boneFlipY[boneIndex];
+    } else {
+      boneWorld[world + WORLD_X] = flipX ? -x : x;
+      boneWorld[world + WORLD_Y] = flipY ? y : -y;
+      worldScaleX = scaleX;
+      worldScaleY = scaleY;
+      worldRotation = rotationIK;
+      worldFlipX = flipX != boneFlipX[boneIndex];
+      worldFlipY = flipY != boneFlipY[boneIndex];
+    }
+
+    boneWorld[world + WORLD_SCALE_X] = worldScaleX;
+    boneWorld[world + WORLD_SCALE_Y] = worldScaleY;
+    boneWorld[world + WORLD_ROTATION] = worldRotation;
+    boneWorldFlipX[boneIndex] = worldFlipX;
+    boneWorldFlipY[boneIndex] = worldFlipY;
+
+    final float radians = MathUtil.degToRad(worldRotation);
+    final float cos = MathUtil.cos(radians);
+    final float sin = MathUtil.sin(radians);
+
+    if(worldFlipX) {
+      boneWorld[world + WORLD_M00] = -cos * worldScaleX;
+      boneWorld[world + WORLD_M01] =  sin * worldScaleY;
+    } else {
+      boneWorld[world + WORLD_M00] =  cos * worldScaleX;
+      boneWorld[world + WORLD_M01] = -sin * worldScaleY;
+    }
+
+    if(worldFlipY) {
+      boneWorld[world + WORLD_M10] = sin * worldScaleX;
+      boneWorld[world + WORLD_M11] = cos * worldScaleY;
+    } else {
+      boneWorld[world + WORLD_M10] = -sin * worldScaleX;
+      boneWorld[world + WORLD_M11] = -cos * worldScaleY;
+    }
+  }
+
+  /** Returns the packed world transforms of all bones.
+   *
+   * <p>The transform of the bone at index {@code i} starts at {@code i * WORLD_STRIDE}; use the
+   * {@code WORLD_*} constants as offsets. The array must not be modified. */
+  @Nonnull
+  public float[] boneWorldTransforms() {
+    return boneWorld;
   }
 
   /** Sets the bones and slots to their setup pose values. */
@@ -262,6 +580,47 @@ public final class Skeleton {
     }
   }
 
+  /** Sets the bones, IK constraints and slots targeted by the animation to their setup pose values. */
+  public void setToSetupPose(@Nonnull final Animation animation) {
+    setBonesToSetupPose(animation);
+    setSlotsToSetupPose(animation);
+  }
+
+  /** Sets the bones and IK constraints targeted by the animation to their setup pose values. */
+  public void setBonesToSetupPose(@Nonnull final Animation animation) {
+    for(int i = 0, n = bones.size(); i < n; ++i) {
+      if(animation.touchesBone(i)) {
+        bones.get(i).setToSetupPose();
+      }
+    }
+
+    for(int i = 0, n = ikConstraints.size(); i < n; ++i) {
+      if(animation.touchesIkConstraint(i)) {
+        final IkConstraint ikConstraint = ikConstraints.get(i);
+        ikConstraint.bendDirection = ikConstraint.data.bendDirection;
+        ikConstraint.mix = ikConstraint.data.mix;
+      }
+    }
+  }
+
+  /** Sets the slots targeted by the animation to their setup pose values, and the draw order if the animation changes it. */
+  public void setSlotsToSetupPose(@Nonnull final Animation animation) {
+    final Array<Slot> slots = this.slots;
+    final boolean resetDrawOrder = animation.touchesDrawOrder();
+
+    for(int i = 0, n = slots.size(); i < n; ++i) {
+      final Slot slot = slots.get(i);
+
+      if(resetDrawOrder) {
+        drawOrder.set(i, slot);
+      }
+
+      if(animation.touchesSlot(i)) {
+        slot.setToSetupPose(i);
+      }
+    }
+  }
+
   @Nonnull
   public SkeletonData data() {
     return data;
@@ -368,6 +727,35 @@ public final class Skeleton {
     }
 
     skin = value;
+
+    updateAttachmentTable();
+  }
+
+  /** Rebuilds the table that maps attachment ids to the attachments of the current skin.
+   *
+   * <p>This happens automatically when the skin changes. It must be called manually if
+   * attachments are added to the current skin or the default skin changes. */
+  public void updateAttachmentTable() {
+    final SkeletonData data = this.data;
+    final int count = data.attachmentIdCount();
+    final Attachment[] table = attachmentTable.length == count ? attachmentTable : new Attachment[count];
+
+    for(int id = 0; id < count; ++id) {
+      table[id] = getAttachment(data.attachmentIdSlot(id), data.attachmentIdName(id));
+    }
+
+    attachmentTable = table;
+  }
+
+  /** Returns the attachment for an id of {@link SkeletonData#attachmentId(int, String)}; may be null. */
+  @Nullable
+  Attachment getAttachment(final int id) {
+    if(id >= attachmentTable.length) {
+      // Ids have been added since the table was built, e.g. by a lazily decoded animation
+      updateAttachmentTable();
+    }
+
+    return attachmentTable[id];
   }
 
   /** Sets a skin by name.
@@ -468,7 +856,10 @@ public final class Skeleton {
   }
 
   public void flipX(final boolean value) {
-    this.flipX = value;
+    if(flipX != value) {
+      flipX = value;
+      invalidateRootBones();
+    }
   }
 
   public boolean flipY() {
@@ -476,12 +867,26 @@ public final class Skeleton {
   }
 
   public void flipY(final boolean value) {
-    this.flipY = value;
+    if(flipY != value) {
+      flipY = value;
+      invalidateRootBones();
+    }
   }
 
   public void flip(final boolean flipX, boolean flipY) {
-    this.flipX = flipX;
-    this.flipY = flipY;
+    flipX(flipX);
+    flipY(flipY);
+  }
+
+  /** Marks the root bones dirty; their descendants follow during propagation. */
+  private void invalidateRootBones() {
+    final int[] boneParents = this.boneParents;
+
+    for(int i = 0, n = boneParents.length; i < n; ++i) {
+      if(boneParents[i] == -1) {
+        boneDirty[i] = true;
+      }
+    }
   }
 
   public float x() {
@@ -0,0 +1,769 @@
+/******************************************************************************
+ * Spine Runtimes Software License
+ * Version 2.3
+ * <p>
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ * <p>
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+// Ported from the Spine runtime by defrac 2015.
+
+package defrac.animation.spine;
+
+import defrac.animation.spine.Animation.*;
+import defrac.animation.spine.attachments.*;
+import defrac.display.TextureAtlas;
+import defrac.util.Array;
+import defrac.util.FloatArray;
+import defrac.util.IntArray;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * Reads skeleton data from the compact binary format exported by Spine
+ *
+ * <p>The binary format contains exactly the same information as the JSON
+ * format read by {@link SkeletonJson} but can be decoded without building
+ * a JSON document first.
+ */
+public final class SkeletonBinary {
+  static final int TIMELINE_SCALE = 0;
+  static final int TIMELINE_ROTATE = 1;
+  static final int TIMELINE_TRANSLATE = 2;
+  static final int TIMELINE_ATTACHMENT = 3;
+  static final int TIMELINE_COLOR = 4;
+  static final int TIMELINE_FLIPX = 5;
+  static final int TIMELINE_FLIPY = 6;
+
+  static final int CURVE_LINEAR = 0;
+  static final int CURVE_STEPPED = 1;
+  static final int CURVE_BEZIER = 2;
+
+  static final int ATTACHMENT_REGION = 0;
+  static final int ATTACHMENT_BOUNDING_BOX = 1;
+  static final int ATTACHMENT_MESH = 2;
+  static final int ATTACHMENT_SKINNED_MESH = 3;
+
+  @Nonnull
+  private final AttachmentLoader attachmentLoader;
+
+  private float scale = 1.0f;
+
+  private int curveResolution;
+
+  public SkeletonBinary(@Nonnull final TextureAtlas atlas) {
+    attachmentLoader = new AtlasAttachmentLoader(atlas);
+  }
+
+  public SkeletonBinary(@Nonnull final AttachmentLoader attachmentLoader) {
+    this.attachmentLoader = attachmentLoader;
+  }
+
+  public float scale() {
+    return scale;
+  }
+
+  /** Scales the bones, images, and animations as they are loaded. */
+  public void scale(final float value) {
+    scale = value;
+  }
+
+  public int curveResolution() {
+    return curveResolution;
+  }
+
+  /**
+   * Sets the resolution of precomputed bezier tables
+   *
+   * @param value The number of samples per bezier keyframe; 0 to evaluate curves segment by segment
+   * @see Animation.CurveTimeline#curveResolution(int)
+   */
+  public void curveResolution(final int value) {
+    checkArgument(value >= 0, "value must be >= 0");
+    curveResolution = value;
+  }
+
+  @Nonnull
+  public SkeletonData readSkeletonData(@Nonnull final byte[] bytes) {
+    return readSkeletonData(bytes, null);
+  }
+
+  @Nonnull
+  public SkeletonData readSkeletonData(@Nonnull final byte[] bytes, @Nullable final String name) {
+    return readSkeletonData(new SkeletonInput(bytes), name);
+  }
+
+  @Nonnull
+  private SkeletonData readSkeletonData(@Nonnull final SkeletonInput input, @Nullable final String name) {
+    final float scale = this.scale;
+    final SkeletonData skeletonData = new SkeletonData();
+
+    skeletonData.name = name == null ? "" : name;
+
+    // Skeleton.
+    skeletonData.hash = input.readString();
+    skeletonData.version = input.readString();
+    skeletonData.width = input.readFloat();
+    skeletonData.height = input.readFloat();
+
+    final boolean nonessential = input.readBoolean();
+
+    if(nonessential) {
+      skeletonData.imagesPath = input.readString();
+    }
+
+    // Bones.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final String boneName = readName(input);
+      final int parentIndex = input.readInt(true) - 1;
+      final BoneData parent = parentIndex == -1 ? null : skeletonData.bones.get(parentIndex);
+      final BoneData boneData = new BoneData(boneName, parent);
+
+      boneData.x = input.readFloat() * scale;
+      boneData.y = input.readFloat() * scale;
+      boneData.scaleX = input.readFloat();
+      boneData.scaleY = input.readFloat();
+      boneData.rotation = input.readFloat();
+      boneData.length = input.readFloat() * scale;
+      boneData.flipX = input.readBoolean();
+      boneData.flipY = input.readBoolean();
+      boneData.inheritScale = input.readBoolean();
+      boneData.inheritRotation = input.readBoolean();
+
+      if(nonessential) {
+        boneData.setColor(input.readColor());
+      }
+
+      skeletonData.bones.push(boneData);
+    }
+
+    // IK constraints.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final IkConstraintData ikConstraintData = new IkConstraintData(readName(input));
+
+      for(int ii = 0, nn = input.readInt(true); ii < nn; ++ii) {
+        ikConstraintData.bones.push(skeletonData.bones.get(input.readInt(true)));
+      }
+
+      ikConstraintData.target = skeletonData.bones.get(input.readInt(true));
+      ikConstraintData.mix = input.readFloat();
+      ikConstraintData.bendDirection = input.readByte();
+
+      skeletonData.ikConstraints.push(ikConstraintData);
+    }
+
+    // Slots.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final String slotName = readName(input);
+      final BoneData boneData = skeletonData.bones.get(input.readInt(true));
+      final SlotData slotData = new SlotData(slotName, boneData);
+
+      slotData.color(input.readColor());
+      slotData.attachmentName = input.readString();
+      slotData.blendMode = BlendModeMapping.map(input.readInt(true));
+
+      skeletonData.slots.push(slotData);
+    }
+
+    // Default skin.
+    final Skin defaultSkin = readSkin(input, "default", nonessential);
+
+    if(defaultSkin != null) {
+      skeletonData.defaultSkin = defaultSkin;
+      skeletonData.skins.push(defaultSkin);
+    }
+
+    // Skins.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final Skin skin = readSkin(input, readName(input), nonessential);
+
+      if(skin != null) {
+        skeletonData.skins.push(skin);
+      }
+    }
+
+    // Events.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final EventData eventData = new EventData(readName(input));
+      eventData.intValue = input.readInt(false);
+      eventData.floatValue = input.readFloat();
+      eventData.stringValue = input.readString();
+      skeletonData.events.push(eventData);
+    }
+
+    // Animations.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      readAnimation(readName(input), input, skeletonData);
+    }
+
+    skeletonData.bones.trimToSize();
+    skeletonData.slots.trimToSize();
+    skeletonData.skins.trimToSize();
+    skeletonData.events.trimToSize();
+    skeletonData.animations.trimToSize();
+    skeletonData.ikConstraints.trimToSize();
+
+    return skeletonData;
+  }
+
+  @Nonnull
+  private static String readName(@Nonnull final SkeletonInput input) {
+    final String name = input.readString();
+
+    if(name == null) {
+      throw new SpineException("Name expected at "+input.position());
+    }
+
+    return name;
+  }
+
+  /** @return May be null. */
+  @Nullable
+  private Skin readSkin(@Nonnull final SkeletonInput input,
+                        @Nonnull final String skinName,
+                        final boolean nonessential) {
+    final int slotCount = input.readInt(true);
+
+    if(slotCount == 0) {
+      return null;
+    }
+
+    final Skin skin = new Skin(skinName);
+
+    for(int i = 0; i < slotCount; ++i) {
+      final int slotIndex = input.readInt(true);
+
+      for(int ii = 0, nn = input.readInt(true); ii < nn; ++ii) {
+        final String attachmentName = readName(input);
+        final Attachment attachment = readAttachment(input, skin, attachmentName, nonessential);
+
+        if(attachment != null) {
+          skin.addAttachment(slotIndex, attachmentName, attachment);
+        }
+      }
+    }
+
+    return skin;
+  }
+
+  @Nullable
+  private Attachment readAttachment(@Nonnull final SkeletonInput input,
+                                    @Nonnull final Skin skin,
+                                    @Nonnull final String attachmentName,
+                                    final boolean nonessential) {
+    final float scale = this.scale;
+
+    String name = input.readString();
+
+    if(name == null) {
+      name = attachmentName;
+    }
+
+    final int type = input.readByte();
+
+    switch(type) {
+      case ATTACHMENT_REGION: {
+        final String path = readPath(input, name);
+        final RegionAttachment attachment =
+            attachmentLoader.newRegionAttachment(skin, name, path);
+
+        final float x = input.readFloat() * scale;
+        final float y = input.readFloat() * scale;
+        final float scaleX = input.readFloat();
+        final float scaleY = input.readFloat();
+        final float rotation = input.readFloat();
+        final float width = input.readFloat() * scale;
+        final float height = input.readFloat() * scale;
+        final int color = input.readColor();
+
+        if(attachment == null) {
+          return null;
+        }
+
+        attachment.path(path);
+        attachment.x(x);
+        attachment.y(y);
+        attachment.scaleX(scaleX);
+        attachment.scaleY(scaleY);
+        attachment.rotation(rotation);
+        attachment.setWidth(width);
+        attachment.setHeight(height);
+        attachment.color(color);
+        attachment.updateOffset();
+
+        return attachment;
+      }
+
+      case ATTACHMENT_BOUNDING_BOX: {
+        final BoundingBoxAttachment attachment = attachmentLoader.newBoundingBoxAttachment(skin, name);
+        final float[] vertices = input.readFloatArray(scale);
+
+        if(attachment == null) {
+          return null;
+        }
+
+        attachment.vertices(vertices);
+
+        return attachment;
+      }
+
+      case ATTACHMENT_MESH: {
+        final String path = readPath(input, name);
+        final MeshAttachment mesh =
+            attachmentLoader.newMeshAttachment(skin, name, path);
+
+        final float[] uvs = input.readFloatArray(1.0f);
+        final short[] triangles = input.readShortArray();
+        final float[] vertices = input.readFloatArray(scale);
+        final int color = input.readColor();
+        final int hullLength = input.readInt(true) * 2;
+        final int[] edges;
+        final float width, height;
+
+        if(nonessential) {
+          edges = input.readIntArray();
+          width = input.readFloat() * scale;
+          height = input.readFloat() * scale;
+        } else {
+          edges = null;
+          width = height = 0.0f;
+        }
+
+        if(mesh == null) {
+          return null;
+        }
+
+        mesh.path(path);
+        mesh.vertices(vertices);
+        mesh.triangles(triangles);
+        mesh.regionUVs(uvs);
+        mesh.updateUVs();
+        mesh.color(color);
+        mesh.hullLength(hullLength);
+        mesh.edges(edges);
+        mesh.width(width);
+        mesh.height(height);
+
+        return mesh;
+      }
+
+      case ATTACHMENT_SKINNED_MESH: {
+        final String path = readPath(input, name);
+        final SkinnedMeshAttachment attachment =
+            attachmentLoader.newSkinnedMeshAttachment(skin, name, path);
+
+        final float[] uvs = input.readFloatArray(1.0f);
+        final short[] triangles = input.readShortArray();
+        final int vertexCount = input.readInt(true);
+        final FloatArray weights = new FloatArray(uvs.length * 3 * 3);
+        final IntArray bones = new IntArray(uvs.length * 3);
+
+        for(int i = 0; i < vertexCount;) {
+          final int boneCount = (int)input.readFloat();
+
+          bones.push(boneCount);
+
+          for(int nn = ++i + boneCount * 4; i < nn; i += 4) {
+            bones.push((int)input.readFloat());
+
+            weights.push(input.readFloat() * scale);
+            weights.push(input.readFloat() * scale);
+            weights.push(input.readFloat());
+          }
+        }
+
+        final int color = input.readColor();
+        final int hullLength = input.readInt(true) * 2;
+        final int[] edges;
+        final float width, height;
+
+        if(nonessential) {
+          edges = input.readIntArray();
+          width = input.readFloat() * scale;
+          height = input.readFloat() * scale;
+        } else {
+          edges = null;
+          width = height = 0.0f;
+        }
+
+        if(attachment == null) {
+          return null;
+        }
+
+        attachment.path(path);
+        attachment.bones(bones.toArray());
+        attachment.weights(weights.toArray());
+        attachment.triangles(triangles);
+        attachment.regionUVs(uvs);
+        attachment.updateUVs();
+        attachment.color(color);
+        attachment.hullLength(hullLength);
+        attachment.edges(edges);
+        attachment.width(width);
+        attachment.height(height);
+
+        return attachment;
+      }
+    }
+
+    throw new SpineException("Unknown attachment type: "+type);
+  }
+
+  @Nonnull
+  private static String readPath(@Nonnull final SkeletonInput input, @Nonnull final String name) {
+    final String path = input.readString();
+    return path == null ? name : path;
+  }
+
+  private void readAnimation(@Nonnull final String name,
+                             @Nonnull final SkeletonInput input,
+                             @Nonnull final SkeletonData skeletonData) {
+    final Array<Timeline> timelines = new Array<>();
+    final float scale = this.scale;
+    float duration = 0;
+
+    // Slot timelines.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final int slotIndex = input.readInt(true);
+
+      for(int ii = 0, nn = input.readInt(true); ii < nn; ++ii) {
+        final int timelineType = input.readByte();
+        final int frameCount = input.readInt(true);
+
+        switch(timelineType) {
+          case TIMELINE_COLOR: {
+            final ColorTimeline timeline = new ColorTimeline(frameCount);
+            timeline.slotIndex = slotIndex;
+
+            for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+              final float time = input.readFloat();
+              timeline.setFrame(frameIndex, time, input.readColor());
+
+              if(frameIndex < frameCount - 1) {
+                readCurve(input, frameIndex, timeline, curveResolution);
+              }
+            }
+
+            timelines.push(timeline);
+            duration = Math.max(duration, timeline.frames()[frameCount * 5 - 5]);
+            break;
+          }
+
+          case TIMELINE_ATTACHMENT: {
+            final AttachmentTimeline timeline = new AttachmentTimeline(frameCount);
+            timeline.slotIndex = slotIndex;
+
+            for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+              final float time = input.readFloat();
+              timeline.setFrame(frameIndex, time, input.readString());
+            }
+
+            timeline.resolveAttachmentIds(skeletonData);
+            timelines.push(timeline);
+            duration = Math.max(duration, timeline.frames()[frameCount - 1]);
+            break;
+          }
+
+          default:
+            throw new SpineException("Unknown slot timeline type: "+timelineType);
+        }
+      }
+    }
+
+    // Bone timelines.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final int boneIndex = input.readInt(true);
+
+      for(int ii = 0, nn = input.readInt(true); ii < nn; ++ii) {
+        final int timelineType = input.readByte();
+        final int frameCount = input.readInt(true);
+
+        switch(timelineType) {
+          case TIMELINE_ROTATE: {
+            final RotateTimeline timeline = new RotateTimeline(frameCount);
+            timeline.boneIndex = boneIndex;
+
+            for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+              final float time = input.readFloat();
+              timeline.setFrame(frameIndex, time, input.readFloat());
+
+              if(frameIndex < frameCount - 1) {
+                readCurve(input, frameIndex, timeline, curveResolution);
+              }
+            }
+
+            timelines.push(timeline);
+            duration = Math.max(duration, timeline.frames()[frameCount * 2 - 2]);
+            break;
+          }
+
+          case TIMELINE_TRANSLATE:
+          case TIMELINE_SCALE: {
+            final TranslateTimeline timeline;
+            final float timelineScale;
+
+            if(timelineType == TIMELINE_SCALE) {
+              timeline = new ScaleTimeline(frameCount);
+              timelineScale = 1.0f;
+            } else {
+              timeline = new TranslateTimeline(frameCount);
+              timelineScale = scale;
+            }
+
+            timeline.boneIndex = boneIndex;
+
+            for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+              final float time = input.readFloat();
+              final float x = input.readFloat() * timelineScale;
+              final float y = input.readFloat() * timelineScale;
+              timeline.setFrame(frameIndex, time, x, y);
+
+              if(frameIndex < frameCount - 1) {
+                readCurve(input, frameIndex, timeline, curveResolution);
+              }
+            }
+
+            timelines.push(timeline);
+            duration = Math.max(duration, timeline.frames()[frameCount * 3 - 3]);
+            break;
+          }
+
+          case TIMELINE_FLIPX:
+          case TIMELINE_FLIPY: {
+            final FlipXTimeline timeline = timelineType == TIMELINE_FLIPX
+                ? new FlipXTimeline(frameCount)
+                : new FlipYTimeline(frameCount);
+            timeline.boneIndex = boneIndex;
+
+            for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+              final float time = input.readFloat();
+              timeline.setFrame(frameIndex, time, input.readBoolean());
+            }
+
+            timelines.push(timeline);
+            duration = Math.max(duration, timeline.frames()[frameCount * 2 - 2]);
+            break;
+          }
+
+          default:
+            throw new SpineException("Unknown bone timeline type: "+timelineType);
+        }
+      }
+    }
+
+    // IK timelines.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final int ikConstraintIndex = input.readInt(true);
+      final int frameCount = input.readInt(true);
+      final IkConstraintTimeline timeline = new IkConstraintTimeline(frameCount);
+      timeline.ikConstraintIndex = ikConstraintIndex;
+
+      for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+        final float time = input.readFloat();
+        final float mix = input.readFloat();
+        timeline.setFrame(frameIndex, time, mix, input.readByte());
+
+        if(frameIndex < frameCount - 1) {
+          readCurve(input, frameIndex, timeline, curveResolution);
+        }
+      }
+
+      timelines.push(timeline);
+      duration = Math.max(duration, timeline.frames()[frameCount * 3 - 3]);
+    }
+
+    // FFD timelines.
+    for(int i = 0, n = input.readInt(true); i < n; ++i) {
+      final Skin skin = skeletonData.skins.get(input.readInt(true));
+
+      for(int ii = 0, nn = input.readInt(true); ii < nn; ++ii) {
+        final int slotIndex = input.readInt(true);
+
+        for(int iii = 0, nnn = input.readInt(true); iii < nnn; ++iii) {
+          final String meshName = readName(input);
+          final Attachment attachment = skin.getAttachment(slotIndex, meshName);
+
+          if(attachment == null) {
+            throw new SpineException("FFD attachment not found: " + meshName);
+          }
+
+          final int frameCount = input.readInt(true);
+          final FfdTimeline timeline = new FfdTimeline(frameCount);
+
+          timeline.slotIndex = slotIndex;
+          timeline.attachment = attachment;
+
+          final int vertexCount;
+
+          if(attachment instanceof MeshAttachment) {
+            vertexCount = ((MeshAttachment)attachment).vertices().length;
+          } else {
+            vertexCount = ((SkinnedMeshAttachment)attachment).weights().length / 3 * 2;
+          }
+
+          for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+            final float time = input.readFloat();
+            final float[] vertices;
+
+            int end = input.readInt(true);
+
+            if(end == 0) {
+              if(attachment instanceof MeshAttachment) {
+                vertices = ((MeshAttachment)attachment).vertices();
+              } else {
+                vertices = new float[vertexCount];
+              }
+            } else {
+              vertices = new float[vertexCount];
+
+              final int start = input.readInt(true);
+              end += start;
+
+              for(int v = start; v < end; ++v) {
+                vertices[v] = input.readFloat() * scale;
+              }
+
+              if(attachment instanceof MeshAttachment) {
+                final float[] meshVertices = ((MeshAttachment)attachment).vertices();
+
+                for(int v = 0; v < vertexCount; ++v) {
+                  vertices[v] += meshVertices[v];
+                }
+              }
+            }
+
+            timeline.setFrame(frameIndex, time, vertices);
+
+            if(frameIndex < frameCount - 1) {
+              readCurve(input, frameIndex, timeline, curveResolution);
+            }
+          }
+
+          timelines.push(timeline);
+          duration = Math.max(duration, timeline.frames()[frameCount - 1]);
+        }
+      }
+    }
+
+    // Draw order timeline.
+    final int drawOrderCount = input.readInt(true);
+
+    if(drawOrderCount > 0) {
+      final DrawOrderTimeline timeline = new DrawOrderTimeline(drawOrderCount);
+      final int slotCount = skeletonData.slots.size();
+
+      for(int frameIndex = 0; frameIndex < drawOrderCount; ++frameIndex) {
+        final int offsetCount = input.readInt(true);
+        final int[] drawOrder = new int[slotCount];
+
+        Arrays.fill(drawOrder, -1);
+
+        final int[] unchanged = new int[slotCount - offsetCount];
+
+        int originalIndex = 0, unchangedIndex = 0;
+
+        for(int ii = 0; ii < offsetCount; ++ii) {
+          final int slotIndex = input.readInt(true);
+
+          // Collect unchanged items.
+          while(originalIndex != slotIndex) {
+            unchanged[unchangedIndex++] = originalIndex++;
+          }
+
+          // Set changed items.
+          drawOrder[originalIndex + input.readInt(true)] = originalIndex++;
+        }
+
+        // Collect remaining unchanged items.
+        while(originalIndex < slotCount) {
+          unchanged[unchangedIndex++] = originalIndex++;
+        }
+
+        // Fill in unchanged items.
+        for(int ii = slotCount - 1; ii >= 0; ii--) {
+          if(drawOrder[ii] == -1) {
+            drawOrder[ii] = unchanged[--unchangedIndex];
+          }
+        }
+
+        timeline.setFrame(frameIndex, input.readFloat(), drawOrder);
+      }
+
+      timelines.push(timeline);
+      duration = Math.max(duration, timeline.frames()[drawOrderCount - 1]);
+    }
+
+    // Event timeline.
+    final int eventCount = input.readInt(true);
+
+    if(eventCount > 0) {
+      final EventTimeline timeline = new EventTimeline(eventCount);
+
+      for(int frameIndex = 0; frameIndex < eventCount; ++frameIndex) {
+        final float time = input.readFloat();
+        final EventData eventData = skeletonData.events.get(input.readInt(true));
+        final Event event = new Event(eventData);
+
+        event.intValue = input.readInt(false);
+        event.floatValue = input.readFloat();
+        event.stringValue = input.readBoolean() ? input.readString() : eventData.stringValue;
+
+        timeline.setFrame(frameIndex, time, event);
+      }
+
+      timelines.push(timeline);
+      duration = Math.max(duration, timeline.frames()[eventCount - 1]);
+    }
+
+    timelines.trimToSize();
+    skeletonData.addAnimation(new Animation(name, timelines, duration));
+  }
+
+  private static void readCurve(@Nonnull final SkeletonInput input,
+                                final int frameIndex,
+                                @Nonnull final CurveTimeline timeline,
+                                final int curveResolution) {
+    switch(input.readByte()) {
+      case CURVE_STEPPED:
+        timeline.setSteppedAt(frameIndex);
+        break;
+      case CURVE_BEZIER:
+        if(timeline.curveResolution() != curveResolution) {
+          timeline.curveResolution(curveResolution);
+        }
+
+        timeline.setCurve(
+            frameIndex,
+            input.readFloat(), input.readFloat(),
+            input.readFloat(), input.readFloat());
+        break;
+    }
+  }
+}
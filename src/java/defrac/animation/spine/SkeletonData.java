@@ -34,9 +34,14 @@
 package defrac.animation.spine;
 
 import defrac.util.Array;
+import defrac.util.IntArray;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static defrac.lang.Preconditions.checkArgument;
 
 public final class SkeletonData {
   @Nonnull
@@ -51,6 +56,13 @@ public final class SkeletonData {
   final Array<Animation> animations = new Array<>();
   @Nonnull
   final Array<IkConstraintData> ikConstraints = new Array<>();
+  /** Slot index and name of each attachment id; see {@link #attachmentId(int, String)}. */
+  @Nonnull
+  private final IntArray attachmentIdSlots = new IntArray();
+  @Nonnull
+  private final Array<String> attachmentIdNames = new Array<>();
+  @Nonnull
+  private final Map<String, Integer> attachmentIds = new HashMap<>();
   @Nullable
   String name;
   @Nullable
@@ -89,6 +101,20 @@ public final class SkeletonData {
     return -1;
   }
 
+  /** @return A mask with one bit per bone index which is set for the given bones, see {@link AnimationState#boneMask(long[])}. */
+  @Nonnull
+  public long[] boneMask(@Nonnull final String... boneNames) {
+    final long[] mask = new long[(bones.size() + 63) >>> 6];
+
+    for(final String boneName : boneNames) {
+      final int index = findBoneIndex(boneName);
+      checkArgument(index != -1, "Bone not found: " + boneName);
+      mask[index >>> 6] |= 1L << index;
+    }
+
+    return mask;
+  }
+
   // --- Slots.
 
   @Nonnull
@@ -176,11 +202,19 @@ public final class SkeletonData {
     return animations;
   }
 
+  /** Adds an animation and assigns its index. */
+  void addAnimation(@Nonnull final Animation animation) {
+    checkArgument(animation.index == -1, "Animation already belongs to skeleton data");
+    animation.index = animations.size();
+    animations.push(animation);
+  }
+
   /** @return May be null. */
   @Nullable
   public Animation findAnimation(@Nonnull final String animationName) {
     for(final Animation animation : animations) {
       if(animationName.equals(animation.name)) {
+        animation.materialize();
         return animation;
       }
     }
@@ -188,6 +222,54 @@ public final class SkeletonData {
     return null;
   }
 
+  /** Returns the number of animations whose timelines have been decoded. */
+  public int materializedAnimationCount() {
+    int count = 0;
+
+    for(final Animation animation : animations) {
+      if(animation.isMaterialized()) {
+        ++count;
+      }
+    }
+
+    return count;
+  }
+
+  // --- Attachment ids.
+
+  /** Returns the id of the attachment with the given name in the given slot, creating one if necessary.
+   * Ids are dense, stable and independent of the skin; {@link Skeleton} maps them to attachments of its skin. */
+  synchronized int attachmentId(final int slotIndex, @Nonnull final String attachmentName) {
+    final String key = slotIndex+":"+attachmentName;
+    final Integer id = attachmentIds.get(key);
+
+    if(id != null) {
+      return id;
+    }
+
+    final int newId = attachmentIdNames.size();
+
+    attachmentIdSlots.push(slotIndex);
+    attachmentIdNames.push(attachmentName);
+    attachmentIds.put(key, newId);
+
+    return newId;
+  }
+
+  /** Returns the number of attachment ids. */
+  synchronized int attachmentIdCount() {
+    return attachmentIdNames.size();
+  }
+
+  synchronized int attachmentIdSlot(final int id) {
+    return attachmentIdSlots.get(id);
+  }
+
+  @Nonnull
+  synchronized String attachmentIdName(final int id) {
+    return attachmentIdNames.get(id);
+  }
+
   // --- IK
 
   @Nonnull
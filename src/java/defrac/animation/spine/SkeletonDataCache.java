@@ -0,0 +1,1054 @@
+/******************************************************************************
+ * Spine Runtimes Software License
+ * Version 2.3
+ * <p>
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ * <p>
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+// Ported from the Spine runtime by defrac 2015.
+
+package defrac.animation.spine;
+
+import defrac.animation.spine.Animation.*;
+import defrac.animation.spine.attachments.*;
+import defrac.display.BlendMode;
+import defrac.display.TextureAtlas;
+import defrac.util.Array;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The SkeletonDataCache class stores fully built skeleton data in a flat, versioned format
+ *
+ * <p>Unlike {@link SkeletonJson} and {@link SkeletonBinary} the cache stores the
+ * decoded state of the data: timeline frames and curve tables as well as mesh
+ * uvs, triangles and weights are written as they are held in memory and
+ * read back with bulk copies.
+ *
+ * <p>Each cache carries a key built from the {@code hash} and {@code spine}
+ * version of the exported skeleton and the scale it has been loaded with. A cache
+ * whose key differs from the expected key is treated as stale and ignored.
+ */
+public final class SkeletonDataCache {
+  /** The version of the cache format; caches of any other version are ignored */
+  public static final int FORMAT_VERSION = 3;
+
+  private static final int MAGIC = 0x53504b43; // "SPKC"
+
+  private static final int ATTACHMENT_REGION = 0;
+  private static final int ATTACHMENT_BOUNDING_BOX = 1;
+  private static final int ATTACHMENT_MESH = 2;
+  private static final int ATTACHMENT_SKINNED_MESH = 3;
+
+  private static final int TIMELINE_SCALE = 0;
+  private static final int TIMELINE_ROTATE = 1;
+  private static final int TIMELINE_TRANSLATE = 2;
+  private static final int TIMELINE_ATTACHMENT = 3;
+  private static final int TIMELINE_COLOR = 4;
+  private static final int TIMELINE_FLIPX = 5;
+  private static final int TIMELINE_FLIPY = 6;
+  private static final int TIMELINE_IK = 7;
+  private static final int TIMELINE_FFD = 8;
+  private static final int TIMELINE_DRAW_ORDER = 9;
+  private static final int TIMELINE_EVENT = 10;
+
+  private static final int FFD_VERTICES = 0;
+  private static final int FFD_SETUP_VERTICES = 1;
+
+  /**
+   * Creates and returns the cache key for the given skeleton data
+   *
+   * @param data The skeleton data
+   * @param scale The scale the data has been loaded with
+   * @return The cache key
+   */
+  @Nonnull
+  public static String key(@Nonnull final SkeletonData data, final float scale) {
+    return key(data.hash, data.version, scale);
+  }
+
+  /**
+   * Creates and returns the cache key for the given export
+   *
+   * @param hash The {@code hash} of the skeleton; may be null
+   * @param version The {@code spine} version of the skeleton; may be null
+   * @param scale The scale the data has been loaded with
+   * @return The cache key
+   */
+  @Nonnull
+  public static String key(@Nullable final String hash, @Nullable final String version, final float scale) {
+    return "spine:"+version+'#'+hash+'@'+Float.floatToIntBits(scale);
+  }
+
+  /**
+   * Reads the key of the given cache without consuming the buffer
+   *
+   * @param buffer The cache
+   * @return The key of the cache; null if the buffer is not a cache of the current format version
+   */
+  @Nullable
+  public static String readKey(@Nonnull final ByteBuffer buffer) {
+    final ByteBuffer input = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+    try {
+      if(input.getInt() != MAGIC || input.getInt() != FORMAT_VERSION) {
+        return null;
+      }
+
+      return readString(input);
+    } catch(final BufferUnderflowException exception) {
+      return null;
+    }
+  }
+
+  /**
+   * Serializes the given skeleton data
+   *
+   * @param data The skeleton data
+   * @param scale The scale the data has been loaded with
+   * @return The serialized data, ready to be read
+   */
+  @Nonnull
+  public static ByteBuffer write(@Nonnull final SkeletonData data, final float scale) {
+    final Output output = new Output(64 * 1024);
+
+    output.putInt(MAGIC);
+    output.putInt(FORMAT_VERSION);
+    output.putString(key(data, scale));
+
+    output.putString(data.name);
+    output.putString(data.hash);
+    output.putString(data.version);
+    output.putString(data.imagesPath);
+    output.putFloat(data.width);
+    output.putFloat(data.height);
+
+    // Bones.
+    output.putInt(data.bones.size());
+    for(final BoneData boneData : data.bones) {
+      output.putString(boneData.name);
+      output.putInt(boneData.parent == null ? -1 : data.bones.identityIndexOf(boneData.parent));
+      output.putFloat(boneData.length);
+      output.putFloat(boneData.x);
+      output.putFloat(boneData.y);
+      output.putFloat(boneData.rotation);
+      output.putFloat(boneData.scaleX);
+      output.putFloat(boneData.scaleY);
+      output.putBoolean(boneData.flipX);
+      output.putBoolean(boneData.flipY);
+      output.putBoolean(boneData.inheritScale);
+      output.putBoolean(boneData.inheritRotation);
+      output.putInt(boneData.color);
+    }
+
+    // IK constraints.
+    output.putInt(data.ikConstraints.size());
+    for(final IkConstraintData ikConstraintData : data.ikConstraints) {
+      output.putString(ikConstraintData.name);
+      output.putInt(ikConstraintData.bones.size());
+      for(final BoneData boneData : ikConstraintData.bones) {
+        output.putInt(data.bones.identityIndexOf(boneData));
+      }
+      output.putInt(data.bones.identityIndexOf(ikConstraintData.target));
+      output.putInt(ikConstraintData.bendDirection);
+      output.putFloat(ikConstraintData.mix);
+    }
+
+    // Slots.
+    output.putInt(data.slots.size());
+    for(final SlotData slotData : data.slots) {
+      output.putString(slotData.name);
+      output.putInt(data.bones.identityIndexOf(slotData.boneData));
+      output.putFloat(slotData.r);
+      output.putFloat(slotData.g);
+      output.putFloat(slotData.b);
+      output.putFloat(slotData.a);
+      output.putString(slotData.attachmentName);
+      output.putInt(slotData.blendMode == null ? BlendMode.NORMAL.ordinal() : slotData.blendMode.ordinal());
+    }
+
+    // Skins.
+    output.putInt(data.skins.size());
+    output.putInt(data.defaultSkin == null ? -1 : data.skins.identityIndexOf(data.defaultSkin));
+    for(final Skin skin : data.skins) {
+      output.putString(skin.name);
+
+      final int countPosition = output.position();
+      final int[] count = new int[1];
+
+      output.putInt(0);
+
+      skin.forEachEntry((slotIndex, name, attachment) -> {
+        if(writeAttachment(output, slotIndex, name, attachment)) {
+          ++count[0];
+        }
+      });
+
+      output.putInt(countPosition, count[0]);
+    }
+
+    // Events.
+    output.putInt(data.events.size());
+    for(final EventData eventData : data.events) {
+      output.putString(eventData.name);
+      output.putInt(eventData.intValue);
+      output.putFloat(eventData.floatValue);
+      output.putString(eventData.stringValue);
+    }
+
+    // Animations.
+    output.putInt(data.animations.size());
+    for(final Animation animation : data.animations) {
+      output.putString(animation.name);
+      output.putFloat(animation.duration());
+      output.putInt(animation.timelines().size());
+
+      for(final Timeline timeline : animation.timelines()) {
+        writeTimeline(output, data, timeline);
+      }
+    }
+
+    return output.toByteBuffer();
+  }
+
+  private static boolean writeAttachment(@Nonnull final Output output,
+                                         final int slotIndex,
+                                         @Nonnull final String name,
+                                         @Nonnull final Attachment attachment) {
+    if(attachment instanceof RegionAttachment) {
+      final RegionAttachment region = (RegionAttachment)attachment;
+
+      output.putInt(slotIndex);
+      output.putString(name);
+      output.putByte(ATTACHMENT_REGION);
+      output.putString(region.name());
+      output.putString(region.path());
+      output.putFloat(region.x());
+      output.putFloat(region.y());
+      output.putFloat(region.scaleX());
+      output.putFloat(region.scaleY());
+      output.putFloat(region.rotation());
+      output.putFloat(region.width());
+      output.putFloat(region.height());
+      output.putFloat(region.r);
+      output.putFloat(region.g);
+      output.putFloat(region.b);
+      output.putFloat(region.a);
+      return true;
+    } else if(attachment instanceof BoundingBoxAttachment) {
+      final BoundingBoxAttachment boundingBox = (BoundingBoxAttachment)attachment;
+
+      output.putInt(slotIndex);
+      output.putString(name);
+      output.putByte(ATTACHMENT_BOUNDING_BOX);
+      output.putString(boundingBox.name());
+      output.putFloats(boundingBox.vertices());
+      return true;
+    } else if(attachment instanceof MeshAttachment) {
+      final MeshAttachment mesh = (MeshAttachment)attachment;
+
+      output.putInt(slotIndex);
+      output.putString(name);
+      output.putByte(ATTACHMENT_MESH);
+      output.putString(mesh.name());
+      output.putString(mesh.path());
+      output.putFloats(mesh.vertices());
+      output.putFloats(mesh.regionUVs());
+      output.putShorts(mesh.triangles());
+      output.putFloat(mesh.r);
+      output.putFloat(mesh.g);
+      output.putFloat(mesh.b);
+      output.putFloat(mesh.a);
+      output.putInt(mesh.hullLength());
+      output.putInts(mesh.edges());
+      output.putFloat(mesh.width());
+      output.putFloat(mesh.height());
+      return true;
+    } else if(attachment instanceof SkinnedMeshAttachment) {
+      final SkinnedMeshAttachment mesh = (SkinnedMeshAttachment)attachment;
+
+      output.putInt(slotIndex);
+      output.putString(name);
+      output.putByte(ATTACHMENT_SKINNED_MESH);
+      output.putString(mesh.name());
+      output.putString(mesh.path());
+      output.putInts(mesh.bones());
+      output.putFloats(mesh.weights());
+      output.putFloats(mesh.regionUVs());
+      output.putShorts(mesh.triangles());
+      output.putFloat(mesh.r);
+      output.putFloat(mesh.g);
+      output.putFloat(mesh.b);
+      output.putFloat(mesh.a);
+      output.putInt(mesh.hullLength());
+      output.putInts(mesh.edges());
+      output.putFloat(mesh.width());
+      output.putFloat(mesh.height());
+      return true;
+    }
+
+    // Skeleton attachments are created at runtime and can't be cached
+    return false;
+  }
+
+  private static void writeTimeline(@Nonnull final Output output,
+                                    @Nonnull final SkeletonData data,
+                                    @Nonnull final Timeline timeline) {
+    if(timeline instanceof ScaleTimeline) {
+      final ScaleTimeline scaleTimeline = (ScaleTimeline)timeline;
+      output.putByte(TIMELINE_SCALE);
+      output.putInt(scaleTimeline.boneIndex);
+      writeCurveTimeline(output, scaleTimeline, scaleTimeline.frames());
+    } else if(timeline instanceof TranslateTimeline) {
+      final TranslateTimeline translateTimeline = (TranslateTimeline)timeline;
+      output.putByte(TIMELINE_TRANSLATE);
+      output.putInt(translateTimeline.boneIndex);
+      writeCurveTimeline(output, translateTimeline, translateTimeline.frames());
+    } else if(timeline instanceof RotateTimeline) {
+      final RotateTimeline rotateTimeline = (RotateTimeline)timeline;
+      output.putByte(TIMELINE_ROTATE);
+      output.putInt(rotateTimeline.boneIndex);
+      writeCurveTimeline(output, rotateTimeline, rotateTimeline.frames());
+    } else if(timeline instanceof ColorTimeline) {
+      final ColorTimeline colorTimeline = (ColorTimeline)timeline;
+      output.putByte(TIMELINE_COLOR);
+      output.putInt(colorTimeline.slotIndex);
+      writeCurveTimeline(output, colorTimeline, colorTimeline.frames());
+    } else if(timeline instanceof IkConstraintTimeline) {
+      final IkConstraintTimeline ikTimeline = (IkConstraintTimeline)timeline;
+      output.putByte(TIMELINE_IK);
+      output.putInt(ikTimeline.ikConstraintIndex);
+      writeCurveTimeline(output, ikTimeline, ikTimeline.frames());
+    } else if(timeline instanceof FfdTimeline) {
+      final FfdTimeline ffdTimeline = (FfdTimeline)timeline;
+      final Attachment attachment = ffdTimeline.attachment;
+      final float[] setupVertices =
+          attachment instanceof MeshAttachment ? ((MeshAttachment)attachment).vertices() : null;
+
+      // Skins are keyed by the name of the entry, which may differ from the name of the attachment
+      int skinIndex = -1;
+      String entryName = null;
+      for(int i = 0, n = data.skins.size(); i < n && attachment != null; ++i) {
+        entryName = data.skins.get(i).findAttachmentName(ffdTimeline.slotIndex, attachment);
+        if(entryName != null) {
+          skinIndex = i;
+          break;
+        }
+      }
+
+      if(entryName == null) {
+        throw new SpineException("FFD attachment not found in any skin: "+attachment);
+      }
+
+      output.putByte(TIMELINE_FFD);
+      output.putInt(ffdTimeline.slotIndex);
+      output.putInt(skinIndex);
+      output.putString(entryName);
+      writeCurveTimeline(output, ffdTimeline, ffdTimeline.frames());
+
+      for(final float[] vertices : ffdTimeline.vertices()) {
+        if(vertices == setupVertices) {
+          output.putByte(FFD_SETUP_VERTICES);
+        } else {
+          output.putByte(FFD_VERTICES);
+          output.putFloats(vertices);
+        }
+      }
+    } else if(timeline instanceof AttachmentTimeline) {
+      final AttachmentTimeline attachmentTimeline = (AttachmentTimeline)timeline;
+      output.putByte(TIMELINE_ATTACHMENT);
+      output.putInt(attachmentTimeline.slotIndex);
+      output.putInt(attachmentTimeline.frames().length);
+      output.putFloats(attachmentTimeline.frames());
+      for(final String attachmentName : attachmentTimeline.attachmentNames()) {
+        output.putString(attachmentName);
+      }
+    } else if(timeline instanceof FlipXTimeline) {
+      final FlipXTimeline flipTimeline = (FlipXTimeline)timeline;
+      output.putByte(timeline instanceof FlipYTimeline ? TIMELINE_FLIPY : TIMELINE_FLIPX);
+      output.putInt(flipTimeline.boneIndex);
+      output.putInt(flipTimeline.frames().length);
+      output.putFloats(flipTimeline.frames());
+    } else if(timeline instanceof DrawOrderTimeline) {
+      final DrawOrderTimeline drawOrderTimeline = (DrawOrderTimeline)timeline;
+      output.putByte(TIMELINE_DRAW_ORDER);
+      output.putInt(drawOrderTimeline.frames().length);
+      output.putFloats(drawOrderTimeline.frames());
+      for(final int[] drawOrder : drawOrderTimeline.drawOrders()) {
+        output.putInts(drawOrder);
+      }
+    } else if(timeline instanceof EventTimeline) {
+      final EventTimeline eventTimeline = (EventTimeline)timeline;
+      output.putByte(TIMELINE_EVENT);
+      output.putInt(eventTimeline.frames().length);
+      output.putFloats(eventTimeline.frames());
+      for(final Event event : eventTimeline.events()) {
+        output.putInt(data.events.identityIndexOf(event.data()));
+        output.putInt(event.intValue);
+        output.putFloat(event.floatValue);
+        output.putString(event.stringValue);
+      }
+    } else {
+      throw new SpineException("Unsupported timeline: "+timeline.getClass().getName());
+    }
+  }
+
+  private static void writeCurveTimeline(@Nonnull final Output output,
+                                         @Nonnull final CurveTimeline timeline,
+                                         @Nonnull final float[] frames) {
+    output.putInt(timeline.frameCount());
+    output.putInt(timeline.curveResolution());
+    output.putFloats(frames);
+    output.putFloats(timeline.curves());
+    output.putFloats(timeline.curveTable());
+  }
+
+  @Nonnull
+  private final AttachmentLoader attachmentLoader;
+
+  public SkeletonDataCache(@Nonnull final TextureAtlas atlas) {
+    attachmentLoader = new AtlasAttachmentLoader(atlas);
+  }
+
+  public SkeletonDataCache(@Nonnull final AttachmentLoader attachmentLoader) {
+    this.attachmentLoader = attachmentLoader;
+  }
+
+  /**
+   * Reads skeleton data from the given cache
+   *
+   * <p>The buffer is not modified; it may be a memory-mapped file.
+   *
+   * @param buffer The cache, as created by {@link #write(SkeletonData, float)}
+   * @param expectedKey The expected cache key; null to accept any key
+   * @return The skeleton data; null if the cache is stale
+   * @throws SpineException If the cache is corrupt
+   */
+  @Nullable
+  public SkeletonData read(@Nonnull final ByteBuffer buffer, @Nullable final String expectedKey) {
+    final String key = readKey(buffer);
+
+    if(key == null || (expectedKey != null && !expectedKey.equals(key))) {
+      return null;
+    }
+
+    final ByteBuffer input = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+    try {
+      input.getInt(); // magic
+      input.getInt(); // format version
+      readString(input); // key
+
+      return readSkeletonData(input);
+    } catch(final BufferUnderflowException | IndexOutOfBoundsException exception) {
+      throw new SpineException("Corrupt skeleton data cache", exception);
+    }
+  }
+
+  @Nonnull
+  private SkeletonData readSkeletonData(@Nonnull final ByteBuffer input) {
+    final SkeletonData data = new SkeletonData();
+
+    data.name = readString(input);
+    data.hash = readString(input);
+    data.version = readString(input);
+    data.imagesPath = readString(input);
+    data.width = input.getFloat();
+    data.height = input.getFloat();
+
+    // Bones.
+    for(int i = 0, n = input.getInt(); i < n; ++i) {
+      final String name = readName(input);
+      final int parentIndex = input.getInt();
+      final BoneData boneData = new BoneData(name, parentIndex == -1 ? null : data.bones.get(parentIndex));
+
+      boneData.length = input.getFloat();
+      boneData.x = input.getFloat();
+      boneData.y = input.getFloat();
+      boneData.rotation = input.getFloat();
+      boneData.scaleX = input.getFloat();
+      boneData.scaleY = input.getFloat();
+      boneData.flipX = input.get() != 0;
+      boneData.flipY = input.get() != 0;
+      boneData.inheritScale = input.get() != 0;
+      boneData.inheritRotation = input.get() != 0;
+      boneData.color = input.getInt();
+
+      data.bones.push(boneData);
+    }
+
+    // IK constraints.
+    for(int i = 0, n = input.getInt(); i < n; ++i) {
+      final IkConstraintData ikConstraintData = new IkConstraintData(readName(input));
+
+      for(int ii = 0, nn = input.getInt(); ii < nn; ++ii) {
+        ikConstraintData.bones.push(data.bones.get(input.getInt()));
+      }
+
+      ikConstraintData.target = data.bones.get(input.getInt());
+      ikConstraintData.bendDirection = input.getInt();
+      ikConstraintData.mix = input.getFloat();
+
+      data.ikConstraints.push(ikConstraintData);
+    }
+
+    // Slots.
+    final BlendMode[] blendModes = BlendMode.values();
+
+    for(int i = 0, n = input.getInt(); i < n; ++i) {
+      final String name = readName(input);
+      final SlotData slotData = new SlotData(name, data.bones.get(input.getInt()));
+
+      slotData.r = input.getFloat();
+      slotData.g = input.getFloat();
+      slotData.b = input.getFloat();
+      slotData.a = input.getFloat();
+      slotData.attachmentName = readString(input);
+      slotData.blendMode = blendModes[input.getInt()];
+
+      data.slots.push(slotData);
+    }
+
+    // Skins.
+    final int skinCount = input.getInt();
+    final int defaultSkinIndex = input.getInt();
+
+    for(int i = 0; i < skinCount; ++i) {
+      final Skin skin = new Skin(readName(input));
+
+      for(int ii = 0, nn = input.getInt(); ii < nn; ++ii) {
+        final int slotIndex = input.getInt();
+        final String name = readName(input);
+        final Attachment attachment = readAttachment(input, skin);
+
+        if(attachment != null) {
+          skin.addAttachment(slotIndex, name, attachment);
+        }
+      }
+
+      data.skins.push(skin);
+    }
+
+    if(defaultSkinIndex != -1) {
+      data.defaultSkin = data.skins.get(defaultSkinIndex);
+    }
+
+    // Events.
+    for(int i = 0, n = input.getInt(); i < n; ++i) {
+      final EventData eventData = new EventData(readName(input));
+      eventData.intValue = input.getInt();
+      eventData.floatValue = input.getFloat();
+      eventData.stringValue = readString(input);
+      data.events.push(eventData);
+    }
+
+    // Animations.
+    for(int i = 0, n = input.getInt(); i < n; ++i) {
+      final String name = readName(input);
+      final float duration = input.getFloat();
+      final int timelineCount = input.getInt();
+      final Array<Timeline> timelines = new Array<>(timelineCount);
+
+      for(int ii = 0; ii < timelineCount; ++ii) {
+        timelines.push(readTimeline(input, data));
+      }
+
+      data.addAnimation(new Animation(name, timelines, duration));
+    }
+
+    data.bones.trimToSize();
+    data.slots.trimToSize();
+    data.skins.trimToSize();
+    data.events.trimToSize();
+    data.animations.trimToSize();
+    data.ikConstraints.trimToSize();
+
+    return data;
+  }
+
+  @Nullable
+  private Attachment readAttachment(@Nonnull final ByteBuffer input, @Nonnull final Skin skin) {
+    final int type = input.get();
+    final String name = readName(input);
+
+    switch(type) {
+      case ATTACHMENT_REGION: {
+        final String path = readName(input);
+        final RegionAttachment attachment = attachmentLoader.newRegionAttachment(skin, name, path);
+        final float x = input.getFloat();
+        final float y = input.getFloat();
+        final float scaleX = input.getFloat();
+        final float scaleY = input.getFloat();
+        final float rotation = input.getFloat();
+        final float width = input.getFloat();
+        final float height = input.getFloat();
+        final float r = input.getFloat();
+        final float g = input.getFloat();
+        final float b = input.getFloat();
+        final float a = input.getFloat();
+
+        if(attachment == null) {
+          return null;
+        }
+
+        attachment.path(path);
+        attachment.x(x);
+        attachment.y(y);
+        attachment.scaleX(scaleX);
+        attachment.scaleY(scaleY);
+        attachment.rotation(rotation);
+        attachment.setWidth(width);
+        attachment.setHeight(height);
+        attachment.color(r, g, b, a);
+        attachment.updateOffset();
+
+        return attachment;
+      }
+
+      case ATTACHMENT_BOUNDING_BOX: {
+        final BoundingBoxAttachment attachment = attachmentLoader.newBoundingBoxAttachment(skin, name);
+        final float[] vertices = readFloats(input);
+
+        if(attachment == null) {
+          return null;
+        }
+
+        attachment.vertices(vertices);
+
+        return attachment;
+      }
+
+      case ATTACHMENT_MESH: {
+        final String path = readName(input);
+        final MeshAttachment mesh = attachmentLoader.newMeshAttachment(skin, name, path);
+        final float[] vertices = readFloats(input);
+        final float[] regionUVs = readFloats(input);
+        final short[] triangles = readShorts(input);
+        final float r = input.getFloat();
+        final float g = input.getFloat();
+        final float b = input.getFloat();
+        final float a = input.getFloat();
+        final int hullLength = input.getInt();
+        final int[] edges = readInts(input);
+        final float width = input.getFloat();
+        final float height = input.getFloat();
+
+        if(mesh == null) {
+          return null;
+        }
+
+        mesh.path(path);
+        mesh.vertices(vertices);
+        mesh.regionUVs(regionUVs);
+        mesh.triangles(triangles);
+        mesh.updateUVs();
+        mesh.color(r, g, b, a);
+        mesh.hullLength(hullLength);
+        mesh.edges(edges);
+        mesh.width(width);
+        mesh.height(height);
+
+        return mesh;
+      }
+
+      case ATTACHMENT_SKINNED_MESH: {
+        final String path = readName(input);
+        final SkinnedMeshAttachment mesh = attachmentLoader.newSkinnedMeshAttachment(skin, name, path);
+        final int[] bones = readInts(input);
+        final float[] weights = readFloats(input);
+        final float[] regionUVs = readFloats(input);
+        final short[] triangles = readShorts(input);
+        final float r = input.getFloat();
+        final float g = input.getFloat();
+        final float b = input.getFloat();
+        final float a = input.getFloat();
+        final int hullLength = input.getInt();
+        final int[] edges = readInts(input);
+        final float width = input.getFloat();
+        final float height = input.getFloat();
+
+        if(mesh == null) {
+          return null;
+        }
+
+        mesh.path(path);
+        mesh.bones(bones);
+        mesh.weights(weights);
+        mesh.regionUVs(regionUVs);
+        mesh.triangles(triangles);
+        mesh.updateUVs();
+        mesh.color(r, g, b, a);
+        mesh.hullLength(hullLength);
+        mesh.edges(edges);
+        mesh.width(width);
+        mesh.height(height);
+
+        return mesh;
+      }
+    }
+
+    throw new SpineException("Unknown attachment type: "+type);
+  }
+
+  @Nonnull
+  private static Timeline readTimeline(@Nonnull final ByteBuffer input, @Nonnull final SkeletonData data) {
+    final int type = input.get();
+
+    switch(type) {
+      case TIMELINE_SCALE:
+      case TIMELINE_TRANSLATE: {
+        final int boneIndex = input.getInt();
+        final int frameCount = input.getInt();
+        final TranslateTimeline timeline =
+            type == TIMELINE_SCALE ? new ScaleTimeline(frameCount) : new TranslateTimeline(frameCount);
+        timeline.boneIndex = boneIndex;
+        readCurveTimeline(input, timeline, timeline.frames());
+        return timeline;
+      }
+
+      case TIMELINE_ROTATE: {
+        final int boneIndex = input.getInt();
+        final RotateTimeline timeline = new RotateTimeline(input.getInt());
+        timeline.boneIndex = boneIndex;
+        readCurveTimeline(input, timeline, timeline.frames());
+        return timeline;
+      }
+
+      case TIMELINE_COLOR: {
+        final int slotIndex = input.getInt();
+        final ColorTimeline timeline = new ColorTimeline(input.getInt());
+        timeline.slotIndex = slotIndex;
+        readCurveTimeline(input, timeline, timeline.frames());
+        return timeline;
+      }
+
+      case TIMELINE_IK: {
+        final int ikConstraintIndex = input.getInt();
+        final IkConstraintTimeline timeline = new IkConstraintTimeline(input.getInt());
+        timeline.ikConstraintIndex = ikConstraintIndex;
+        readCurveTimeline(input, timeline, timeline.frames());
+        return timeline;
+      }
+
+      case TIMELINE_FFD: {
+        final int slotIndex = input.getInt();
+        final Skin skin = data.skins.get(input.getInt());
+        final String attachmentName = readName(input);
+        final Attachment attachment = skin.getAttachment(slotIndex, attachmentName);
+
+        if(attachment == null) {
+          throw new SpineException("FFD attachment not found: "+attachmentName);
+        }
+
+        final FfdTimeline timeline = new FfdTimeline(input.getInt());
+        final float[][] vertices = timeline.vertices();
+
+        timeline.slotIndex = slotIndex;
+        timeline.attachment = attachment;
+        readCurveTimeline(input, timeline, timeline.frames());
+
+        for(int i = 0, n = vertices.length; i < n; ++i) {
+          if(input.get() == FFD_SETUP_VERTICES) {
+            vertices[i] = ((MeshAttachment)attachment).vertices();
+          } else {
+            vertices[i] = readFloats(input);
+          }
+        }
+
+        return timeline;
+      }
+
+      case TIMELINE_ATTACHMENT: {
+        final int slotIndex = input.getInt();
+        final int frameCount = input.getInt();
+        final AttachmentTimeline timeline = new AttachmentTimeline(frameCount);
+        final String[] attachmentNames = timeline.attachmentNames();
+        timeline.slotIndex = slotIndex;
+        readFloats(input, timeline.frames());
+        for(int i = 0; i < frameCount; ++i) {
+          attachmentNames[i] = readString(input);
+        }
+        timeline.resolveAttachmentIds(data);
+        return timeline;
+      }
+
+      case TIMELINE_FLIPX:
+      case TIMELINE_FLIPY: {
+        final int boneIndex = input.getInt();
+        final int frameCount = input.getInt() >> 1;
+        final FlipXTimeline timeline =
+            type == TIMELINE_FLIPX ? new FlipXTimeline(frameCount) : new FlipYTimeline(frameCount);
+        timeline.boneIndex = boneIndex;
+        readFloats(input, timeline.frames());
+        return timeline;
+      }
+
+      case TIMELINE_DRAW_ORDER: {
+        final int frameCount = input.getInt();
+        final DrawOrderTimeline timeline = new DrawOrderTimeline(frameCount);
+        final int[][] drawOrders = timeline.drawOrders();
+        readFloats(input, timeline.frames());
+        for(int i = 0; i < frameCount; ++i) {
+          drawOrders[i] = readInts(input);
+        }
+        return timeline;
+      }
+
+      case TIMELINE_EVENT: {
+        final int frameCount = input.getInt();
+        final EventTimeline timeline = new EventTimeline(frameCount);
+        final Event[] events = timeline.events();
+        readFloats(input, timeline.frames());
+        for(int i = 0; i < frameCount; ++i) {
+          final Event event = new Event(data.events.get(input.getInt()));
+          event.intValue = input.getInt();
+          event.floatValue = input.getFloat();
+          event.stringValue = readString(input);
+          events[i] = event;
+        }
+        return timeline;
+      }
+    }
+
+    throw new SpineException("Unknown timeline type: "+type);
+  }
+
+  private static void readCurveTimeline(@Nonnull final ByteBuffer input,
+                                        @Nonnull final CurveTimeline timeline,
+                                        @Nonnull final float[] frames) {
+    final int curveResolution = input.getInt();
+
+    if(curveResolution != 0) {
+      timeline.curveResolution(curveResolution);
+    }
+
+    readFloats(input, frames);
+    readFloats(input, timeline.curves());
+
+    final float[] curveTable = timeline.curveTable();
+
+    if(curveTable == null) {
+      input.getInt(); // -1
+    } else {
+      readFloats(input, curveTable);
+    }
+  }
+
+  @Nonnull
+  private static String readName(@Nonnull final ByteBuffer input) {
+    final String name = readString(input);
+
+    if(name == null) {
+      throw new SpineException("Name expected at "+input.position());
+    }
+
+    return name;
+  }
+
+  @Nullable
+  private static String readString(@Nonnull final ByteBuffer input) {
+    final int length = input.getInt();
+
+    if(length == -1) {
+      return null;
+    }
+
+    final char[] chars = new char[length];
+
+    input.asCharBuffer().get(chars);
+    input.position(input.position() + (length << 1));
+
+    return new String(chars);
+  }
+
+  @Nullable
+  private static float[] readFloats(@Nonnull final ByteBuffer input) {
+    final int length = input.getInt();
+
+    if(length == -1) {
+      return null;
+    }
+
+    final float[] result = new float[length];
+    input.asFloatBuffer().get(result);
+    input.position(input.position() + (length << 2));
+    return result;
+  }
+
+  private static void readFloats(@Nonnull final ByteBuffer input, @Nonnull final float[] target) {
+    final int length = input.getInt();
+
+    if(length != target.length) {
+      throw new SpineException("Expected "+target.length+" values, got "+length);
+    }
+
+    input.asFloatBuffer().get(target);
+    input.position(input.position() + (length << 2));
+  }
+
+  @Nullable
+  private static int[] readInts(@Nonnull final ByteBuffer input) {
+    final int length = input.getInt();
+
+    if(length == -1) {
+      return null;
+    }
+
+    final int[] result = new int[length];
+    input.asIntBuffer().get(result);
+    input.position(input.position() + (length << 2));
+    return result;
+  }
+
+  @Nullable
+  private static short[] readShorts(@Nonnull final ByteBuffer input) {
+    final int length = input.getInt();
+
+    if(length == -1) {
+      return null;
+    }
+
+    final short[] result = new short[length];
+    input.asShortBuffer().get(result);
+    input.position(input.position() + (length << 1));
+    return result;
+  }
+
+  /** A growable little-endian output buffer */
+  private static final class Output {
+    @Nonnull
+    private ByteBuffer buffer;
+
+    Output(final int initialCapacity) {
+      buffer = ByteBuffer.allocate(initialCapacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    int position() {
+      return buffer.position();
+    }
+
+    private void require(final int count) {
+      if(buffer.remaining() >= count) {
+        return;
+      }
+
+      final ByteBuffer newBuffer =
+          ByteBuffer.allocate(Math.max(buffer.capacity() << 1, buffer.position() + count)).
+              order(ByteOrder.LITTLE_ENDIAN);
+
+      buffer.flip();
+      newBuffer.put(buffer);
+      buffer = newBuffer;
+    }
+
+    void putByte(final int value) {
+      require(1);
+      buffer.put((byte)value);
+    }
+
+    void putBoolean(final boolean value) {
+      putByte(value ? 1 : 0);
+    }
+
+    void putInt(final int value) {
+      require(4);
+      buffer.putInt(value);
+    }
+
+    void putInt(final int position, final int value) {
+      buffer.putInt(position, value);
+    }
+
+    void putFloat(final float value) {
+      require(4);
+      buffer.putFloat(value);
+    }
+
+    void putString(@Nullable final String value) {
+      if(value == null) {
+        putInt(-1);
+        return;
+      }
+
+      final int length = value.length();
+
+      putInt(length);
+      require(length << 1);
+
+      for(int i = 0; i < length; ++i) {
+        buffer.putChar(value.charAt(i));
+      }
+    }
+
+    void putFloats(@Nullable final float[] values) {
+      if(values == null) {
+        putInt(-1);
+        return;
+      }
+
+      putInt(values.length);
+      require(values.length << 2);
+      buffer.asFloatBuffer().put(values);
+      buffer.position(buffer.position() + (values.length << 2));
+    }
+
+    void putInts(@Nullable final int[] values) {
+      if(values == null) {
+        putInt(-1);
+        return;
+      }
+
+      putInt(values.length);
+      require(values.length << 2);
+      buffer.asIntBuffer().put(values);
+      buffer.position(buffer.position() + (values.length << 2));
+    }
+
+    void putShorts(@Nullable final short[] values) {
+      if(values == null) {
+        putInt(-1);
+        return;
+      }
+
+      putInt(values.length);
+      require(values.length << 1);
+      buffer.asShortBuffer().put(values);
+      buffer.position(buffer.position() + (values.length << 1));
+    }
+
+    @Nonnull
+    ByteBuffer toByteBuffer() {
+      final ByteBuffer result = buffer.duplicate();
+      result.flip();
+      return result.order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/******************************************************************************
+ * Spine Runtimes Software License
+ * Version 2.3
+ * <p>
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ * <p>
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+// Ported from the Spine runtime by defrac 2015.
+
+package defrac.animation.spine;
+
+import defrac.util.Color;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** Reads the primitive types of the Spine binary format from a byte array. */
+final class SkeletonInput {
+  @Nonnull
+  private final byte[] bytes;
+
+  private final int limit;
+
+  private int position;
+
+  @Nonnull
+  private char[] chars = new char[32];
+
+  SkeletonInput(@Nonnull final byte[] bytes) {
+    this(bytes, 0, bytes.length);
+  }
+
+  SkeletonInput(@Nonnull final byte[] bytes, final int offset, final int length) {
+    this.bytes = bytes;
+    this.position = offset;
+    this.limit = offset + length;
+  }
+
+  int position() {
+    return position;
+  }
+
+  private void require(final int count) {
+    if(position + count > limit) {
+      throw new SpineException("Unexpected end of skeleton data at "+position);
+    }
+  }
+
+  int readByte() {
+    require(1);
+    return bytes[position++];
+  }
+
+  boolean readBoolean() {
+    return readByte() != 0;
+  }
+
+  short readShort() {
+    require(2);
+    final byte[] bytes = this.bytes;
+    final int value = ((bytes[position] & 0xff) << 8) | (bytes[position + 1] & 0xff);
+    position += 2;
+    return (short)value;
+  }
+
+  int readInt() {
+    require(4);
+    final byte[] bytes = this.bytes;
+    final int value =
+        ((bytes[position    ] & 0xff) << 24) |
+        ((bytes[position + 1] & 0xff) << 16) |
+        ((bytes[position + 2] & 0xff) <<  8) |
+         (bytes[position + 3] & 0xff);
+    position += 4;
+    return value;
+  }
+
+  /** Reads a variable length integer of one to five bytes.
+   * @param optimizePositive Whether or not the value has been written as is, optimized for
+   *                         positive values; negative values are written zig-zag encoded if false */
+  int readInt(final boolean optimizePositive) {
+    int b = readByte();
+    int result = b & 0x7f;
+
+    if((b & 0x80) != 0) {
+      b = readByte();
+      result |= (b & 0x7f) << 7;
+
+      if((b & 0x80) != 0) {
+        b = readByte();
+        result |= (b & 0x7f) << 14;
+
+        if((b & 0x80) != 0) {
+          b = readByte();
+          result |= (b & 0x7f) << 21;
+
+          if((b & 0x80) != 0) {
+            b = readByte();
+            result |= (b & 0x7f) << 28;
+          }
+        }
+      }
+    }
+
+    return optimizePositive ? result : ((result >>> 1) ^ -(result & 1));
+  }
+
+  float readFloat() {
+    return Float.intBitsToFloat(readInt());
+  }
+
+  /** Reads an RGBA8888 color and returns it in the format used by {@link Color} */
+  int readColor() {
+    final int rgba = readInt();
+    return Color.rgba(
+        ((rgba >>> 24) & 0xff) / 255.0f,
+        ((rgba >>> 16) & 0xff) / 255.0f,
+        ((rgba >>>  8) & 0xff) / 255.0f,
+        ( rgba         & 0xff) / 255.0f);
+  }
+
+  /** @return May be null. */
+  @Nullable
+  String readString() {
+    int charCount = readInt(true);
+
+    switch(charCount) {
+      case 0: return null;
+      case 1: return "";
+    }
+
+    --charCount;
+
+    if(chars.length < charCount) {
+      chars = new char[charCount];
+    }
+
+    final char[] chars = this.chars;
+
+    for(int charIndex = 0; charIndex < charCount; ++charIndex) {
+      final int b = readByte() & 0xff;
+
+      switch(b >> 4) {
+        case 12:
+        case 13:
+          chars[charIndex] = (char)((b & 0x1f) << 6 | readByte() & 0x3f);
+          break;
+        case 14:
+          chars[charIndex] = (char)((b & 0x0f) << 12 | (readByte() & 0x3f) << 6 | readByte() & 0x3f);
+          break;
+        default:
+          chars[charIndex] = (char)b;
+      }
+    }
+
+    return new String(chars, 0, charCount);
+  }
+
+  @Nonnull
+  float[] readFloatArray(final float scale) {
+    final int length = readInt(true);
+    final float[] result = new float[length];
+
+    if(scale == 1.0f) {
+      for(int i = 0; i < length; ++i) {
+        result[i] = readFloat();
+      }
+    } else {
+      for(int i = 0; i < length; ++i) {
+        result[i] = readFloat() * scale;
+      }
+    }
+
+    return result;
+  }
+
+  @Nonnull
+  short[] readShortArray() {
+    final int length = readInt(true);
+    final short[] result = new short[length];
+
+    for(int i = 0; i < length; ++i) {
+      result[i] = readShort();
+    }
+
+    return result;
+  }
+
+  @Nonnull
+  int[] readIntArray() {
+    final int length = readInt(true);
+    final int[] result = new int[length];
+
+    for(int i = 0; i < length; ++i) {
+      result[i] = readInt(true);
+    }
+
+    return result;
+  }
+}
@@ -48,6 +48,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Arrays;
 
+import static defrac.lang.Preconditions.checkArgument;
 import static defrac.lang.Preconditions.checkNotNull;
 
 public final class SkeletonJson {
@@ -56,6 +57,10 @@ public final class SkeletonJson {
 
   private float scale = 1.0f;
 
+  private boolean lazyAnimations;
+
+  private int curveResolution;
+
   public SkeletonJson(@Nonnull final  TextureAtlas atlas) {
     attachmentLoader = new AtlasAttachmentLoader(atlas);
   }
@@ -73,6 +78,38 @@ public final class SkeletonJson {
     scale = value;
   }
 
+  public int curveResolution() {
+    return curveResolution;
+  }
+
+  /**
+   * Sets the resolution of precomputed bezier tables
+   *
+   * @param value The number of samples per bezier keyframe; 0 to evaluate curves segment by segment
+   * @see Animation.CurveTimeline#curveResolution(int)
+   */
+  public void curveResolution(final int value) {
+    checkArgument(value >= 0, "value must be >= 0");
+    curveResolution = value;
+  }
+
+  public boolean lazyAnimations() {
+    return lazyAnimations;
+  }
+
+  /**
+   * Defers decoding of animations until they are used
+   *
+   * <p>When enabled the raw JSON of each animation is kept and its timelines
+   * are decoded on the first call to {@link SkeletonData#findAnimation(String)}
+   * or the first time the animation is applied.
+   *
+   * @see SkeletonData#materializedAnimationCount()
+   */
+  public void lazyAnimations(final boolean value) {
+    lazyAnimations = value;
+  }
+
   @Nonnull
   public SkeletonData readSkeletonData(@Nonnull final JSONObject root) {
     return readSkeletonData(root, null);
@@ -80,6 +117,23 @@ public final class SkeletonJson {
 
   @Nonnull
   public SkeletonData readSkeletonData(@Nonnull final JSONObject root, @Nullable final String name) {
+    final SkeletonData skeletonData = readSkeletonSetup(root, name);
+
+    // Skins.
+    final JSONObject skins = root.optObject("skins");
+    for(final String skinName : skins.keySet()) {
+      publishSkin(skeletonData, readSkin(skinName, skins.optObject(skinName), skeletonData));
+    }
+
+    readEvents(root, skeletonData);
+    readAnimations(root, skeletonData);
+
+    return trimToSize(skeletonData);
+  }
+
+  /** Reads the skeleton header, bones, IK constraints and slots which must be read in order. */
+  @Nonnull
+  SkeletonData readSkeletonSetup(@Nonnull final JSONObject root, @Nullable final String name) {
     final float scale = this.scale;
     final SkeletonData skeletonData = new SkeletonData();
 
@@ -181,37 +235,45 @@ public final class SkeletonJson {
       skeletonData.slots.push(slotData);
     }
 
-    // Skins.
-    final JSONObject skins = root.optObject("skins");
-    for(final String skinName : skins.keySet()) {
-      final JSONObject skinMap = skins.optObject(skinName);
-      final Skin skin = new Skin(skinName);
+    return skeletonData;
+  }
 
-      for(final String slotName : skinMap.keySet()) {
-        final int slotIndex = skeletonData.findSlotIndex(slotName);
-        final JSONObject slotEntry = skinMap.optObject(slotName);
+  /** Reads a skin; the skin only depends on the slots of the given skeleton data. */
+  @Nonnull
+  Skin readSkin(@Nonnull final String skinName,
+                @Nonnull final JSONObject skinMap,
+                @Nonnull final SkeletonData skeletonData) {
+    final Skin skin = new Skin(skinName);
 
-        if(slotIndex == -1) {
-          throw new SpineException("Slot not found: "+slotName);
-        }
+    for(final String slotName : skinMap.keySet()) {
+      final int slotIndex = skeletonData.findSlotIndex(slotName);
+      final JSONObject slotEntry = skinMap.optObject(slotName);
 
-        for(final String attachmentName : slotEntry.keySet()) {
-          final JSONObject entry = slotEntry.optObject(attachmentName);
-          final Attachment attachment = readAttachment(skin, attachmentName, entry);
-          if(attachment != null) {
-            skin.addAttachment(slotIndex, attachmentName, attachment);
-          }
+      if(slotIndex == -1) {
+        throw new SpineException("Slot not found: "+slotName);
+      }
+
+      for(final String attachmentName : slotEntry.keySet()) {
+        final JSONObject entry = slotEntry.optObject(attachmentName);
+        final Attachment attachment = readAttachment(skin, attachmentName, entry);
+        if(attachment != null) {
+          skin.addAttachment(slotIndex, attachmentName, attachment);
         }
       }
+    }
 
-      skeletonData.skins.push(skin);
+    return skin;
+  }
 
-      if("default".equals(skin.name)) {
-        skeletonData.defaultSkin = skin;
-      }
+  static void publishSkin(@Nonnull final SkeletonData skeletonData, @Nonnull final Skin skin) {
+    skeletonData.skins.push(skin);
+
+    if("default".equals(skin.name)) {
+      skeletonData.defaultSkin = skin;
     }
+  }
 
-    // Events.
+  static void readEvents(@Nonnull final JSONObject root, @Nonnull final SkeletonData skeletonData) {
     final JSONObject events = root.optObject("events");
     for(final String eventName : events.keySet()) {
       final JSONObject eventMap = events.optObject(eventName);
@@ -221,13 +283,26 @@ public final class SkeletonJson {
       eventData.stringValue = eventMap.optString("string", null);
       skeletonData.events.push(eventData);
     }
+  }
 
-    // Animations.
+  void readAnimations(@Nonnull final JSONObject root, @Nonnull final SkeletonData skeletonData) {
+    final float scale = this.scale;
+    final int curveResolution = this.curveResolution;
     final JSONObject animations = root.optObject("animations");
     for(final String animationName : animations.keySet()) {
-      readAnimation(animationName, animations.optObject(animationName), skeletonData);
+      final JSONObject animationMap = animations.optObject(animationName);
+
+      if(lazyAnimations) {
+        skeletonData.addAnimation(new Animation(animationName,
+            () -> readAnimation(animationName, animationMap, skeletonData, scale, curveResolution)));
+      } else {
+        skeletonData.addAnimation(readAnimation(animationName, animationMap, skeletonData, scale, curveResolution));
+      }
     }
+  }
 
+  @Nonnull
+  static SkeletonData trimToSize(@Nonnull final SkeletonData skeletonData) {
     skeletonData.bones.trimToSize();
     skeletonData.slots.trimToSize();
     skeletonData.skins.trimToSize();
@@ -388,11 +463,13 @@ public final class SkeletonJson {
     return null;
   }
 
-  private void readAnimation(@Nonnull final String name,
-                             @Nonnull final JSONObject map,
-                             @Nonnull final SkeletonData skeletonData) {
+  @Nonnull
+  static Animation readAnimation(@Nonnull final String name,
+                                 @Nonnull final JSONObject map,
+                                 @Nonnull final SkeletonData skeletonData,
+                                 final float scale,
+                                 final int curveResolution) {
     final Array<Timeline> timelines = new Array<>();
-    final float scale = this.scale;
     float duration = 0;
 
     // Slot timelines.
@@ -414,7 +491,7 @@ public final class SkeletonJson {
           final JSONObject valueMap = colorTimeline.optObject(frameIndex);
           int color = Color.valueOf(checkNotNull(valueMap.getString("color")));
           timeline.setFrame(frameIndex, valueMap.getFloat("time"), color);
-          readCurve(timeline, frameIndex, valueMap);
+          readCurve(timeline, frameIndex, valueMap, curveResolution);
         }
 
         timelines.push(timeline);
@@ -431,6 +508,7 @@ public final class SkeletonJson {
           timeline.setFrame(frameIndex, valueMap.getFloat("time"), valueMap.getString("name"));
         }
 
+        timeline.resolveAttachmentIds(skeletonData);
         timelines.push(timeline);
         duration = Math.max(duration, timeline.frames()[timeline.frameCount() - 1]);
       }
@@ -454,7 +532,7 @@ public final class SkeletonJson {
         for(int frameIndex = 0, frameCount = rotateTimeline.size(); frameIndex < frameCount; ++frameIndex) {
           final JSONObject valueMap = rotateTimeline.optObject(frameIndex);
           timeline.setFrame(frameIndex, valueMap.getFloat("time"), valueMap.getFloat("angle"));
-          readCurve(timeline, frameIndex, valueMap);
+          readCurve(timeline, frameIndex, valueMap, curveResolution);
         }
         timelines.push(timeline);
         duration = Math.max(duration, timeline.frames()[timeline.frameCount() * 2 - 2]);
@@ -465,14 +543,14 @@ public final class SkeletonJson {
         duration =
             readTranslateTimeline(
                 timelines, boneIndex, duration,
-                translateTimeline, new TranslateTimeline(translateTimeline.size()), scale);
+                translateTimeline, new TranslateTimeline(translateTimeline.size()), scale, curveResolution);
       }
 
       final JSONArray scaleTimeline = boneMap.optArray("scale", null);
       if(scaleTimeline != null) {
         duration = readTranslateTimeline(
             timelines, boneIndex, duration,
-            scaleTimeline, new ScaleTimeline(scaleTimeline.size()), 1.0f);
+            scaleTimeline, new ScaleTimeline(scaleTimeline.size()), 1.0f, curveResolution);
       }
 
       final JSONArray flipXTimeline = boneMap.optArray("flipX", null);
@@ -501,7 +579,7 @@ public final class SkeletonJson {
         final JSONObject valueMap = ikMap.optObject(frameIndex);
         timeline.setFrame(frameIndex, valueMap.getFloat("time"), valueMap.optFloat("mix", 1.0f),
             valueMap.getBoolean("bendPositive") ? 1 : -1);
-        readCurve(timeline, frameIndex, valueMap);
+        readCurve(timeline, frameIndex, valueMap, curveResolution);
       }
       timelines.push(timeline);
       duration = Math.max(duration, timeline.frames()[timeline.frameCount() * 3 - 3]);
@@ -579,7 +657,7 @@ public final class SkeletonJson {
             }
 
             timeline.setFrame(frameIndex, value.getFloat("time"), vertices);
-            readCurve(timeline, frameIndex, value);
+            readCurve(timeline, frameIndex, value, curveResolution);
           }
 
           timelines.push(timeline);
@@ -676,12 +754,13 @@ public final class SkeletonJson {
     }
 
     timelines.trimToSize();
-    skeletonData.animations.push(new Animation(name, timelines, duration));
+    return new Animation(name, timelines, duration);
   }
 
   private static void readCurve(@Nonnull final CurveTimeline timeline,
                                 final int frameIndex,
-                                @Nonnull final JSONObject valueMap) {
+                                @Nonnull final JSONObject valueMap,
+                                final int curveResolution) {
     final JSON curve = valueMap.opt("curve");
 
     if(curve.isString() && "stepped".equals(curve.stringValue())) {
@@ -689,6 +768,10 @@ public final class SkeletonJson {
     } else if (curve.isArray()) {
       final JSONArray curveArray = (JSONArray)curve;
 
+      if(timeline.curveResolution() != curveResolution) {
+        timeline.curveResolution(curveResolution);
+      }
+
       timeline.setCurve(
           frameIndex,
           curveArray.getFloat(0), curveArray.getFloat(1),
@@ -701,7 +784,8 @@ public final class SkeletonJson {
                                              final float duration,
                                              @Nonnull final JSONArray timelineData,
                                              @Nonnull final TranslateTimeline timeline,
-                                             final float timelineScale) {
+                                             final float timelineScale,
+                                             final int curveResolution) {
     timeline.boneIndex = boneIndex;
 
     for(int frameIndex = 0, frameCount = timelineData.size(); frameIndex < frameCount; ++frameIndex) {
@@ -709,7 +793,7 @@ public final class SkeletonJson {
       final float x = valueMap.optFloat("x", 0.0f) * timelineScale;
       final float y = valueMap.optFloat("y", 0.0f) * timelineScale;
       timeline.setFrame(frameIndex, valueMap.getFloat("time"), x, y);
-      readCurve(timeline, frameIndex, valueMap);
+      readCurve(timeline, frameIndex, valueMap, curveResolution);
     }
 
     timelines.push(timeline);
@@ -34,30 +34,25 @@
 package defrac.animation.spine;
 
 import defrac.animation.spine.attachments.Attachment;
-import defrac.pool.ObjectPool;
-import defrac.pool.ObjectPools;
 import defrac.util.Array;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 import static defrac.lang.Preconditions.checkArgument;
 
 /** Stores attachments by slot index and attachment name. */
 public final class Skin {
   @Nonnull
-  private static final Key LOOKUP_KEY = new Key();
-
-  @Nonnull
-  private static final ObjectPool<Key> KEY_POOL = ObjectPools.newPool(64, Key::new);
+  private static final SlotTable[] EMPTY = new SlotTable[0];
 
   @Nonnull
   final String name;
 
+  /** Attachment tables indexed by slot; entries may be null. */
   @Nonnull
-  private final Map<Key, Attachment> attachments = new HashMap<>();
+  private SlotTable[] slotTables = EMPTY;
 
   public Skin(@Nonnull final  String name) {
     this.name = name;
@@ -67,40 +62,86 @@ public final class Skin {
                             @Nonnull final String name,
                             @Nonnull final Attachment attachment) {
     checkArgument(slotIndex >= 0, "slotIndex < 0");
-    attachments.put(KEY_POOL.get().set(slotIndex, name), attachment);
+
+    if(slotIndex >= slotTables.length) {
+      slotTables = Arrays.copyOf(slotTables, slotIndex + 1);
+    }
+
+    SlotTable slotTable = slotTables[slotIndex];
+
+    if(slotTable == null) {
+      slotTable = slotTables[slotIndex] = new SlotTable();
+    }
+
+    slotTable.put(name, attachment);
   }
 
   /** @return May be null. */
   @Nullable
   public Attachment getAttachment(final int slotIndex, String name) {
     checkArgument(slotIndex >= 0, "slotIndex < 0");
-    LOOKUP_KEY.set(slotIndex, name);
-    return attachments.get(LOOKUP_KEY);
+
+    final SlotTable[] slotTables = this.slotTables;
+
+    if(slotIndex >= slotTables.length) {
+      return null;
+    }
+
+    final SlotTable slotTable = slotTables[slotIndex];
+
+    return slotTable == null ? null : slotTable.get(name);
   }
 
   public void findNamesForSlot(final int slotIndex, @Nonnull final Array<String> target) {
     checkArgument(slotIndex >= 0, "slotIndex < 0");
 
-    for(final Key key : attachments.keySet()) {
-      if(key.slotIndex == slotIndex) {
-        target.push(key.name);
-      }
+    final SlotTable slotTable = slotTable(slotIndex);
+
+    if(slotTable == null) {
+      return;
+    }
+
+    for(int i = 0, n = slotTable.size; i < n; ++i) {
+      target.push(slotTable.names[i]);
     }
   }
 
   public void findAttachmentsForSlot(final int slotIndex, @Nonnull final Array<Attachment> target) {
     checkArgument(slotIndex >= 0, "slotIndex < 0");
 
-    for(final Map.Entry<Key, Attachment> entry : this.attachments.entrySet()) {
-      if(entry.getKey().slotIndex == slotIndex) {
-        target.push(entry.getValue());
+    final SlotTable slotTable = slotTable(slotIndex);
+
+    if(slotTable == null) {
+      return;
+    }
+
+    for(int i = 0, n = slotTable.size; i < n; ++i) {
+      target.push(slotTable.attachments[i]);
+    }
+  }
+
+  /** Returns the name under which the given attachment is stored for a slot, or null.
+   *
+   * <p>Attachments are compared by identity; the name of an entry may differ from {@link Attachment#name()}. */
+  @Nullable
+  String findAttachmentName(final int slotIndex, @Nonnull final Attachment attachment) {
+    final SlotTable slotTable = slotTable(slotIndex);
+
+    if(slotTable == null) {
+      return null;
+    }
+
+    for(int i = 0, n = slotTable.size; i < n; ++i) {
+      if(slotTable.attachments[i] == attachment) {
+        return slotTable.names[i];
       }
     }
+
+    return null;
   }
 
   public void clear() {
-    KEY_POOL.retAll(attachments.keySet());
-    attachments.clear();
+    slotTables = EMPTY;
   }
 
   @Nonnull
@@ -118,49 +159,152 @@ public final class Skin {
   /** Attach each attachment in this skin if the corresponding attachment in the old skin is currently attached. */
   void attachAll(@Nonnull final Skeleton skeleton,
                  @Nonnull final Skin oldSkin) {
-    for (Map.Entry<Key, Attachment> entry : oldSkin.attachments.entrySet()) {
-      int slotIndex = entry.getKey().slotIndex;
-      Slot slot = skeleton.slots.get(slotIndex);
-      if (slot.attachment == entry.getValue()) {
-        Attachment attachment = getAttachment(slotIndex, entry.getKey().name);
-        if (attachment != null) slot.attachment(attachment);
+    final SlotTable[] oldSlotTables = oldSkin.slotTables;
+
+    for(int slotIndex = 0, slotCount = oldSlotTables.length; slotIndex < slotCount; ++slotIndex) {
+      final SlotTable oldSlotTable = oldSlotTables[slotIndex];
+
+      if(oldSlotTable == null) {
+        continue;
+      }
+
+      final Slot slot = skeleton.slots.get(slotIndex);
+
+      for(int i = 0, n = oldSlotTable.size; i < n; ++i) {
+        if(slot.attachment == oldSlotTable.attachments[i]) {
+          final Attachment attachment = getAttachment(slotIndex, oldSlotTable.names[i]);
+          if(attachment != null) slot.attachment(attachment);
+        }
+      }
+    }
+  }
+
+  /** Invokes the given visitor for each attachment of this skin. */
+  void forEachEntry(@Nonnull final EntryVisitor visitor) {
+    final SlotTable[] slotTables = this.slotTables;
+
+    for(int slotIndex = 0, slotCount = slotTables.length; slotIndex < slotCount; ++slotIndex) {
+      final SlotTable slotTable = slotTables[slotIndex];
+
+      if(slotTable == null) {
+        continue;
+      }
+
+      for(int i = 0, n = slotTable.size; i < n; ++i) {
+        visitor.visit(slotIndex, slotTable.names[i], slotTable.attachments[i]);
       }
     }
   }
 
-  private static final class Key {
-    @Nonnull String name = "";
-    int slotIndex;
-    int hashCode;
+  @Nullable
+  private SlotTable slotTable(final int slotIndex) {
+    return slotIndex < slotTables.length ? slotTables[slotIndex] : null;
+  }
+
+  interface EntryVisitor {
+    void visit(int slotIndex, @Nonnull String name, @Nonnull Attachment attachment);
+  }
+
+  /**
+   * Attachments of a single slot
+   *
+   * <p>Entries are stored in insertion order. An open-addressing table with linear
+   * probing maps the hash of a name to its entry.
+   */
+  private static final class SlotTable {
+    private static final int INITIAL_CAPACITY = 4;
+
+    @Nonnull
+    String[] names = new String[INITIAL_CAPACITY];
+
+    @Nonnull
+    Attachment[] attachments = new Attachment[INITIAL_CAPACITY];
 
     @Nonnull
-    public Key set(final int slotIndex, @Nonnull final String name) {
-      this.slotIndex = slotIndex;
-      this.name = name;
-      hashCode = 31 * (31 + name.hashCode()) + slotIndex;
-      return this;
+    int[] hashes = new int[INITIAL_CAPACITY];
+
+    /** Entry index plus one for each bucket; zero marks an empty bucket. */
+    @Nonnull
+    int[] buckets = new int[INITIAL_CAPACITY << 1];
+
+    int size;
+
+    @Nullable
+    Attachment get(@Nonnull final String name) {
+      final int index = indexOf(name, name.hashCode());
+      return index == -1 ? null : attachments[index];
     }
 
-    @Override
-    public int hashCode () {
-      return hashCode;
+    void put(@Nonnull final String name, @Nonnull final Attachment attachment) {
+      final int hash = name.hashCode();
+      final int index = indexOf(name, hash);
+
+      if(index != -1) {
+        attachments[index] = attachment;
+        return;
+      }
+
+      if(size == names.length) {
+        final int capacity = size << 1;
+        names = Arrays.copyOf(names, capacity);
+        attachments = Arrays.copyOf(attachments, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        rehash(capacity << 1);
+      }
+
+      names[size] = name;
+      attachments[size] = attachment;
+      hashes[size] = hash;
+      insert(hash, size);
+
+      ++size;
+    }
+
+    private int indexOf(@Nonnull final String name, final int hash) {
+      final int[] buckets = this.buckets;
+      final int mask = buckets.length - 1;
+
+      for(int bucket = mix(hash) & mask; ; bucket = (bucket + 1) & mask) {
+        final int entry = buckets[bucket] - 1;
+
+        if(entry == -1) {
+          return -1;
+        }
+
+        if(hashes[entry] == hash) {
+          final String entryName = names[entry];
+
+          if(entryName == name || entryName.equals(name)) {
+            return entry;
+          }
+        }
+      }
     }
 
-    @Override
-    public boolean equals(Object object) {
-      if(!(object instanceof Key)) {
-        return false;
+    private void insert(final int hash, final int entry) {
+      final int[] buckets = this.buckets;
+      final int mask = buckets.length - 1;
+
+      int bucket = mix(hash) & mask;
+
+      while(buckets[bucket] != 0) {
+        bucket = (bucket + 1) & mask;
       }
 
-      final Key other = (Key)object;
+      buckets[bucket] = entry + 1;
+    }
+
+    private void rehash(final int bucketCount) {
+      buckets = new int[bucketCount];
 
-      return slotIndex == other.slotIndex
-          && name.equals(other.name);
+      for(int i = 0; i < size; ++i) {
+        insert(hashes[i], i);
+      }
     }
 
-    @Override
-    public String toString () {
-      return slotIndex+":"+name;
+    private static int mix(final int hash) {
+      final int h = hash * 0x9e3779b9;
+      return h ^ (h >>> 16);
     }
   }
 }
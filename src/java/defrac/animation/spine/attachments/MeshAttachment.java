@@ -132,6 +132,23 @@ public final class MeshAttachment extends Attachment {
                                    final int worldVertexOffset,
                                    final int worldColorOffset,
                                    final int worldIndexOffset) {
+    computeWorldVertices(skeletonX, skeletonY, slot, pixelRatio, worldVertices, worldColors, worldVertexOffset, worldColorOffset);
+    computeWorldTopology(worldUVs, worldIndices, worldVertexOffset, worldIndexOffset);
+  }
+
+  /**
+   * Computes the vertices and colors of the attachment without its uvs and indices
+   *
+   * @see #computeWorldTopology(float[], short[], int, int)
+   */
+  public void computeWorldVertices(final float skeletonX,
+                                   final float skeletonY,
+                                   @Nonnull final Slot slot,
+                                   float pixelRatio,
+                                   @Nonnull final float[] worldVertices,
+                                   @Nonnull final float[] worldColors,
+                                   final int worldVertexOffset,
+                                   final int worldColorOffset) {
     final Bone bone = slot.bone();
 
     final float x = skeletonX + bone.worldX();
@@ -164,15 +181,24 @@ public final class MeshAttachment extends Attachment {
       worldVertices[worldVertexIndex    ] = (vx * m00 + vy * m01 + x) * pixelRatio;
       worldVertices[worldVertexIndex + 1] = (vx * m10 + vy * m11 + y) * pixelRatio;
 
-      worldUVs[worldVertexIndex    ] = uvs[vertexIndex    ];
-      worldUVs[worldVertexIndex + 1] = uvs[vertexIndex + 1];
-
       worldColors[worldColorIndex    ] = r;
       worldColors[worldColorIndex + 1] = g;
       worldColors[worldColorIndex + 2] = b;
       worldColors[worldColorIndex + 3] = a;
     }
+  }
 
+  /**
+   * Writes the uvs and triangle indices of the attachment
+   *
+   * <p>They only change with the {@link #region() region} of the attachment or if
+   * {@link #updateUVs()} is called.
+   */
+  public void computeWorldTopology(@Nonnull final float[] worldUVs,
+                                   @Nonnull final short[] worldIndices,
+                                   final int worldVertexOffset,
+                                   final int worldIndexOffset) {
+    System.arraycopy(uvs, 0, worldUVs, worldVertexOffset, uvs.length);
     System.arraycopy(triangles, 0, worldIndices, worldIndexOffset, triangles.length);
   }
 
@@ -222,6 +222,23 @@ public class RegionAttachment extends Attachment {
                                    final int worldVertexOffset,
                                    final int worldColorOffset,
                                    final int worldIndexOffset) {
+    computeWorldVertices(skeletonX, skeletonY, slot, pixelRatio, worldVertices, worldColors, worldVertexOffset, worldColorOffset);
+    computeWorldTopology(worldUVs, worldIndices, worldVertexOffset, worldIndexOffset);
+  }
+
+  /**
+   * Computes the vertices and colors of the attachment without its uvs and indices
+   *
+   * @see #computeWorldTopology(float[], short[], int, int)
+   */
+  public void computeWorldVertices(final float skeletonX,
+                                   final float skeletonY,
+                                   @Nonnull final Slot slot,
+                                   float pixelRatio,
+                                   @Nonnull final float[] worldVertices,
+                                   @Nonnull final float[] worldColors,
+                                   final int worldVertexOffset,
+                                   final int worldColorOffset) {
     checkState(region != null, "Region has not been set");
 
     final Bone bone = slot.bone();
@@ -268,20 +285,6 @@ public class RegionAttachment extends Attachment {
 
     // --
 
-    worldUVs[worldVertexOffset    ] = region.uv00u;
-    worldUVs[worldVertexOffset + 1] = region.uv00v;
-
-    worldUVs[worldVertexOffset + 2] = region.uv10u;
-    worldUVs[worldVertexOffset + 3] = region.uv10v;
-
-    worldUVs[worldVertexOffset + 4] = region.uv11u;
-    worldUVs[worldVertexOffset + 5] = region.uv11v;
-
-    worldUVs[worldVertexOffset + 6] = region.uv01u;
-    worldUVs[worldVertexOffset + 7] = region.uv01v;
-
-    // --
-
     final float r = this.r;
     final float g = this.g;
     final float b = this.b;
@@ -293,6 +296,30 @@ public class RegionAttachment extends Attachment {
       worldColors[j + 2] = b;
       worldColors[j + 3] = a;
     }
+  }
+
+  /**
+   * Writes the uvs and triangle indices of the attachment
+   *
+   * <p>They only change with the {@link #region() region} of the attachment.
+   */
+  public void computeWorldTopology(@Nonnull final float[] worldUVs,
+                                   @Nonnull final short[] worldIndices,
+                                   final int worldVertexOffset,
+                                   final int worldIndexOffset) {
+    checkState(region != null, "Region has not been set");
+
+    worldUVs[worldVertexOffset    ] = region.uv00u;
+    worldUVs[worldVertexOffset + 1] = region.uv00v;
+
+    worldUVs[worldVertexOffset + 2] = region.uv10u;
+    worldUVs[worldVertexOffset + 3] = region.uv10v;
+
+    worldUVs[worldVertexOffset + 4] = region.uv11u;
+    worldUVs[worldVertexOffset + 5] = region.uv11v;
+
+    worldUVs[worldVertexOffset + 6] = region.uv01u;
+    worldUVs[worldVertexOffset + 7] = region.uv01v;
 
     // --
 
@@ -58,12 +58,9 @@ public final class RegionSequenceAttachment extends RegionAttachment {
                                    final float skeletonY,
                                    @Nonnull final Slot slot,
                                    float pixelRatio, @Nonnull final float[] worldVertices,
-                                   @Nonnull final float[] worldUVs,
                                    @Nonnull final float[] worldColors,
-                                   @Nonnull final short[] worldIndices,
                                    final int worldVertexOffset,
-                                   final int worldColorOffset,
-                                   final int worldIndexOffset) {
+                                   final int worldColorOffset) {
     checkState(regions != null, "Regions have not been set");
 
     int frameIndex = (int)(slot.attachmentTime() / frameTime);
@@ -98,12 +95,9 @@ public final class RegionSequenceAttachment extends RegionAttachment {
         slot,
         pixelRatio,
         worldVertices,
-        worldUVs,
         worldColors,
-        worldIndices,
         worldVertexOffset,
-        worldColorOffset,
-        worldIndexOffset);
+        worldColorOffset);
   }
 
   @Nonnull
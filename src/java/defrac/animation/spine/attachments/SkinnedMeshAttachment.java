@@ -33,7 +33,6 @@
 
 package defrac.animation.spine.attachments;
 
-import defrac.animation.spine.Bone;
 import defrac.animation.spine.Skeleton;
 import defrac.animation.spine.Slot;
 import defrac.display.Texture;
@@ -146,8 +145,25 @@ public final class SkinnedMeshAttachment extends Attachment {
                                    final int worldVertexOffset,
                                    final int worldColorOffset,
                                    final int worldIndexOffset) {
+    computeWorldVertices(skeletonX, skeletonY, slot, pixelRatio, worldVertices, worldColors, worldVertexOffset, worldColorOffset);
+    computeWorldTopology(worldUVs, worldIndices, worldVertexOffset, worldIndexOffset);
+  }
+
+  /**
+   * Computes the vertices and colors of the attachment without its uvs and indices
+   *
+   * @see #computeWorldTopology(float[], short[], int, int)
+   */
+  public void computeWorldVertices(final float skeletonX,
+                                   final float skeletonY,
+                                   @Nonnull final Slot slot,
+                                   float pixelRatio,
+                                   @Nonnull final float[] worldVertices,
+                                   @Nonnull final float[] worldColors,
+                                   final int worldVertexOffset,
+                                   final int worldColorOffset) {
     final Skeleton skeleton = slot.skeleton();
-    final Object[] skeletonBones = skeleton.bones().elements();
+    final float[] world = skeleton.boneWorldTransforms();
     final float[] weights = this.weights;
     final int[] bones = this.bones;
 
@@ -171,12 +187,12 @@ public final class SkinnedMeshAttachment extends Attachment {
         float wy = 0.0f;
 
         for(; boneIndex < nn; boneIndex++, weightIndex += 3) {
-          final Bone bone = (Bone)skeletonBones[bones[boneIndex]];
+          final int w = bones[boneIndex] * Skeleton.WORLD_STRIDE;
           final float vx = weights[weightIndex    ];
           final float vy = weights[weightIndex + 1];
           final float weight = weights[weightIndex + 2];
-          wx += (vx * bone.m00() + vy * bone.m01() + bone.worldX()) * weight;
-          wy += (vx * bone.m10() + vy * bone.m11() + bone.worldY()) * weight;
+          wx += (vx * world[w + Skeleton.WORLD_M00] + vy * world[w + Skeleton.WORLD_M01] + world[w + Skeleton.WORLD_X]) * weight;
+          wy += (vx * world[w + Skeleton.WORLD_M10] + vy * world[w + Skeleton.WORLD_M11] + world[w + Skeleton.WORLD_Y]) * weight;
         }
 
         worldVertices[worldVertexIndex    ] = (wx + skeletonX) * pixelRatio;
@@ -199,12 +215,12 @@ public final class SkinnedMeshAttachment extends Attachment {
         final int nn = bones[boneIndex++] + boneIndex;
 
         for(; boneIndex < nn; boneIndex++, weightIndex += 3, ffdIndex += 2) {
-          final Bone bone = (Bone)skeletonBones[bones[boneIndex]];
+          final int w = bones[boneIndex] * Skeleton.WORLD_STRIDE;
           final float vx = weights[weightIndex    ] + ffd[ffdIndex    ];
           final float vy = weights[weightIndex + 1] + ffd[ffdIndex + 1];
           final float weight = weights[weightIndex + 2];
-          wx += (vx * bone.m00() + vy * bone.m01() + bone.worldX()) * weight;
-          wy += (vx * bone.m10() + vy * bone.m11() + bone.worldY()) * weight;
+          wx += (vx * world[w + Skeleton.WORLD_M00] + vy * world[w + Skeleton.WORLD_M01] + world[w + Skeleton.WORLD_X]) * weight;
+          wy += (vx * world[w + Skeleton.WORLD_M10] + vy * world[w + Skeleton.WORLD_M11] + world[w + Skeleton.WORLD_Y]) * weight;
         }
 
         worldVertices[worldVertexIndex    ] = (wx + skeletonX) * pixelRatio;
@@ -216,7 +232,18 @@ public final class SkinnedMeshAttachment extends Attachment {
         worldColors[worldColorIndex + 3] = colorAlpha;
       }
     }
+  }
 
+  /**
+   * Writes the uvs and triangle indices of the attachment
+   *
+   * <p>They only change with the {@link #region() region} of the attachment or if
+   * {@link #updateUVs()} is called.
+   */
+  public void computeWorldTopology(@Nonnull final float[] worldUVs,
+                                   @Nonnull final short[] worldIndices,
+                                   final int worldVertexOffset,
+                                   final int worldIndexOffset) {
     System.arraycopy(uvs, 0, worldUVs, worldVertexOffset, uvs.length);
     System.arraycopy(triangles, 0, worldIndices, worldIndexOffset, triangles.length);
   }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.display;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The PackedColors class converts vertex colors between float and packed ARGB streams
+ *
+ * <p>A float stream holds four values (red, green, blue and alpha) per vertex, as expected
+ * by {@link defrac.display.render.Renderer#drawTexture}. A packed stream holds a single
+ * {@code 0xAARRGGBB} value per vertex with 8 bits per channel. Packed streams are written
+ * with one store per vertex and are expanded right before they are handed to a renderer.
+ */
+public final class PackedColors {
+  /** Packs a color with components between {@code 0} and {@code 1} into a single ARGB value */
+  public static int pack(final float r, final float g, final float b, final float a) {
+    return (channel(a) << 24) | (channel(r) << 16) | (channel(g) << 8) | channel(b);
+  }
+
+  /**
+   * Packs a float color stream
+   *
+   * @param colors The float stream, four values per vertex
+   * @param colorOffset The offset of the first value in {@code colors}
+   * @param packedColors The packed stream, one value per vertex
+   * @param packedOffset The offset of the first value in {@code packedColors}
+   * @param count The number of vertices to convert
+   */
+  public static void pack(@Nonnull final float[] colors, final int colorOffset,
+                          @Nonnull final int[] packedColors, final int packedOffset,
+                          final int count) {
+    for(int i = 0, j = colorOffset; i < count; ++i, j += 4) {
+      packedColors[packedOffset + i] = pack(colors[j], colors[j + 1], colors[j + 2], colors[j + 3]);
+    }
+  }
+
+  /**
+   * Expands a packed color stream into a float stream
+   *
+   * <p>Consecutive vertices usually share their color, so a value is only
+   * converted when it differs from the one of the previous vertex.
+   *
+   * @param packedColors The packed stream, one value per vertex
+   * @param packedOffset The offset of the first value in {@code packedColors}
+   * @param colors The float stream, four values per vertex
+   * @param colorOffset The offset of the first value in {@code colors}
+   * @param count The number of vertices to convert
+   */
+  public static void unpack(@Nonnull final int[] packedColors, final int packedOffset,
+                            @Nonnull final float[] colors, final int colorOffset,
+                            final int count) {
+    int last = 0;
+    float r = 0.0f, g = 0.0f, b = 0.0f, a = 0.0f;
+
+    for(int i = 0, j = colorOffset; i < count; ++i, j += 4) {
+      final int argb = packedColors[packedOffset + i];
+
+      if(i == 0 || argb != last) {
+        last = argb;
+        a = ((argb >>> 24)        ) * (1.0f / 255.0f);
+        r = ((argb >>> 16) & 0xff) * (1.0f / 255.0f);
+        g = ((argb >>>  8) & 0xff) * (1.0f / 255.0f);
+        b = ((argb       ) & 0xff) * (1.0f / 255.0f);
+      }
+
+      colors[j    ] = r;
+      colors[j + 1] = g;
+      colors[j + 2] = b;
+      colors[j + 3] = a;
+    }
+  }
+
+  private static int channel(final float value) {
+    if(value <= 0.0f) {
+      return 0;
+    }
+
+    if(value >= 1.0f) {
+      return 0xff;
+    }
+
+    return (int)(value * 255.0f + 0.5f);
+  }
+
+  private PackedColors() {}
+}
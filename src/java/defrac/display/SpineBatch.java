@@ -0,0 +1,426 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.display;
+
+import defrac.display.render.RenderContent;
+import defrac.display.render.Renderer;
+import defrac.gl.GLMatrix;
+import defrac.util.Array;
+import defrac.util.ArrayUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static defrac.display.DisplayObjectFlags.RENDERLIST_DIRTY;
+import static defrac.display.DisplayObjectFlags.RENDERLIST_MATRIX_DIRTY;
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * The SpineBatch class draws many SpineSkeleton objects with as few draw calls as possible
+ *
+ * <p>The vertices of all members are copied into one shared set of vertex arrays.
+ * Consecutive attachments of all members with the same texture, blend mode and alpha
+ * are drawn at once, so members sharing atlas pages are usually drawn with a single
+ * call. Members are drawn in the order they have been added.
+ *
+ * <p>Members are not part of the display list. They are drawn in the coordinate space
+ * of the batch and positioned using the {@link SpineSkeleton#skeleton() skeleton}; their
+ * own transform is ignored, while their visibility, alpha and blend mode are respected.
+ * Members are updated like any other SpineSkeleton, for instance with an
+ * {@link SpineSkeleton#animatable(defrac.animation.spine.AnimationState) animatable}.
+ * Changes of their visibility, alpha or blend mode take effect with their next update.
+ */
+public final class SpineBatch extends DisplayObject {
+  @Nonnull
+  private final Array<SpineSkeleton> members = new Array<>();
+
+  @Nonnull
+  private final SpineBatcher batcher = new SpineBatcher();
+
+  @Nonnull
+  private float[] vertices = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  @Nonnull
+  private float[] uvs = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  @Nonnull
+  private float[] colors = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  @Nonnull
+  private short[] indices = ArrayUtil.EMPTY_SHORT_ARRAY;
+
+  /** Layout of the vertex arrays: offsets and counts of the vertices and indices of each member */
+  @Nonnull
+  private int[] memberVertexOffsets = ArrayUtil.EMPTY_INT_ARRAY, memberVertexCounts = ArrayUtil.EMPTY_INT_ARRAY;
+
+  @Nonnull
+  private int[] memberIndexOffsets = ArrayUtil.EMPTY_INT_ARRAY, memberTriangleCounts = ArrayUtil.EMPTY_INT_ARRAY;
+
+  @Nonnull
+  private int[] memberTopologyStamps = ArrayUtil.EMPTY_INT_ARRAY;
+
+  @Nonnull
+  private boolean[] memberVisible = new boolean[0];
+
+  /** Bounds of the vertices of each member: minX, minY, maxX and maxY */
+  @Nonnull
+  private float[] memberBounds = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  /** Alpha, blend mode and culling of each member the render content has been created with */
+  @Nonnull
+  private float[] memberAlphas = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  @Nonnull
+  private BlendMode[] memberBlendModes = new BlendMode[0];
+
+  @Nonnull
+  private boolean[] memberCulled = new boolean[0];
+
+  /** Whether the layout has to be rebuilt by the next render */
+  private boolean layoutDirty = true;
+
+  @Nullable
+  private RenderContent content;
+
+  private float minX, minY, maxX, maxY;
+
+  private boolean batching = true;
+
+  private int batchCount, batchedAttachmentCount;
+
+  /**
+   * Adds a skeleton to the batch
+   *
+   * @param member The skeleton to draw; must not be on the stage or in another batch
+   * @return The current object
+   */
+  @Nonnull
+  public SpineBatch add(@Nonnull final SpineSkeleton member) {
+    checkArgument(member.batch == null, "Skeleton already belongs to a batch");
+    checkArgument(!member.isAttachedToStage(), "Skeleton must not be on the stage");
+
+    member.batch = this;
+    member.batchIndex = members.size();
+    members.push(member);
+
+    // The pixel ratio of the member is now the one of the batch
+    member.invalidateVertices();
+    member.renderSkeleton();
+
+    layoutChanged();
+
+    return this;
+  }
+
+  /**
+   * Removes a skeleton from the batch
+   *
+   * @param member The skeleton to remove
+   * @return The current object
+   */
+  @Nonnull
+  public SpineBatch remove(@Nonnull final SpineSkeleton member) {
+    checkArgument(member.batch == this, "Skeleton does not belong to this batch");
+
+    members.remove(member.batchIndex);
+    member.batch = null;
+    member.invalidateVertices();
+
+    for(int i = 0, n = members.size(); i < n; ++i) {
+      members.get(i).batchIndex = i;
+    }
+
+    layoutChanged();
+
+    return this;
+  }
+
+  /** The skeletons drawn by this batch in draw order; must not be modified */
+  @Nonnull
+  public Array<SpineSkeleton> members() {
+    return members;
+  }
+
+  /** Whether or not consecutive attachments with the same texture and blend mode are drawn at once */
+  public boolean batching() {
+    return batching;
+  }
+
+  /**
+   * Sets whether or not consecutive attachments with the same texture and blend mode are drawn at once
+   *
+   * @param value {@literal true} to merge draw calls; {@literal false} to draw each attachment on its own
+   * @return The current object
+   */
+  @Nonnull
+  public SpineBatch batching(final boolean value) {
+    if(value != batching) {
+      batching = value;
+      invalidate(RENDERLIST_DIRTY);
+    }
+
+    return this;
+  }
+
+  /** The number of draw calls issued by the last render */
+  public int batchCount() {
+    return batchCount;
+  }
+
+  /** The number of attachments drawn by the last render */
+  public int batchedAttachmentCount() {
+    return batchedAttachmentCount;
+  }
+
+  /**
+   * Callback when the vertices of a member changed
+   *
+   * <p>If the uvs, indices and draw calls of the member are unchanged and it is drawn
+   * with the same alpha and blend mode, its vertices and colors are copied into the shared
+   * vertex arrays and the render content is reused.
+   */
+  void memberChanged(@Nonnull final SpineSkeleton member) {
+    if(layoutDirty) {
+      return;
+    }
+
+    final int index = member.batchIndex;
+    final boolean visible = member.visible();
+
+    if(!visible && !memberVisible[index]) {
+      return;
+    }
+
+    final int vertexCount = member.displayedVertexCount();
+
+    if(    visible != memberVisible[index]
+        || member.topologyStamp() != memberTopologyStamps[index]
+        || vertexCount != memberVertexCounts[index]
+        || content == null
+        || memberCulled[index]
+        || member.alpha != memberAlphas[index]
+        || member.blendMode() != memberBlendModes[index]) {
+      // The draw calls of the render content do not match the member anymore
+      layoutChanged();
+      return;
+    }
+
+    final int vertexOffset = memberVertexOffsets[index];
+    final int boundsOffset = index << 2;
+    final float[] memberBounds = this.memberBounds;
+
+    // The bounds of the batch can only shrink if the member defined one of its edges
+    final boolean shrink =
+           memberBounds[boundsOffset    ] == minX
+        || memberBounds[boundsOffset + 1] == minY
+        || memberBounds[boundsOffset + 2] == maxX
+        || memberBounds[boundsOffset + 3] == maxY;
+
+    copyVertices(member.vertexArray(), vertexOffset, vertexCount, index);
+    System.arraycopy(member.colorArray(), 0, colors, vertexOffset * 2, vertexCount * 2);
+
+    if(shrink) {
+      updateBounds();
+    } else {
+      includeBounds(index);
+    }
+
+    initAABB(minX, minY, maxX - minX, maxY - minY);
+    invalidate(RENDERLIST_MATRIX_DIRTY);
+  }
+
+  private void layoutChanged() {
+    layoutDirty = true;
+    invalidate(RENDERLIST_DIRTY);
+  }
+
+  /** Copies the vertices of all visible members into the shared vertex arrays */
+  private void updateLayout() {
+    final Array<SpineSkeleton> members = this.members;
+    final int memberCount = members.size();
+
+    if(memberVisible.length < memberCount) {
+      memberVertexOffsets = new int[memberCount];
+      memberVertexCounts = new int[memberCount];
+      memberIndexOffsets = new int[memberCount];
+      memberTriangleCounts = new int[memberCount];
+      memberTopologyStamps = new int[memberCount];
+      memberVisible = new boolean[memberCount];
+      memberBounds = new float[memberCount << 2];
+      memberAlphas = new float[memberCount];
+      memberBlendModes = new BlendMode[memberCount];
+      memberCulled = new boolean[memberCount];
+    }
+
+    int vertexCountOfAllMembers = 0;
+    int triangleCountOfAllMembers = 0;
+
+    for(int i = 0; i < memberCount; ++i) {
+      final SpineSkeleton member = members.get(i);
+      final boolean visible = member.visible();
+      final int vertexCount = visible ? member.displayedVertexCount() : 0;
+      final int triangleCount = visible ? member.displayedTriangleCount() : 0;
+
+      memberVisible[i] = visible;
+      memberTopologyStamps[i] = member.topologyStamp();
+      memberVertexOffsets[i] = vertexCountOfAllMembers;
+      memberVertexCounts[i] = vertexCount;
+      memberIndexOffsets[i] = triangleCountOfAllMembers;
+      memberTriangleCounts[i] = triangleCount;
+
+      vertexCountOfAllMembers += vertexCount;
+      triangleCountOfAllMembers += triangleCount;
+    }
+
+    if(vertexCountOfAllMembers > vertices.length) {
+      vertices = new float[vertexCountOfAllMembers];
+      uvs = new float[vertexCountOfAllMembers];
+      colors = new float[vertexCountOfAllMembers * 2];
+    }
+
+    if(triangleCountOfAllMembers > indices.length) {
+      indices = new short[triangleCountOfAllMembers];
+    }
+
+    for(int i = 0; i < memberCount; ++i) {
+      final SpineSkeleton member = members.get(i);
+      final int vertexOffset = memberVertexOffsets[i];
+      final int vertexCount = memberVertexCounts[i];
+
+      copyVertices(member.vertexArray(), vertexOffset, vertexCount, i);
+      System.arraycopy(member.uvArray(), 0, uvs, vertexOffset, vertexCount);
+      System.arraycopy(member.colorArray(), 0, colors, vertexOffset * 2, vertexCount * 2);
+      System.arraycopy(member.indexArray(), 0, indices, memberIndexOffsets[i], memberTriangleCounts[i]);
+    }
+
+    updateBounds();
+    initAABB(minX, minY, maxX - minX, maxY - minY);
+
+    layoutDirty = false;
+  }
+
+  /** Copies the vertices of a member and computes its bounds */
+  private void copyVertices(@Nonnull final float[] source, final int vertexOffset, final int vertexCount,
+                            final int memberIndex) {
+    final float[] vertices = this.vertices;
+
+    float
+        minX = Integer.MAX_VALUE,
+        minY = Integer.MAX_VALUE,
+        maxX = Integer.MIN_VALUE,
+        maxY = Integer.MIN_VALUE;
+
+    for(int i = 0; i < vertexCount; i += 2) {
+      final float x = source[i    ];
+      final float y = source[i + 1];
+
+      vertices[vertexOffset + i    ] = x;
+      vertices[vertexOffset + i + 1] = y;
+
+      if(x < minX) { minX = x; }
+      if(x > maxX) { maxX = x; }
+      if(y < minY) { minY = y; }
+      if(y > maxY) { maxY = y; }
+    }
+
+    final int boundsOffset = memberIndex << 2;
+
+    memberBounds[boundsOffset    ] = minX;
+    memberBounds[boundsOffset + 1] = minY;
+    memberBounds[boundsOffset + 2] = maxX;
+    memberBounds[boundsOffset + 3] = maxY;
+  }
+
+  /** Computes the bounds of the batch from the bounds of its members */
+  private void updateBounds() {
+    minX = Integer.MAX_VALUE;
+    minY = Integer.MAX_VALUE;
+    maxX = Integer.MIN_VALUE;
+    maxY = Integer.MIN_VALUE;
+
+    for(int i = 0, n = members.size(); i < n; ++i) {
+      includeBounds(i);
+    }
+  }
+
+  /** Grows the bounds of the batch to include the bounds of a member */
+  private void includeBounds(final int memberIndex) {
+    final int boundsOffset = memberIndex << 2;
+    final float[] memberBounds = this.memberBounds;
+
+    if(memberBounds[boundsOffset    ] < minX) { minX = memberBounds[boundsOffset    ]; }
+    if(memberBounds[boundsOffset + 1] < minY) { minY = memberBounds[boundsOffset + 1]; }
+    if(memberBounds[boundsOffset + 2] > maxX) { maxX = memberBounds[boundsOffset + 2]; }
+    if(memberBounds[boundsOffset + 3] > maxY) { maxY = memberBounds[boundsOffset + 3]; }
+  }
+
+  /** {@inheritDoc} */
+  @Nullable
+  @Override
+  public RenderContent render(@Nonnull final GLMatrix projectionMatrix,
+                              @Nonnull final GLMatrix modelViewMatrix,
+                              @Nonnull final Renderer renderer,
+                              @Nonnull final BlendMode parentBlendMode,
+                              final float parentAlpha,
+                              final float pixelRatio) {
+    if(layoutDirty) {
+      updateLayout();
+    }
+
+    final SpineBatcher batcher = this.batcher;
+    final BlendMode displayObjectBlendMode = blendMode().inherit(parentBlendMode);
+    final float alpha = parentAlpha * this.alpha;
+    final Array<SpineSkeleton> members = this.members;
+
+    batcher.begin(projectionMatrix, modelViewMatrix, renderer, vertices, uvs, colors, indices, batching);
+
+    for(int i = 0, n = members.size(); i < n; ++i) {
+      final SpineSkeleton member = members.get(i);
+
+      if(!memberVisible[i]) {
+        continue;
+      }
+
+      final boolean culled = member.culled();
+
+      memberAlphas[i] = member.alpha;
+      memberBlendModes[i] = member.blendMode();
+      memberCulled[i] = culled;
+
+      if(culled) {
+        // Culled members are off-screen, so their draw calls are not submitted
+        batcher.skip(memberVertexCounts[i], memberTriangleCounts[i]);
+        continue;
+      }
+
+      member.draw(batcher, member.blendMode().inherit(displayObjectBlendMode), alpha * member.alpha);
+    }
+
+    content = batcher.end();
+    batchCount = batcher.batchCount();
+    batchedAttachmentCount = batcher.attachmentCount();
+
+    return content;
+  }
+
+  @Override
+  protected void onDetachFromStage() {
+    super.onDetachFromStage();
+    content = null;
+    layoutDirty = true;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.display;
+
+import defrac.display.render.RenderContent;
+import defrac.display.render.Renderer;
+import defrac.gl.GLMatrix;
+import defrac.util.Array;
+import defrac.util.ArrayUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Merges consecutive draws of Spine attachments into as few draw calls as possible
+ *
+ * <p>Attachments are added in draw order at increasing offsets of the vertex arrays.
+ * Consecutive attachments with the same texture, blend mode and alpha are drawn with
+ * a single call. The indices of each attachment start at zero, so they are rebased to
+ * the first vertex of their draw call in a separate index array.
+ */
+final class SpineBatcher {
+  /** Maximum number of vertices of a draw call, so its indices fit into a short */
+  private static final int MAX_BATCH_VERTEX_COUNT = Short.MAX_VALUE + 1;
+
+  @Nonnull
+  private final Array<RenderContent> contents = new Array<>();
+
+  /** Indices rebased to the first vertex of their draw call */
+  @Nonnull
+  private short[] batchIndices = ArrayUtil.EMPTY_SHORT_ARRAY;
+
+  @Nullable
+  private GLMatrix projectionMatrix, modelViewMatrix;
+
+  @Nullable
+  private Renderer renderer;
+
+  @Nonnull
+  private float[] vertices = ArrayUtil.EMPTY_FLOAT_ARRAY, uvs = ArrayUtil.EMPTY_FLOAT_ARRAY, colors = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  @Nonnull
+  private short[] indices = ArrayUtil.EMPTY_SHORT_ARRAY;
+
+  private boolean batching;
+
+  private int vertexOffset, colorOffset, indexOffset;
+
+  /** Draw call being accumulated; null if there is none */
+  @Nullable
+  private TextureData batchTexture;
+
+  @Nullable
+  private BlendMode batchBlendMode;
+
+  private float batchAlpha;
+
+  private int batchVertexOffset, batchColorOffset, batchIndexOffset;
+  private int batchVertexCount, batchTriangleCount;
+
+  private int batchCount, attachmentCount;
+
+  /**
+   * Starts drawing the given vertex arrays from their first vertex
+   *
+   * @param batching {@literal false} to issue one draw call per attachment
+   */
+  void begin(@Nonnull final GLMatrix projectionMatrix,
+             @Nonnull final GLMatrix modelViewMatrix,
+             @Nonnull final Renderer renderer,
+             @Nonnull final float[] vertices,
+             @Nonnull final float[] uvs,
+             @Nonnull final float[] colors,
+             @Nonnull final short[] indices,
+             final boolean batching) {
+    this.projectionMatrix = projectionMatrix;
+    this.modelViewMatrix = modelViewMatrix;
+    this.renderer = renderer;
+    this.vertices = vertices;
+    this.uvs = uvs;
+    this.colors = colors;
+    this.indices = indices;
+    this.batching = batching;
+
+    vertexOffset = 0;
+    colorOffset = 0;
+    indexOffset = 0;
+    batchCount = 0;
+    attachmentCount = 0;
+
+    if(batchIndices.length < indices.length) {
+      batchIndices = new short[indices.length];
+    }
+  }
+
+  /**
+   * Adds the attachment at the current offsets
+   *
+   * <p>The pending draw call is issued first if the attachment cannot be merged into it.
+   */
+  void add(final float alpha,
+           @Nonnull final BlendMode blendMode,
+           @Nonnull final TextureData textureData,
+           final int vertexCount,
+           final int triangleCount) {
+    if(batchTexture != null
+        && (    !batching
+             || textureData != batchTexture
+             || blendMode != batchBlendMode
+             || alpha != batchAlpha
+             || (batchVertexCount + vertexCount) / 2 > MAX_BATCH_VERTEX_COUNT)) {
+      flush();
+    }
+
+    if(batchTexture == null) {
+      batchTexture = textureData;
+      batchBlendMode = blendMode;
+      batchAlpha = alpha;
+      batchVertexOffset = vertexOffset;
+      batchColorOffset = colorOffset;
+      batchIndexOffset = indexOffset;
+      batchVertexCount = 0;
+      batchTriangleCount = 0;
+    }
+
+    final short[] indices = this.indices;
+    final short[] batchIndices = this.batchIndices;
+    final int base = batchVertexCount / 2;
+
+    for(int i = indexOffset, n = indexOffset + triangleCount; i < n; ++i) {
+      batchIndices[i] = (short)(indices[i] + base);
+    }
+
+    batchVertexCount += vertexCount;
+    batchTriangleCount += triangleCount;
+    ++attachmentCount;
+
+    advance(vertexCount, triangleCount);
+  }
+
+  /** Skips vertices which must not be drawn, like those of an invisible object */
+  void skip(final int vertexCount, final int triangleCount) {
+    flush();
+    advance(vertexCount, triangleCount);
+  }
+
+  /**
+   * Issues the pending draw call and returns the content of all draw calls since {@link #begin}
+   *
+   * <p>References to the renderer and the vertex arrays are released.
+   */
+  @Nonnull
+  RenderContent end() {
+    flush();
+
+    assert renderer != null;
+
+    final RenderContent content = renderer.zone(contents);
+
+    contents.clear();
+    projectionMatrix = null;
+    modelViewMatrix = null;
+    renderer = null;
+    vertices = ArrayUtil.EMPTY_FLOAT_ARRAY;
+    uvs = ArrayUtil.EMPTY_FLOAT_ARRAY;
+    colors = ArrayUtil.EMPTY_FLOAT_ARRAY;
+    indices = ArrayUtil.EMPTY_SHORT_ARRAY;
+
+    return content;
+  }
+
+  /** The number of draw calls issued since {@link #begin} */
+  int batchCount() {
+    return batchCount;
+  }
+
+  /** The number of attachments drawn since {@link #begin} */
+  int attachmentCount() {
+    return attachmentCount;
+  }
+
+  private void advance(final int vertexCount, final int triangleCount) {
+    vertexOffset += vertexCount;
+    colorOffset  += vertexCount * 2;
+    indexOffset  += triangleCount;
+  }
+
+  private void flush() {
+    final TextureData textureData = batchTexture;
+
+    if(textureData == null) {
+      return;
+    }
+
+    assert renderer != null && projectionMatrix != null && modelViewMatrix != null && batchBlendMode != null;
+
+    contents.push(
+        renderer.drawTexture(
+            projectionMatrix, modelViewMatrix,
+            batchAlpha,
+            batchBlendMode,
+            textureData,
+            vertices, batchVertexOffset,
+            uvs, batchVertexOffset,
+            colors, batchColorOffset,
+            batchIndices, batchIndexOffset,
+            batchVertexCount / 2,
+            batchTriangleCount / 3));
+
+    ++batchCount;
+    batchTexture = null;
+    batchBlendMode = null;
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.display;
+
+import defrac.animation.spine.AnimationState;
+import defrac.animation.spine.SkeletonData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * The SpineLod class chooses how often a {@link SpineSkeleton} is posed
+ *
+ * <p>The level of detail of a skeleton depends on the size of its bounds on the stage and,
+ * if a focus point is set, on the distance of their center from the focus point. At level 0
+ * the skeleton is posed every frame, at level 1 every 2nd frame and at level 2 every 4th frame.
+ * Frames in between either hold the last pose or interpolate the vertices of the last two
+ * poses, which delays the animation by one update interval.
+ *
+ * <p>Bones which are not part of the {@link #reducedBones(long[], int) reduced bone set}
+ * are not animated at or above a given level.
+ *
+ * <p>A SpineLod holds no state of the skeletons using it and can be shared by any number
+ * of SpineSkeleton objects, see {@link SpineSkeleton#lod(SpineLod)}.
+ */
+public final class SpineLod {
+  /** The level at which a skeleton is posed every 4th frame */
+  public static final int MAX_LEVEL = 2;
+
+  public static final float DEFAULT_HALF_RATE_SIZE = 128.0f;
+  public static final float DEFAULT_QUARTER_RATE_SIZE = 48.0f;
+
+  private float halfRateSize = DEFAULT_HALF_RATE_SIZE;
+  private float quarterRateSize = DEFAULT_QUARTER_RATE_SIZE;
+
+  private boolean hasFocus;
+  private float focusX, focusY;
+  private float halfRateDistance = Float.POSITIVE_INFINITY;
+  private float quarterRateDistance = Float.POSITIVE_INFINITY;
+
+  private boolean interpolate = true;
+
+  @Nullable
+  private long[] reducedBoneMask;
+
+  private int reducedBoneLevel = MAX_LEVEL;
+
+  /** Returns the number of frames between two poses at the given level */
+  public static int updateInterval(final int level) {
+    checkArgument(level >= 0 && level <= MAX_LEVEL, "level must be between 0 and MAX_LEVEL");
+    return 1 << level;
+  }
+
+  /** The size on the stage below which a skeleton is posed every 2nd frame */
+  public float halfRateSize() {
+    return halfRateSize;
+  }
+
+  /** The size on the stage below which a skeleton is posed every 4th frame */
+  public float quarterRateSize() {
+    return quarterRateSize;
+  }
+
+  /**
+   * Sets the sizes on the stage below which a skeleton is posed less often
+   *
+   * <p>The size of a skeleton is the larger side of its bounds in stage coordinates.
+   *
+   * @param halfRate The size below which the skeleton is posed every 2nd frame
+   * @param quarterRate The size below which the skeleton is posed every 4th frame
+   * @return The current object
+   */
+  @Nonnull
+  public SpineLod sizeThresholds(final float halfRate, final float quarterRate) {
+    checkArgument(quarterRate >= 0.0f, "quarterRate must not be negative");
+    checkArgument(halfRate >= quarterRate, "halfRate must not be less than quarterRate");
+    halfRateSize = halfRate;
+    quarterRateSize = quarterRate;
+    return this;
+  }
+
+  /** Whether or not the distance from a focus point is taken into account */
+  public boolean hasFocus() {
+    return hasFocus;
+  }
+
+  /** The x-coordinate of the focus point on the stage */
+  public float focusX() {
+    return focusX;
+  }
+
+  /** The y-coordinate of the focus point on the stage */
+  public float focusY() {
+    return focusY;
+  }
+
+  /**
+   * Sets the focus point, like the position of the camera or the player
+   *
+   * @param x The x-coordinate of the focus point on the stage
+   * @param y The y-coordinate of the focus point on the stage
+   * @return The current object
+   */
+  @Nonnull
+  public SpineLod focus(final float x, final float y) {
+    hasFocus = true;
+    focusX = x;
+    focusY = y;
+    return this;
+  }
+
+  /** Ignores the distance from the focus point; the level only depends on the size */
+  @Nonnull
+  public SpineLod clearFocus() {
+    hasFocus = false;
+    return this;
+  }
+
+  /** The distance from the focus point above which a skeleton is posed every 2nd frame */
+  public float halfRateDistance() {
+    return halfRateDistance;
+  }
+
+  /** The distance from the focus point above which a skeleton is posed every 4th frame */
+  public float quarterRateDistance() {
+    return quarterRateDistance;
+  }
+
+  /**
+   * Sets the distances from the focus point above which a skeleton is posed less often
+   *
+   * @param halfRate The distance above which the skeleton is posed every 2nd frame
+   * @param quarterRate The distance above which the skeleton is posed every 4th frame
+   * @return The current object
+   */
+  @Nonnull
+  public SpineLod distanceThresholds(final float halfRate, final float quarterRate) {
+    checkArgument(halfRate >= 0.0f, "halfRate must not be negative");
+    checkArgument(quarterRate >= halfRate, "quarterRate must not be less than halfRate");
+    halfRateDistance = halfRate;
+    quarterRateDistance = quarterRate;
+    return this;
+  }
+
+  /** Whether or not the vertices of skipped frames are interpolated; otherwise the last pose is held */
+  public boolean interpolate() {
+    return interpolate;
+  }
+
+  /**
+   * Sets whether or not the vertices of skipped frames are interpolated
+   *
+   * <p>Interpolation requires the vertex count of the last two poses to be the same;
+   * otherwise the last pose is held.
+   *
+   * @param value {@literal true} to interpolate; {@literal false} to hold the last pose
+   * @return The current object
+   */
+  @Nonnull
+  public SpineLod interpolate(final boolean value) {
+    interpolate = value;
+    return this;
+  }
+
+  /** The bones animated at or above the {@link #reducedBoneLevel() reduced bone level}; null if all bones are animated */
+  @Nullable
+  public long[] reducedBoneMask() {
+    return reducedBoneMask;
+  }
+
+  /** The level at and above which only the reduced bone set is animated */
+  public int reducedBoneLevel() {
+    return reducedBoneLevel;
+  }
+
+  /**
+   * Sets the bones which are animated at a low level of detail
+   *
+   * <p>Other bones keep their local transform, so attachments of secondary
+   * bones like fingers or hair follow their parents rigidly.
+   *
+   * @param mask One bit per bone index, see {@link SkeletonData#boneMask(String...)}; null to animate all bones
+   * @param level The level at and above which only the given bones are animated
+   * @return The current object
+   * @see AnimationState#boneMask(long[])
+   */
+  @Nonnull
+  public SpineLod reducedBones(@Nullable final long[] mask, final int level) {
+    checkArgument(level >= 0 && level <= MAX_LEVEL, "level must be between 0 and MAX_LEVEL");
+    reducedBoneMask = mask;
+    reducedBoneLevel = level;
+    return this;
+  }
+
+  /**
+   * Returns the level of detail of a skeleton
+   *
+   * @param size The larger side of the bounds of the skeleton in stage coordinates
+   * @param distance The distance of the center of the bounds from the focus point
+   * @return A level between 0 and {@link #MAX_LEVEL}
+   */
+  public int level(final float size, final float distance) {
+    int level = size < quarterRateSize ? 2 : size < halfRateSize ? 1 : 0;
+
+    if(hasFocus) {
+      level = Math.max(level, distance > quarterRateDistance ? 2 : distance > halfRateDistance ? 1 : 0);
+    }
+
+    return level;
+  }
+}
@@ -31,9 +31,11 @@ import defrac.util.ArrayUtil;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 import static defrac.display.DisplayObjectFlags.RENDERLIST_DIRTY;
 import static defrac.display.DisplayObjectFlags.RENDERLIST_MATRIX_DIRTY;
+import static defrac.lang.Preconditions.checkArgument;
 
 /**
  *
@@ -41,6 +43,9 @@ import static defrac.display.DisplayObjectFlags.RENDERLIST_MATRIX_DIRTY;
 public final class SpineSkeleton extends DisplayObject {
   private static final double MS_TO_SEC = 0.001;
 
+  public static final float DEFAULT_CULL_MARGIN = 32.0f;
+
+
   @Nonnull
   private final Skeleton skeleton;
 
@@ -59,9 +64,6 @@ public final class SpineSkeleton extends DisplayObject {
   @Nonnull
   private short[] indices = ArrayUtil.EMPTY_SHORT_ARRAY;
 
-  @Nonnull
-  private final Array<RenderContent> contents = new Array<>();
-
   @Nullable
   private RenderContent content;
 
@@ -69,11 +71,145 @@ public final class SpineSkeleton extends DisplayObject {
   private int colorOffset = 0;
   private int indexOffset = 0;
 
+  /** Draw calls of the vertex arrays in draw order, laid out by the last {@link #renderSkeleton()} */
+  @Nonnull
+  private TextureData[] layoutTextures = new TextureData[0];
+
+  @Nonnull
+  private BlendMode[] layoutBlendModes = new BlendMode[0];
+
+  @Nonnull
+  private float[] layoutAlphas = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  @Nonnull
+  private int[] layoutVertexCounts = ArrayUtil.EMPTY_INT_ARRAY;
+
+  @Nonnull
+  private int[] layoutTriangleCounts = ArrayUtil.EMPTY_INT_ARRAY;
+
+  private int layoutCount;
+
+  /** AABB of the vertices, accumulated while they are computed */
+  private float layoutMinX, layoutMinY, layoutMaxX, layoutMaxY;
+
   private int lastVertexCount = -1;
   private int lastTriangleCount = -1;
 
   private boolean useSkeletonBounds;
 
+  @Nullable
+  private SpineVertexCache vertexCache;
+
+  @Nullable
+  private PoseCache poseCache;
+
+  /** Inputs of the vertices last computed for each draw call of the skeleton, by draw order position */
+  @Nonnull
+  private Slot[] slotSlots = new Slot[0];
+
+  @Nonnull
+  private Attachment[] slotAttachments = new Attachment[0];
+
+  @Nonnull
+  private int[] slotBoneStamps = ArrayUtil.EMPTY_INT_ARRAY;
+
+  @Nonnull
+  private int[] slotOffsets = ArrayUtil.EMPTY_INT_ARRAY;
+
+  @Nonnull
+  private float[] slotColors = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  /** Whether the vertex arrays still hold the vertices described by the slot inputs */
+  private boolean slotVerticesValid;
+
+  private float slotVerticesX, slotVerticesY, slotVerticesPixelRatio;
+
+  /** Inputs of the uvs and indices last written for each draw call of the skeleton, by draw order position */
+  @Nonnull
+  private Slot[] topologySlots = new Slot[0];
+
+  @Nonnull
+  private Attachment[] topologyAttachments = new Attachment[0];
+
+  @Nonnull
+  private Texture[] topologyRegions = new Texture[0];
+
+  @Nonnull
+  private int[] topologyOffsets = ArrayUtil.EMPTY_INT_ARRAY;
+
+  private int topologyDrawCount = -1;
+
+  private float topologyAlpha;
+
+  /** Whether the uvs, indices or draw calls changed since the last {@link #renderSkeleton()} */
+  private boolean topologyChanged;
+
+  /** Changes whenever the uvs, indices or draw calls of the displayed vertices change */
+  private int topologyStamp;
+
+  /** Topology of the cached frame on display; null if the skeleton is rendered live */
+  @Nullable
+  private SpineVertexCache.Topology displayedTopology;
+
+  /** Alpha of the skeleton when the cached frame on display has been copied */
+  private float displayedAlpha;
+
+  /** Topology whose uvs and indices are held by {@link #uvs} and {@link #indices} */
+  @Nullable
+  private SpineVertexCache.Topology uploadedTopology;
+
+  /** Topology of the last captured frame, shared with the next frame if it is the same */
+  @Nullable
+  private SpineVertexCache.Topology capturedTopology;
+
+  /** Skeleton on which frames missing from the vertex cache are sampled, so the pose of {@link #skeleton} is kept */
+  @Nullable
+  private Skeleton cacheSkeleton;
+
+  /** Local bounds of the vertices, as passed to {@link #initAABB(float, float, float, float)} */
+  private float minX, minY, maxX, maxY;
+
+  /** Position of the skeleton when the bounds were computed */
+  private float boundsX, boundsY;
+
+  private boolean culling;
+
+  private float cullMargin = DEFAULT_CULL_MARGIN;
+
+  /** Whether the world transforms, vertices and bounds are out of date because the skeleton was culled */
+  private boolean culled;
+
+  private boolean batching = true;
+
+  @Nonnull
+  private final SpineBatcher batcher = new SpineBatcher();
+
+  /** The batch drawing this object; null if the object draws itself */
+  @Nullable
+  SpineBatch batch;
+
+  /** Index of this object in the members of its batch */
+  int batchIndex;
+
+  /** Number of draw calls and of attachments drawn by the last render */
+  private int batchCount, batchedAttachmentCount;
+
+  @Nullable
+  private SpineLod lod;
+
+  /** Level of detail chosen when the skeleton was last posed */
+  private int lodLevel;
+
+  /** Number of frames since the skeleton was last posed */
+  private int lodFrame;
+
+  /** Vertices displayed before and computed by the last pose */
+  @Nonnull
+  private float[] lodFrom = ArrayUtil.EMPTY_FLOAT_ARRAY, lodTo = ArrayUtil.EMPTY_FLOAT_ARRAY;
+
+  /** Number of vertices in {@link #lodTo} while the vertex arrays hold interpolated values; -1 otherwise */
+  private int lodVertexCount = -1;
+
   /**
    * Creates and returns a new SpineSkeleton object
    *
@@ -134,6 +270,212 @@ public final class SpineSkeleton extends DisplayObject {
     return this;
   }
 
+  /** The cache of pre-rendered animation frames; null if frames are always rendered live */
+  @Nullable
+  public SpineVertexCache vertexCache() {
+    return vertexCache;
+  }
+
+  /**
+   * Sets the cache of pre-rendered animation frames
+   *
+   * <p>While a single animation plays without a crossfade, the vertices of the
+   * current frame are copied from the cache instead of posing and rendering the
+   * skeleton. Frames missing from the cache are rendered once and added to it.
+   *
+   * <p>Cached frames are sampled at the {@link SpineVertexCache#sampleRate() sample rate}
+   * of the cache. Events and completions are still dispatched, but the bones and
+   * slots of the skeleton are not posed while a cached frame is displayed and
+   * the {@link #skeletonBounds() skeleton bounds} are not updated.
+   *
+   * <p>Frames are shared and rendered from the setup pose of the current skin.
+   * Attachments, slot colors or draw order changed on the skeleton at runtime
+   * are not reflected by cached frames.
+   *
+   * @param value The cache to use; null to always render live
+   * @return The current object
+   */
+  @Nonnull
+  public SpineSkeleton vertexCache(@Nullable final SpineVertexCache value) {
+    vertexCache = value;
+    capturedTopology = null;
+    return this;
+  }
+
+  /** The cache of poses shared with other skeletons; null if the skeleton is always posed live */
+  @Nullable
+  public PoseCache poseCache() {
+    return poseCache;
+  }
+
+  /**
+   * Sets the cache of poses shared with other skeletons
+   *
+   * <p>While a single animation plays without a crossfade, the skeleton is posed
+   * at the time of the animation quantized to the {@link PoseCache#timeStep() time step}
+   * of the cache. Skeletons of the same data playing the same frame share the world
+   * transforms of their bones instead of computing them. Skeletons which need
+   * precise timing should not use a pose cache.
+   *
+   * @param value The cache to use; null to always pose live
+   * @return The current object
+   */
+  @Nonnull
+  public SpineSkeleton poseCache(@Nullable final PoseCache value) {
+    poseCache = value;
+    return this;
+  }
+
+  /** Whether or not the skeleton is only rendered while it is on the screen */
+  public boolean culling() {
+    return culling;
+  }
+
+  /**
+   * Sets whether or not the skeleton is only rendered while it is on the screen
+   *
+   * <p>While culling is enabled, the {@code update*} methods of this object keep
+   * advancing and applying the animation state, so the animation time is kept and
+   * events are dispatched. The world transforms, vertices and bounds are only
+   * computed if the skeleton is visible, attached to the stage and its estimated
+   * bounds intersect the stage.
+   *
+   * <p>The bounds are estimated from the last rendered bounds, moved with the
+   * position of the skeleton and grown by the {@link #cullMargin() cull margin}.
+   *
+   * @param value {@literal true} to skip rendering off-screen skeletons; {@literal false} otherwise
+   * @return The current object
+   */
+  @Nonnull
+  public SpineSkeleton culling(final boolean value) {
+    culling = value;
+
+    if(!value && culled) {
+      renderSkeleton();
+    }
+
+    return this;
+  }
+
+  /** The distance in stage coordinates by which the estimated bounds are grown when culling */
+  public float cullMargin() {
+    return cullMargin;
+  }
+
+  /**
+   * Sets the distance by which the estimated bounds are grown when culling
+   *
+   * <p>The margin should cover how far the animation moves the skeleton away from
+   * its last rendered bounds while it is off the screen.
+   *
+   * @param value The margin in stage coordinates
+   * @return The current object
+   */
+  @Nonnull
+  public SpineSkeleton cullMargin(final float value) {
+    checkArgument(value >= 0.0f, "value must not be negative");
+    cullMargin = value;
+    return this;
+  }
+
+  /** Whether the skeleton has been culled by its last update and its vertices are out of date */
+  public boolean culled() {
+    return culled;
+  }
+
+  /** Whether or not consecutive attachments with the same texture and blend mode are drawn at once */
+  public boolean batching() {
+    return batching;
+  }
+
+  /**
+   * Sets whether or not consecutive attachments with the same texture and blend mode are drawn at once
+   *
+   * <p>Batching preserves the draw order. Attachments are only merged into one draw call
+   * if they are adjacent in the draw order, so skeletons using a single atlas page are
+   * usually drawn with a single call.
+   *
+   * @param value {@literal true} to merge draw calls; {@literal false} to draw each attachment on its own
+   * @return The current object
+   */
+  @Nonnull
+  public SpineSkeleton batching(final boolean value) {
+    if(value != batching) {
+      batching = value;
+      invalidate(RENDERLIST_DIRTY);
+    }
+
+    return this;
+  }
+
+  /** The number of draw calls issued by the last render */
+  public int batchCount() {
+    return batchCount;
+  }
+
+  /** The number of attachments drawn by the last render */
+  public int batchedAttachmentCount() {
+    return batchedAttachmentCount;
+  }
+
+  /** The level of detail policy; null if the skeleton is posed every frame */
+  @Nullable
+  public SpineLod lod() {
+    return lod;
+  }
+
+  /**
+   * Sets the level of detail policy
+   *
+   * <p>While a policy is set, {@link #update(AnimationState, double)} and the
+   * {@link #animatable(AnimationState) animatable} of this object advance the
+   * animation state every frame but only pose the skeleton at the
+   * {@link SpineLod#updateInterval(int) update interval} of its current level.
+   * Events are dispatched when the skeleton is posed.
+   *
+   * @param value The policy to use; null to pose the skeleton every frame
+   * @return The current object
+   */
+  @Nonnull
+  public SpineSkeleton lod(@Nullable final SpineLod value) {
+    endLodInterpolation();
+    lod = value;
+    lodLevel = 0;
+    lodFrame = 0;
+    return this;
+  }
+
+  /** The level of detail chosen when the skeleton was last posed, see {@link SpineLod#level(float, float)} */
+  public int lodLevel() {
+    return lodLevel;
+  }
+
+  /**
+   * Renders all frames of an animation into the {@link #vertexCache() vertex cache}
+   *
+   * <p>Frames are rendered from the setup pose, the pose of the skeleton is kept.
+   *
+   * @param animation The animation to render
+   * @return The current object
+   */
+  @Nonnull
+  public SpineSkeleton prerender(@Nonnull final Animation animation) {
+    final SpineVertexCache vertexCache = this.vertexCache;
+
+    if(vertexCache == null) {
+      return this;
+    }
+
+    final int frameCount = vertexCache.frameIndex(animation, animation.duration(), false) + 1;
+
+    for(int frameIndex = 0; frameIndex < frameCount; ++frameIndex) {
+      renderCacheFrame(animation, vertexCache.frameTime(frameIndex));
+      vertexCache.put(animation, frameIndex, skeleton.skin(), skeleton.flipX(), skeleton.flipY(), captureFrame(vertexCache));
+    }
+
+    return this;
+  }
+
   /**
    * Updates the time of the animation state and skeleton, then poses the skeleton using the animation
    *
@@ -159,12 +501,115 @@ public final class SpineSkeleton extends DisplayObject {
     final float dt = (float)dtSec;
     state.update(dt);
     skeleton.update(dt);
-    state.apply(skeleton);
-    renderSkeleton();
+
+    final SpineLod lod = this.lod;
+
+    if(lod == null) {
+      apply(state);
+    } else {
+      applyLod(lod, state);
+    }
 
     return this;
   }
 
+  /** Poses the skeleton if the update interval of its level of detail has passed */
+  private void applyLod(@Nonnull final SpineLod lod,
+                        @Nonnull final AnimationState state) {
+    if(++lodFrame < SpineLod.updateInterval(lodLevel)) {
+      if(lodVertexCount != -1) {
+        interpolateVertices((float)(lodFrame + 1) / SpineLod.updateInterval(lodLevel));
+      }
+
+      return;
+    }
+
+    endLodInterpolation();
+
+    lodLevel = lodLevel(lod);
+    lodFrame = 0;
+
+    final int interval = SpineLod.updateInterval(lodLevel);
+    final int vertexCount = lastVertexCount;
+    final int topologyStamp = this.topologyStamp;
+    final boolean interpolate = lod.interpolate() && interval > 1 && vertexCount > 0;
+
+    if(interpolate) {
+      if(lodFrom.length < vertexCount) {
+        lodFrom = new float[vertexCount];
+        lodTo = new float[vertexCount];
+      }
+
+      System.arraycopy(vertices, 0, lodFrom, 0, vertexCount);
+    }
+
+    final long[] boneMask = state.boneMask();
+
+    if(lodLevel >= lod.reducedBoneLevel() && lod.reducedBoneMask() != null) {
+      state.boneMask(lod.reducedBoneMask());
+    }
+
+    apply(state);
+    state.boneMask(boneMask);
+
+    if(interpolate && !culled && this.topologyStamp == topologyStamp) {
+      System.arraycopy(vertices, 0, lodTo, 0, vertexCount);
+      lodVertexCount = vertexCount;
+      interpolateVertices(1.0f / interval);
+    }
+  }
+
+  /** Returns the level of detail for the current bounds of the skeleton on the stage */
+  private int lodLevel(@Nonnull final SpineLod lod) {
+    final DisplayObject host = host();
+
+    if(!host.isAttachedToStage()) {
+      return SpineLod.MAX_LEVEL;
+    }
+
+    // The vertices are scaled by the pixel ratio, the concatenated matrix is not
+    final float pixelRatio = pixelRatio();
+    final Matrix matrix = host.temporaryConcatMatrix(host);
+    final float scaleX = (float)Math.sqrt(matrix.a * matrix.a + matrix.b * matrix.b) / pixelRatio;
+    final float scaleY = (float)Math.sqrt(matrix.c * matrix.c + matrix.d * matrix.d) / pixelRatio;
+    final float size = Math.max((maxX - minX) * scaleX, (maxY - minY) * scaleY);
+
+    float distance = 0.0f;
+
+    if(lod.hasFocus()) {
+      final float centerX = (minX + maxX) * 0.5f / pixelRatio;
+      final float centerY = (minY + maxY) * 0.5f / pixelRatio;
+      final float dx = matrix.a * centerX + matrix.c * centerY + matrix.tx - lod.focusX();
+      final float dy = matrix.b * centerX + matrix.d * centerY + matrix.ty - lod.focusY();
+      distance = (float)Math.sqrt(dx * dx + dy * dy);
+    }
+
+    return lod.level(size, distance);
+  }
+
+  /** Displays the vertices between the last two poses */
+  private void interpolateVertices(final float alpha) {
+    final float[] vertices = this.vertices;
+    final float[] lodFrom = this.lodFrom;
+    final float[] lodTo = this.lodTo;
+
+    for(int i = 0, n = lodVertexCount; i < n; ++i) {
+      final float from = lodFrom[i];
+      vertices[i] = from + (lodTo[i] - from) * alpha;
+    }
+
+    updateBounds();
+    invalidateContent(content != null ? RENDERLIST_MATRIX_DIRTY : RENDERLIST_DIRTY);
+  }
+
+  /** Restores the vertices of the last pose if interpolated vertices are displayed */
+  private void endLodInterpolation() {
+    if(lodVertexCount != -1) {
+      System.arraycopy(lodTo, 0, vertices, 0, lodVertexCount);
+      lodVertexCount = -1;
+    }
+  }
+
   /**
    * Poses the skeleton using the given animation state
    *
@@ -173,10 +618,236 @@ public final class SpineSkeleton extends DisplayObject {
    */
   @Nonnull
   public SpineSkeleton updatePose(@Nonnull final AnimationState state) {
+    apply(state);
+
+    return this;
+  }
+
+  private void apply(@Nonnull final AnimationState state) {
+    if(culling && isOffScreen()) {
+      state.apply(skeleton);
+      culled = true;
+      return;
+    }
+
+    final SpineVertexCache vertexCache = this.vertexCache;
+
+    if(vertexCache != null && applyCachedFrame(vertexCache, state)) {
+      return;
+    }
+
+    final PoseCache poseCache = this.poseCache;
+
+    if(poseCache != null && applyCachedPose(poseCache, state)) {
+      return;
+    }
+
     state.apply(skeleton);
     renderSkeleton();
+  }
 
-    return this;
+  /**
+   * Poses the skeleton at the quantized time of the only animation played by the state
+   *
+   * @return {@literal false} if the state mixes animations and the skeleton has to be posed live
+   */
+  private boolean applyCachedPose(@Nonnull final PoseCache poseCache,
+                                  @Nonnull final AnimationState state) {
+    final AnimationState.TrackEntry entry = state.soloEntry();
+
+    if(entry == null || entry.animation() == null) {
+      return false;
+    }
+
+    final Animation animation = entry.animation();
+    final int frameIndex = poseCache.frameIndex(animation, entry.time(), entry.loop());
+
+    if(poseCache.apply(skeleton, animation, frameIndex)) {
+      state.applyEvents(skeleton);
+      renderSkeleton();
+      return true;
+    }
+
+    final float frameTime = poseCache.frameTime(frameIndex);
+
+    // Poses are shared, so the bones are sampled from the setup pose
+    // instead of whatever pose the skeleton had before
+    state.applyEvents(skeleton);
+    skeleton.setBonesToSetupPose();
+    animation.apply(skeleton, frameTime, frameTime, false, null);
+    skeleton.updateWorldTransform();
+    poseCache.store(skeleton, animation, frameIndex);
+    renderSkeleton();
+
+    return true;
+  }
+
+  /**
+   * Displays the current frame of the only animation played by the state from the cache
+   *
+   * @return {@literal false} if the state mixes animations and the skeleton has to be posed live
+   */
+  private boolean applyCachedFrame(@Nonnull final SpineVertexCache vertexCache,
+                                   @Nonnull final AnimationState state) {
+    final AnimationState.TrackEntry entry = state.soloEntry();
+
+    if(entry == null || entry.animation() == null) {
+      return false;
+    }
+
+    final Animation animation = entry.animation();
+    final Skin skin = skeleton.skin();
+    final int frameIndex = vertexCache.frameIndex(animation, entry.time(), entry.loop());
+    final boolean flipX = skeleton.flipX();
+    final boolean flipY = skeleton.flipY();
+    final SpineVertexCache.Frame frame = vertexCache.get(animation, frameIndex, skin, flipX, flipY);
+
+    state.applyEvents(skeleton);
+
+    if(frame != null && frame.matches(pixelRatio())) {
+      displayFrame(frame);
+      return true;
+    }
+
+    renderCacheFrame(animation, vertexCache.frameTime(frameIndex));
+    vertexCache.put(animation, frameIndex, skin, flipX, flipY, captureFrame(vertexCache));
+
+    return true;
+  }
+
+  /**
+   * Renders an animation from the setup pose into the vertex arrays
+   *
+   * <p>Frames are shared, so they are sampled on a separate skeleton with the
+   * skin, flips, position and color of {@link #skeleton} instead of whatever
+   * pose the skeleton has.
+   */
+  private void renderCacheFrame(@Nonnull final Animation animation, final float time) {
+    Skeleton cacheSkeleton = this.cacheSkeleton;
+
+    if(cacheSkeleton == null) {
+      cacheSkeleton = this.cacheSkeleton = new Skeleton(skeleton.data());
+    }
+
+    if(cacheSkeleton.skin() != skeleton.skin()) {
+      cacheSkeleton.skin(skeleton.skin());
+    }
+
+    cacheSkeleton.flipX(skeleton.flipX());
+    cacheSkeleton.flipY(skeleton.flipY());
+    cacheSkeleton.moveTo(skeleton.x(), skeleton.y());
+    cacheSkeleton.color(skeleton.r, skeleton.g, skeleton.b, skeleton.a);
+    cacheSkeleton.setToSetupPose();
+    animation.apply(cacheSkeleton, time, time, false, null);
+
+    // The vertex arrays no longer hold the slots of the skeleton
+    slotVerticesValid = false;
+    resetTopology();
+
+    render(cacheSkeleton);
+  }
+
+  /** Copies the output of the last {@link #renderSkeleton()} into a new frame */
+  @Nonnull
+  private SpineVertexCache.Frame captureFrame(@Nonnull final SpineVertexCache vertexCache) {
+    final SpineVertexCache.Topology topology = new SpineVertexCache.Topology(uvs, lastVertexCount, indices, lastTriangleCount);
+
+    captureTopology(topology);
+
+    if(capturedTopology == null || !capturedTopology.sameAs(topology)) {
+      capturedTopology = topology;
+    }
+
+    final float pixelRatio = pixelRatio();
+
+    return new SpineVertexCache.Frame(capturedTopology, vertices, colors, vertexCache.packedColors(), pixelRatio,
+        originX(pixelRatio), originY(pixelRatio));
+  }
+
+  /**
+   * The x coordinate of the origin of the skeleton in the vertex arrays
+   *
+   * <p>The position of the skeleton is scaled by the pixel ratio before it is passed
+   * to the attachments, which scale their vertices by the pixel ratio again.
+   */
+  private float originX(final float pixelRatio) {
+    return skeleton.x() * pixelRatio * pixelRatio;
+  }
+
+  /** The y coordinate of the origin of the skeleton in the vertex arrays, see {@link #originX(float)} */
+  private float originY(final float pixelRatio) {
+    return skeleton.y() * pixelRatio * pixelRatio;
+  }
+
+  /** Records the layout of the vertex arrays as the draw calls of a topology */
+  private void captureTopology(@Nonnull final SpineVertexCache.Topology topology) {
+    for(int i = 0, n = layoutCount; i < n; ++i) {
+      topology.add(layoutTextures[i], layoutBlendModes[i], layoutAlphas[i], layoutVertexCounts[i], layoutTriangleCounts[i]);
+    }
+  }
+
+  /** Copies a cached frame into the vertex arrays */
+  private void displayFrame(@Nonnull final SpineVertexCache.Frame frame) {
+    final SpineVertexCache.Topology topology = frame.topology;
+    final int vertexCount = topology.vertexCount();
+    final int triangleCount = topology.triangleCount();
+    // The alpha of the skeleton is part of the draw calls of the render content
+    final boolean sameTopology = topology == displayedTopology && skeleton.a == displayedAlpha;
+    final float pixelRatio = pixelRatio();
+    final float originX = originX(pixelRatio);
+    final float originY = originY(pixelRatio);
+
+    lodVertexCount = -1;
+    culled = false;
+    ensureCapacity(vertexCount, triangleCount);
+
+    slotVerticesValid = false;
+
+    frame.copyVertices(vertices, originX, originY);
+    frame.copyColors(colors);
+
+    if(topology != uploadedTopology) {
+      System.arraycopy(topology.uvs, 0, uvs, 0, vertexCount);
+      System.arraycopy(topology.indices, 0, indices, 0, triangleCount);
+      uploadedTopology = topology;
+      resetTopology();
+    }
+
+    if(!sameTopology) {
+      ++topologyStamp;
+    }
+
+    displayedTopology = topology;
+    displayedAlpha = skeleton.a;
+
+    aabb(frame.minX + originX, frame.minY + originY, frame.maxX + originX, frame.maxY + originY);
+
+    // The draw calls of a topology never change, so the content can be re-used
+    // as long as the same topology is displayed
+    invalidateContent(content != null && sameTopology ? RENDERLIST_MATRIX_DIRTY : RENDERLIST_DIRTY);
+
+    lastVertexCount = -1;
+    lastTriangleCount = -1;
+  }
+
+  private float pixelRatio() {
+    final DisplayObject host = host();
+    return host.isAttachedToStage() ? host.stage().pixelRatio() : 1.0f;
+  }
+
+  /** The object which draws the vertices of this object on the stage: its batch, if any, or the object itself */
+  @Nonnull
+  private DisplayObject host() {
+    return batch != null ? batch : this;
+  }
+
+  /** Invalidates the render list of this object, or its vertices in its batch */
+  private void invalidateContent(final int flags) {
+    if(batch != null) {
+      batch.memberChanged(this);
+    } else {
+      invalidate(flags);
+    }
   }
 
   /**
@@ -200,11 +871,58 @@ public final class SpineSkeleton extends DisplayObject {
   @Nonnull
   public SpineSkeleton updateSkeleton(final double dtSec) {
     skeleton.update((float)dtSec);
-    renderSkeleton();
+
+    if(culling && isOffScreen()) {
+      culled = true;
+    } else {
+      renderSkeleton();
+    }
 
     return this;
   }
 
+  /**
+   * Checks whether the skeleton can be seen using a conservative estimate of its bounds
+   *
+   * @return {@literal true} if the skeleton is certainly not on the screen
+   */
+  private boolean isOffScreen() {
+    final DisplayObject host = host();
+
+    if(!visible || !host.visible() || !host.isAttachedToStage()) {
+      return true;
+    }
+
+    if(minX > maxX || minY > maxY) {
+      // Nothing has been rendered yet
+      return false;
+    }
+
+    final Stage stage = host.stage();
+    final float pixelRatio = stage.pixelRatio();
+
+    // The vertices are scaled by the pixel ratio, the concatenated matrix is not
+    final float offsetX = skeleton.x() - boundsX;
+    final float offsetY = skeleton.y() - boundsY;
+    final float x0 = minX / pixelRatio + offsetX, x1 = maxX / pixelRatio + offsetX;
+    final float y0 = minY / pixelRatio + offsetY, y1 = maxY / pixelRatio + offsetY;
+
+    final Matrix matrix = host.temporaryConcatMatrix(host);
+    final float ax0 = matrix.a * x0, ax1 = matrix.a * x1;
+    final float bx0 = matrix.b * x0, bx1 = matrix.b * x1;
+    final float cy0 = matrix.c * y0, cy1 = matrix.c * y1;
+    final float dy0 = matrix.d * y0, dy1 = matrix.d * y1;
+    final float margin = cullMargin;
+
+    final float stageMinX = Math.min(ax0, ax1) + Math.min(cy0, cy1) + matrix.tx - margin;
+    final float stageMaxX = Math.max(ax0, ax1) + Math.max(cy0, cy1) + matrix.tx + margin;
+    final float stageMinY = Math.min(bx0, bx1) + Math.min(dy0, dy1) + matrix.ty - margin;
+    final float stageMaxY = Math.max(bx0, bx1) + Math.max(dy0, dy1) + matrix.ty + margin;
+
+    return stageMaxX < 0.0f || stageMinX > stage.width()
+        || stageMaxY < 0.0f || stageMinY > stage.height();
+  }
+
   /**
    * Callback when the pose of the skeleton is changed
    *
@@ -216,60 +934,82 @@ public final class SpineSkeleton extends DisplayObject {
    * are being invoked.
    */
   public void renderSkeleton() {
-    skeleton.updateWorldTransform();
+    render(skeleton);
+  }
 
-    final Array<Slot> drawOrder = skeleton.drawOrder();
-    final int vertexCountOfAllSlots = vertexCount(drawOrder);
-    final int triangleCountOfAllSlots = triangleCount(drawOrder);
+  /** Computes the vertices of a skeleton posed like {@link #skeleton} and invalidates the display object */
+  private void render(@Nonnull final Skeleton source) {
+    endLodInterpolation();
+
+    culled = false;
+
+    displayedTopology = null;
+    uploadedTopology = null;
+
+    source.updateWorldTransform();
 
     // We compute all the vertices relative to the coordinates
-    // of the display object and its AABB
-    updateVertices(vertexCountOfAllSlots, triangleCountOfAllSlots);
-    updateBounds();
+    // of the display object, together with the draw calls and
+    // the AABB, in a single pass over the draw order
+    vertexOffset = 0;
+    colorOffset = 0;
+    indexOffset = 0;
+    layoutCount = 0;
+    layoutMinX = layoutMinY = Integer.MAX_VALUE;
+    layoutMaxX = layoutMaxY = Integer.MIN_VALUE;
 
-    if(content != null) {
-      // We have cached render content and if we're able
-      // to re-use it, we can invalidate only the projected
-      // vertex coordinates
+    // Alphas of the draw calls are relative to the skeleton, see draw(...)
+    updateVertices(source, 1.0f);
 
-      if(    vertexCountOfAllSlots   != lastVertexCount
-          || triangleCountOfAllSlots != lastTriangleCount) {
-        // We're not able to re-use the existing content
-        invalidate(RENDERLIST_DIRTY);
-      } else {
-        // This is an optimistic assumption which can be wrong.
-        //
-        // If the number of vertices and triangles is exactly
-        // the same we'll only invalidate the vertices and not
-        // the whole render-list.
-        //
-        // TODO(joa): use sequence of texture data for correctness
-        invalidate(RENDERLIST_MATRIX_DIRTY);
-      }
+    if(source != skeleton) {
+      // The slots of other skeletons are not tracked
+      topologyChanged = true;
+    }
+
+    applyBounds();
+
+    if(topologyChanged) {
+      ++topologyStamp;
+    }
+
+    lastVertexCount = vertexOffset;
+    lastTriangleCount = indexOffset;
+
+    if(batch != null) {
+      // The batch compares the layout of its members itself
+      batch.memberChanged(this);
+    } else if(content != null && !topologyChanged) {
+      // The uvs, indices and draw calls are the same, so the
+      // cached render content can be re-used and only the
+      // vertex coordinates have to be invalidated
+      invalidate(RENDERLIST_MATRIX_DIRTY);
     } else {
       // We don't have any content we can re-use so we have to
       // invalidate the render list
       invalidate(RENDERLIST_DIRTY);
     }
-
-    lastVertexCount = vertexCountOfAllSlots;
-    lastTriangleCount = triangleCountOfAllSlots;
   }
 
   /**
    * Computes the AABB of the skeleton and applies it to the display object
    */
   private void updateBounds() {
-    float
-        minX = Integer.MAX_VALUE,
-        minY = Integer.MAX_VALUE,
-        maxX = Integer.MIN_VALUE,
-        maxY = Integer.MIN_VALUE;
+    layoutMinX = layoutMinY = Integer.MAX_VALUE;
+    layoutMaxX = layoutMaxY = Integer.MIN_VALUE;
 
-    final Array<Slot> drawOrder = skeleton.drawOrder();
-    final int vertexCount = vertexCount(drawOrder);
+    includeBounds(0, displayedVertexCount());
+    applyBounds();
+  }
+
+  /** Grows the accumulated AABB by a range of the vertex array */
+  private void includeBounds(final int vertexOffset, final int vertexCount) {
+    float
+        minX = layoutMinX,
+        minY = layoutMinY,
+        maxX = layoutMaxX,
+        maxY = layoutMaxY;
 
-    for(int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex += 2) {
+    for(int vertexIndex = vertexOffset, n = vertexOffset + vertexCount; vertexIndex < n; vertexIndex += 2) {
       final float x = vertices[vertexIndex    ];
       final float y = vertices[vertexIndex + 1];
 
@@ -279,7 +1019,15 @@ public final class SpineSkeleton extends DisplayObject {
       if(y > maxY) { maxY = y; }
     }
 
-    initAABB(minX, minY, maxX - minX, maxY - minY);
+    layoutMinX = minX;
+    layoutMinY = minY;
+    layoutMaxX = maxX;
+    layoutMaxY = maxY;
+  }
+
+  /** Applies the accumulated AABB to the display object */
+  private void applyBounds() {
+    aabb(layoutMinX, layoutMinY, layoutMaxX, layoutMaxY);
 
     if(useSkeletonBounds) {
       assert skeletonBounds != null;
@@ -287,6 +1035,17 @@ public final class SpineSkeleton extends DisplayObject {
     }
   }
 
+  private void aabb(final float minX, final float minY, final float maxX, final float maxY) {
+    this.minX = minX;
+    this.minY = minY;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.boundsX = skeleton.x();
+    this.boundsY = skeleton.y();
+
+    initAABB(minX, minY, maxX - minX, maxY - minY);
+  }
+
   /** {@inheritDoc} */
   @Nullable
   @Override
@@ -296,141 +1055,162 @@ public final class SpineSkeleton extends DisplayObject {
                               @Nonnull final BlendMode parentBlendMode,
                               final float parentAlpha,
                               final float pixelRatio) {
-    final BlendMode displayObjectBlendMode = blendMode().inherit(parentBlendMode);
-    final float alpha = parentAlpha * this.alpha;
+    final SpineBatcher batcher = this.batcher;
 
-    vertexOffset = 0;
-    colorOffset = 0;
-    indexOffset = 0;
-
-    render(
-        projectionMatrix, modelViewMatrix,
-        renderer,
-        displayObjectBlendMode,
-        alpha,
-        pixelRatio,
-        skeleton);
+    batcher.begin(projectionMatrix, modelViewMatrix, renderer, vertices, uvs, colors, indices, batching);
+    draw(batcher, blendMode().inherit(parentBlendMode), parentAlpha * this.alpha);
 
-    content = renderer.zone(contents);
-    contents.clear();
+    content = batcher.end();
+    batchCount = batcher.batchCount();
+    batchedAttachmentCount = batcher.attachmentCount();
 
     return content;
   }
 
-  private void render(@Nonnull final GLMatrix projectionMatrix,
-                      @Nonnull final GLMatrix modelViewMatrix,
-                      @Nonnull final Renderer renderer,
-                      @Nonnull final BlendMode displayObjectBlendMode,
-                      final float displayObjectAlpha,
-                      final float pixelRatio,
-                      @Nonnull final Skeleton skeleton) {
-    final float alpha = displayObjectAlpha * skeleton.a;
-
-    for(final Slot slot : skeleton.drawOrder()) {
-      final Attachment attachment = slot.attachment();
-
-      final BlendMode blendMode;
-      final TextureData textureData;
-      final int triangleCount;
-      final int vertexCount;
+  @Nonnull
+  float[] vertexArray() {
+    return vertices;
+  }
 
-      if(attachment instanceof RegionAttachment) {
-        final RegionAttachment regionAttachment = (RegionAttachment)attachment;
+  @Nonnull
+  float[] uvArray() {
+    return uvs;
+  }
 
-        blendMode = slot.data().blendMode;
-        textureData = regionAttachment.region().textureData;
-        triangleCount = regionAttachment.triangleCount();
-        vertexCount = regionAttachment.vertexCount();
-      } else if(attachment instanceof MeshAttachment) {
-        final MeshAttachment meshAttachment = (MeshAttachment)attachment;
+  @Nonnull
+  float[] colorArray() {
+    return colors;
+  }
 
-        blendMode = slot.data().blendMode;
-        textureData = meshAttachment.region().textureData;
-        triangleCount = meshAttachment.triangleCount();
-        vertexCount = meshAttachment.vertexCount();
-      } else if(attachment instanceof SkinnedMeshAttachment) {
-        final SkinnedMeshAttachment skinnedMeshAttachment = (SkinnedMeshAttachment)attachment;
+  @Nonnull
+  short[] indexArray() {
+    return indices;
+  }
 
-        blendMode = slot.data().blendMode;
-        textureData = skinnedMeshAttachment.region().textureData;
-        triangleCount = skinnedMeshAttachment.triangleCount();
-        vertexCount = skinnedMeshAttachment.vertexCount();
-      } else if(attachment instanceof SkeletonAttachment) {
-        final SkeletonAttachment skeletonAttachment = (SkeletonAttachment)attachment;
-        final Skeleton attachedSkeleton = skeletonAttachment.skeleton();
+  /** The number of values in {@link #vertexArray()} which are displayed */
+  int displayedVertexCount() {
+    return displayedTopology != null ? displayedTopology.vertexCount() : Math.max(lastVertexCount, 0);
+  }
 
-        if(attachedSkeleton == null) {
-          continue;
-        }
+  /** The number of values in {@link #indexArray()} which are displayed */
+  int displayedTriangleCount() {
+    return displayedTopology != null ? displayedTopology.triangleCount() : Math.max(lastTriangleCount, 0);
+  }
 
-        render(
-            projectionMatrix,
-            modelViewMatrix,
-            renderer,
-            displayObjectBlendMode,
-            alpha,
-            pixelRatio,
-            attachedSkeleton);
+  /** Adds the attachments of the displayed vertices to a batcher in draw order */
+  void draw(@Nonnull final SpineBatcher batcher,
+            @Nonnull final BlendMode displayObjectBlendMode,
+            final float displayObjectAlpha) {
+    final float alpha = displayObjectAlpha * skeleton.a;
 
-        continue;
-      } else {
-        continue;
+    if(displayedTopology != null) {
+      draw(batcher, displayObjectBlendMode, alpha, displayedTopology);
+    } else {
+      for(int i = 0, n = layoutCount; i < n; ++i) {
+        batcher.add(
+            alpha * layoutAlphas[i],
+            layoutBlendModes[i].inherit(displayObjectBlendMode),
+            layoutTextures[i],
+            layoutVertexCounts[i],
+            layoutTriangleCounts[i]);
       }
+    }
+  }
 
-      contents.push(
-          renderer.drawTexture(
-              projectionMatrix, modelViewMatrix,
-              alpha,
-              blendMode.inherit(displayObjectBlendMode),
-              textureData,
-              vertices, vertexOffset,
-              uvs, vertexOffset,
-              colors, colorOffset,
-              indices, indexOffset,
-              vertexCount / 2,
-              triangleCount / 3));
-
-      vertexOffset += vertexCount;
-      colorOffset  += vertexCount * 2;
-      indexOffset  += triangleCount;
+  private static void draw(@Nonnull final SpineBatcher batcher,
+                           @Nonnull final BlendMode displayObjectBlendMode,
+                           final float displayObjectAlpha,
+                           @Nonnull final SpineVertexCache.Topology topology) {
+    for(int i = 0, n = topology.drawCount; i < n; ++i) {
+      batcher.add(
+          displayObjectAlpha * topology.alphas[i],
+          topology.blendModes[i].inherit(displayObjectBlendMode),
+          topology.textures[i],
+          topology.vertexCounts[i],
+          topology.triangleCounts[i]);
     }
   }
 
-  private void updateVertices(final int vertexCountOfAllSlots,
-                              final int triangleCountOfAllSlots) {
-    if(vertexCountOfAllSlots >= vertices.length) {
+  /**
+   * Ensures the vertex arrays hold at least the given number of values
+   *
+   * <p>Grown arrays keep their contents, so vertices, uvs and indices
+   * already written by the current traversal remain valid.
+   */
+  private void ensureCapacity(final int vertexCount,
+                              final int triangleCount) {
+    if(vertexCount > vertices.length) {
       // We have to invalidate the content since our existing content
       // references the old arrays
       content = null;
+      uploadedTopology = null;
+
+      final int length = Math.max(vertexCount, vertices.length * 2);
 
-      vertices = new float[vertexCountOfAllSlots];
-      uvs = new float[vertexCountOfAllSlots];
-      colors = new float[vertexCountOfAllSlots * 2];
+      vertices = Arrays.copyOf(vertices, length);
+      uvs = Arrays.copyOf(uvs, length);
+      colors = Arrays.copyOf(colors, length * 2);
     }
 
-    if(triangleCountOfAllSlots >= indices.length) {
+    if(triangleCount > indices.length) {
       // We have to invalidate the content since our existing content
       // references the old arrays
       content = null;
+      uploadedTopology = null;
 
-      indices = new short[triangleCountOfAllSlots];
+      indices = Arrays.copyOf(indices, Math.max(triangleCount, indices.length * 2));
     }
+  }
 
-    vertexOffset = 0;
-    colorOffset = 0;
-    indexOffset = 0;
+  /** Appends a draw call to the layout of the vertex arrays */
+  private void addLayout(@Nonnull final TextureData texture,
+                         @Nonnull final BlendMode blendMode,
+                         final float alpha,
+                         final int vertexCount,
+                         final int triangleCount) {
+    final int index = layoutCount;
+
+    if(index == layoutAlphas.length) {
+      final int length = Math.max(8, index * 2);
+
+      layoutTextures = Arrays.copyOf(layoutTextures, length);
+      layoutBlendModes = Arrays.copyOf(layoutBlendModes, length);
+      layoutAlphas = Arrays.copyOf(layoutAlphas, length);
+      layoutVertexCounts = Arrays.copyOf(layoutVertexCounts, length);
+      layoutTriangleCounts = Arrays.copyOf(layoutTriangleCounts, length);
+    }
 
-    updateVertices(skeleton);
+    layoutTextures[index] = texture;
+    layoutBlendModes[index] = blendMode;
+    layoutAlphas[index] = alpha;
+    layoutVertexCounts[index] = vertexCount;
+    layoutTriangleCounts[index] = triangleCount;
+    layoutCount = index + 1;
   }
 
-  private void updateVertices(@Nonnull final Skeleton skeleton) {
-    final float pixelRatio = isAttachedToStage() ? stage().pixelRatio() : 1.0f;
+  /**
+   * Computes the vertices, the layout and the bounds of a skeleton and its attached skeletons
+   *
+   * @param skeleton The skeleton to compute
+   * @param alpha The alpha of the skeleton relative to {@link #skeleton()}, which is applied when drawing
+   */
+  private void updateVertices(@Nonnull final Skeleton skeleton, final float alpha) {
+    final float pixelRatio = pixelRatio();
     final float skeletonX = skeleton.x() * pixelRatio;
     final float skeletonY = skeleton.y() * pixelRatio;
+    final Array<Slot> drawOrder = skeleton.drawOrder();
+    final boolean trackSlots = skeleton == this.skeleton;
+
+    if(trackSlots) {
+      beginSlotTracking(drawOrder.size(), skeletonX, skeletonY, pixelRatio);
+      beginTopologyTracking(drawOrder.size(), skeleton.a);
+    }
 
-    for(final Slot slot : skeleton.drawOrder()) {
+    for(int drawIndex = 0, drawCount = drawOrder.size(); drawIndex < drawCount; ++drawIndex) {
+      final Slot slot = drawOrder.get(drawIndex);
       final Attachment attachment = slot.attachment();
 
+      final TextureData texture;
       final int vertexCount;
       final int triangleCount;
 
@@ -440,30 +1220,61 @@ public final class SpineSkeleton extends DisplayObject {
         vertexCount = regionAttachment.vertexCount();
         triangleCount = regionAttachment.triangleCount();
 
-        regionAttachment.computeWorldVertices(
-            skeletonX, skeletonY, slot, pixelRatio,
-            vertices, uvs, colors, indices,
-            vertexOffset, colorOffset, indexOffset);
+        ensureCapacity(vertexOffset + vertexCount, indexOffset + triangleCount);
+
+        // Sequences are always recomputed since they choose their region at that time
+        if(    !trackSlots
+            || attachment instanceof RegionSequenceAttachment
+            || !reuseSlotVertices(drawIndex, slot, attachment)) {
+          regionAttachment.computeWorldVertices(
+              skeletonX, skeletonY, slot, pixelRatio,
+              vertices, colors,
+              vertexOffset, colorOffset);
+        }
+
+        if(!trackSlots || !reuseTopology(drawIndex, slot, attachment, regionAttachment.region())) {
+          regionAttachment.computeWorldTopology(uvs, indices, vertexOffset, indexOffset);
+        }
+
+        // The region is read after the vertices since sequences choose it when they are computed
+        texture = regionAttachment.region().textureData;
       } else if(attachment instanceof MeshAttachment) {
         final MeshAttachment meshAttachment = (MeshAttachment)attachment;
 
+        texture = meshAttachment.region().textureData;
         vertexCount = meshAttachment.vertexCount();
         triangleCount = meshAttachment.triangleCount();
 
-        meshAttachment.computeWorldVertices(
-            skeletonX, skeletonY, slot, pixelRatio,
-            vertices, uvs, colors, indices,
-            vertexOffset, colorOffset, indexOffset);
+        ensureCapacity(vertexOffset + vertexCount, indexOffset + triangleCount);
+
+        // Deformed meshes are always recomputed since their vertices may change at any time
+        if(!trackSlots || !slot.attachmentVertices().isEmpty() || !reuseSlotVertices(drawIndex, slot, attachment)) {
+          meshAttachment.computeWorldVertices(
+              skeletonX, skeletonY, slot, pixelRatio,
+              vertices, colors,
+              vertexOffset, colorOffset);
+        }
+
+        if(!trackSlots || !reuseTopology(drawIndex, slot, attachment, meshAttachment.region())) {
+          meshAttachment.computeWorldTopology(uvs, indices, vertexOffset, indexOffset);
+        }
       } else if(attachment instanceof SkinnedMeshAttachment) {
         final SkinnedMeshAttachment skinnedMeshAttachment = (SkinnedMeshAttachment) attachment;
 
+        texture = skinnedMeshAttachment.region().textureData;
         vertexCount = skinnedMeshAttachment.vertexCount();
         triangleCount = skinnedMeshAttachment.triangleCount();
 
+        ensureCapacity(vertexOffset + vertexCount, indexOffset + triangleCount);
+
         skinnedMeshAttachment.computeWorldVertices(
             skeletonX, skeletonY, slot, pixelRatio,
-            vertices, uvs, colors, indices,
-            vertexOffset, colorOffset, indexOffset);
+            vertices, colors,
+            vertexOffset, colorOffset);
+
+        if(!trackSlots || !reuseTopology(drawIndex, slot, attachment, skinnedMeshAttachment.region())) {
+          skinnedMeshAttachment.computeWorldTopology(uvs, indices, vertexOffset, indexOffset);
+        }
       } else if(attachment instanceof SkeletonAttachment) {
         final SkeletonAttachment skeletonAttachment = (SkeletonAttachment)attachment;
         final Skeleton attachmentSkeleton = skeletonAttachment.skeleton();
@@ -472,6 +1283,9 @@ public final class SpineSkeleton extends DisplayObject {
           continue;
         }
 
+        // The draw calls of attached skeletons are not tracked
+        topologyChanged = true;
+
         final Bone bone = slot.bone();
         final Bone rootBone = attachmentSkeleton.rootBone();
         final float oldScaleX = rootBone.scaleX();
@@ -489,7 +1303,7 @@ public final class SpineSkeleton extends DisplayObject {
 
         attachmentSkeleton.updateWorldTransform();
 
-        updateVertices(attachmentSkeleton);
+        updateVertices(attachmentSkeleton, alpha * attachmentSkeleton.a);
 
         attachmentSkeleton.moveTo(oldX, oldY);
 
@@ -500,59 +1314,154 @@ public final class SpineSkeleton extends DisplayObject {
         continue;
       }
 
+      addLayout(texture, slot.data().blendMode, alpha, vertexCount, triangleCount);
+      includeBounds(vertexOffset, vertexCount);
+
       vertexOffset += vertexCount;
       colorOffset  += vertexCount * 2;
       indexOffset  += triangleCount;
     }
   }
 
-  private static int vertexCount(@Nonnull final Array<Slot> drawOrder) {
-    int sum = 0;
+  /**
+   * Forces the vertices of all slots to be recomputed by the next {@link #renderSkeleton()}
+   *
+   * <p>Vertices of a region or mesh attachment are only recomputed if its slot, bone,
+   * color or position in the vertex arrays changed, and its uvs and indices only if its
+   * slot, region or position changed. This method must be called if an attachment has
+   * been modified in place, for instance by {@link MeshAttachment#updateUVs()}.
+   */
+  public void invalidateVertices() {
+    slotVerticesValid = false;
+    resetTopology();
+  }
 
-    for(final Slot slot : drawOrder) {
-      final Attachment attachment = slot.attachment();
+  /** The stamp of the uvs, indices and draw calls of the displayed vertices, see {@link #topologyStamp} */
+  int topologyStamp() {
+    return topologyStamp;
+  }
 
-      if(attachment instanceof RegionAttachment) {
-        sum += ((RegionAttachment)attachment).vertexCount();
-      } else if(attachment instanceof MeshAttachment) {
-        sum += ((MeshAttachment)attachment).vertexCount();
-      } else if(attachment instanceof SkinnedMeshAttachment) {
-        sum += ((SkinnedMeshAttachment)attachment).vertexCount();
-      } else if(attachment instanceof SkeletonAttachment) {
-        final SkeletonAttachment skeletonAttachment = ((SkeletonAttachment)attachment);
-        final Skeleton skeleton = skeletonAttachment.skeleton();
-        if(skeleton != null) {
-          sum += vertexCount(skeleton.drawOrder());
-        }
-      }
+  /** Forgets the inputs of the uvs and indices, so they are rewritten by the next {@link #renderSkeleton()} */
+  private void resetTopology() {
+    Arrays.fill(topologySlots, null);
+    Arrays.fill(topologyAttachments, null);
+    Arrays.fill(topologyRegions, null);
+    topologyDrawCount = -1;
+  }
+
+  private void beginTopologyTracking(final int drawCount, final float alpha) {
+    if(topologySlots.length < drawCount) {
+      topologySlots = new Slot[drawCount];
+      topologyAttachments = new Attachment[drawCount];
+      topologyRegions = new Texture[drawCount];
+      topologyOffsets = new int[drawCount * 2];
+      topologyDrawCount = -1;
     }
 
-    return sum;
+    topologyChanged = drawCount != topologyDrawCount || alpha != topologyAlpha;
+    topologyDrawCount = drawCount;
+    topologyAlpha = alpha;
   }
 
+  /**
+   * Checks whether the uvs and indices of a draw call are the same as the last time they were written
+   *
+   * <p>If not, the current inputs are recorded, the topology is marked as changed and the
+   * caller has to write the uvs and indices.
+   *
+   * @return {@literal true} if the vertex arrays already contain the uvs and indices of the draw call
+   */
+  private boolean reuseTopology(final int drawIndex,
+                                @Nonnull final Slot slot,
+                                @Nonnull final Attachment attachment,
+                                @Nullable final Texture region) {
+    final int offset = drawIndex * 2;
+
+    if(    topologySlots[drawIndex] == slot
+        && topologyAttachments[drawIndex] == attachment
+        && topologyRegions[drawIndex] == region
+        && topologyOffsets[offset    ] == vertexOffset
+        && topologyOffsets[offset + 1] == indexOffset) {
+      return true;
+    }
 
-  private static int triangleCount(@Nonnull final Array<Slot> drawOrder) {
-    int sum = 0;
+    topologySlots[drawIndex] = slot;
+    topologyAttachments[drawIndex] = attachment;
+    topologyRegions[drawIndex] = region;
+    topologyOffsets[offset    ] = vertexOffset;
+    topologyOffsets[offset + 1] = indexOffset;
+    topologyChanged = true;
 
-    for(final Slot slot : drawOrder) {
-      final Attachment attachment = slot.attachment();
+    return false;
+  }
 
-      if(attachment instanceof RegionAttachment) {
-        sum += ((RegionAttachment)attachment).triangleCount();
-      } else if(attachment instanceof MeshAttachment) {
-        sum += ((MeshAttachment)attachment).triangleCount();
-      } else if(attachment instanceof SkinnedMeshAttachment) {
-        sum += ((SkinnedMeshAttachment)attachment).triangleCount();
-      } else if(attachment instanceof SkeletonAttachment) {
-        final SkeletonAttachment skeletonAttachment = ((SkeletonAttachment)attachment);
-        final Skeleton skeleton = skeletonAttachment.skeleton();
-        if(skeleton != null) {
-          sum += triangleCount(skeleton.drawOrder());
-        }
-      }
+  private void beginSlotTracking(final int drawCount,
+                                 final float skeletonX,
+                                 final float skeletonY,
+                                 final float pixelRatio) {
+    if(slotSlots.length < drawCount) {
+      slotSlots = new Slot[drawCount];
+      slotAttachments = new Attachment[drawCount];
+      slotBoneStamps = new int[drawCount];
+      slotOffsets = new int[drawCount * 2];
+      slotColors = new float[drawCount * 4];
+      slotVerticesValid = false;
+    }
+
+    if(    skeletonX != slotVerticesX
+        || skeletonY != slotVerticesY
+        || pixelRatio != slotVerticesPixelRatio) {
+      slotVerticesX = skeletonX;
+      slotVerticesY = skeletonY;
+      slotVerticesPixelRatio = pixelRatio;
+      slotVerticesValid = false;
+    }
+
+    if(!slotVerticesValid) {
+      // Nothing can be reused; forget the previous inputs
+      Arrays.fill(slotSlots, null);
+      Arrays.fill(slotAttachments, null);
+      slotVerticesValid = true;
+    }
+  }
+
+  /**
+   * Checks whether the vertices of a draw call are the same as the last time it was computed
+   *
+   * <p>If not, the current inputs are recorded and the caller has to compute the vertices.
+   *
+   * @return {@literal true} if the vertex arrays already contain the vertices of the draw call
+   */
+  private boolean reuseSlotVertices(final int drawIndex,
+                                    @Nonnull final Slot slot,
+                                    @Nonnull final Attachment attachment) {
+    final int boneStamp = skeleton.boneWorldTransformStamp(slot.bone().index());
+    final int offset = drawIndex * 2;
+    final int colorIndex = drawIndex * 4;
+
+    if(    slotSlots[drawIndex] == slot
+        && slotAttachments[drawIndex] == attachment
+        && slotBoneStamps[drawIndex] == boneStamp
+        && slotOffsets[offset    ] == vertexOffset
+        && slotOffsets[offset + 1] == indexOffset
+        && slotColors[colorIndex    ] == slot.r
+        && slotColors[colorIndex + 1] == slot.g
+        && slotColors[colorIndex + 2] == slot.b
+        && slotColors[colorIndex + 3] == slot.a) {
+      return true;
     }
 
-    return sum;
+    slotSlots[drawIndex] = slot;
+    slotAttachments[drawIndex] = attachment;
+    slotBoneStamps[drawIndex] = boneStamp;
+    slotOffsets[offset    ] = vertexOffset;
+    slotOffsets[offset + 1] = indexOffset;
+    slotColors[colorIndex    ] = slot.r;
+    slotColors[colorIndex + 1] = slot.g;
+    slotColors[colorIndex + 2] = slot.b;
+    slotColors[colorIndex + 3] = slot.a;
+
+    return false;
   }
 
   /** {@inheritDoc} */
@@ -593,7 +1502,6 @@ public final class SpineSkeleton extends DisplayObject {
   @Override
   protected void onDetachFromStage() {
     super.onDetachFromStage();
-    contents.clear();
     lastVertexCount = -1;
     lastTriangleCount = -1;
   }
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2015 defrac inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package defrac.display;
+
+import defrac.animation.spine.Animation;
+import defrac.animation.spine.Skin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static defrac.lang.Preconditions.checkArgument;
+
+/**
+ * The SpineVertexCache class stores pre-rendered frames of Spine animations
+ *
+ * <p>A frame holds the projected vertices and colors of a {@link SpineSkeleton} for an
+ * animation at a fixed sample index, skin and flip, sampled from the setup pose. Vertices
+ * are stored relative to the position of the skeleton and draw calls without the alpha of
+ * the skeleton, so skeletons at different positions or with different alpha share frames. The uvs, indices and draw calls of a frame
+ * only depend on its attachments and are shared by consecutive frames with the same
+ * attachments.
+ *
+ * <p>Colors of a frame are optionally stored as a single packed ARGB value per vertex,
+ * which takes a quarter of the memory at the cost of 8 bits of precision per channel.
+ *
+ * <p>Frames are evicted in least-recently-used order once the memory budget is exceeded.
+ * A cache can be shared by any number of SpineSkeleton objects displaying the same
+ * skeleton data, see {@link SpineSkeleton#vertexCache(SpineVertexCache)}.
+ */
+public final class SpineVertexCache {
+  public static final int DEFAULT_MEMORY_BUDGET = 4 * 1024 * 1024;
+  public static final float DEFAULT_SAMPLE_RATE = 30.0f;
+
+  /** Approximate size in bytes of a frame without its arrays. */
+  private static final int FRAME_OVERHEAD = 64;
+
+  @Nonnull
+  private final LinkedHashMap<Key, Frame> frames = new LinkedHashMap<>(16, 0.75f, true);
+
+  @Nonnull
+  private final Key lookupKey = new Key();
+
+  private final int memoryBudget;
+
+  private final float sampleRate;
+
+  private final boolean packedColors;
+
+  private int memoryUsage;
+
+  /** Creates a cache with the default memory budget and sample rate */
+  public SpineVertexCache() {
+    this(DEFAULT_MEMORY_BUDGET, DEFAULT_SAMPLE_RATE);
+  }
+
+  /**
+   * Creates and returns a new SpineVertexCache object
+   *
+   * @param memoryBudget The maximum number of bytes used by cached frames
+   * @param sampleRate The number of frames per second of animation
+   */
+  public SpineVertexCache(final int memoryBudget, final float sampleRate) {
+    this(memoryBudget, sampleRate, false);
+  }
+
+  /**
+   * Creates and returns a new SpineVertexCache object
+   *
+   * @param memoryBudget The maximum number of bytes used by cached frames
+   * @param sampleRate The number of frames per second of animation
+   * @param packedColors Whether or not the colors of a frame are stored as packed ARGB values
+   */
+  public SpineVertexCache(final int memoryBudget, final float sampleRate, final boolean packedColors) {
+    checkArgument(memoryBudget >= 0, "memoryBudget must not be negative");
+    checkArgument(sampleRate > 0.0f, "sampleRate must be positive");
+    this.memoryBudget = memoryBudget;
+    this.sampleRate = sampleRate;
+    this.packedColors = packedColors;
+  }
+
+  /** The maximum number of bytes used by cached frames */
+  public int memoryBudget() {
+    return memoryBudget;
+  }
+
+  /** The approximate number of bytes used by cached frames */
+  public int memoryUsage() {
+    return memoryUsage;
+  }
+
+  /** The number of frames per second of animation */
+  public float sampleRate() {
+    return sampleRate;
+  }
+
+  /** Whether or not the colors of a frame are stored as packed ARGB values */
+  public boolean packedColors() {
+    return packedColors;
+  }
+
+  /** The number of cached frames */
+  public int size() {
+    return frames.size();
+  }
+
+  /** Removes all cached frames */
+  public void clear() {
+    frames.clear();
+    memoryUsage = 0;
+  }
+
+  /** Returns the index of the frame that is displayed for the given animation time */
+  public int frameIndex(@Nonnull final Animation animation, float time, final boolean loop) {
+    final float duration = animation.duration();
+
+    if(loop && duration != 0) {
+      time %= duration;
+    } else if(time > duration) {
+      time = duration;
+    }
+
+    return time <= 0.0f ? 0 : (int)(time * sampleRate);
+  }
+
+  /** Returns the animation time at which the given frame is sampled */
+  public float frameTime(final int frameIndex) {
+    return frameIndex / sampleRate;
+  }
+
+  @Nullable
+  Frame get(@Nonnull final Animation animation,
+            final int frameIndex,
+            @Nullable final Skin skin,
+            final boolean flipX,
+            final boolean flipY) {
+    return frames.get(lookupKey.set(animation, frameIndex, skin, flipX, flipY));
+  }
+
+  void put(@Nonnull final Animation animation,
+           final int frameIndex,
+           @Nullable final Skin skin,
+           final boolean flipX,
+           final boolean flipY,
+           @Nonnull final Frame frame) {
+    final Frame previous = frames.put(new Key().set(animation, frameIndex, skin, flipX, flipY), frame);
+
+    if(previous != null) {
+      release(previous);
+    }
+
+    retain(frame);
+
+    final Iterator<Map.Entry<Key, Frame>> iterator = frames.entrySet().iterator();
+
+    // Eldest entries come first; the frame just added is only evicted if it exceeds the budget on its own.
+    while(memoryUsage > memoryBudget && iterator.hasNext()) {
+      final Frame evicted = iterator.next().getValue();
+      iterator.remove();
+      release(evicted);
+    }
+  }
+
+  private void retain(@Nonnull final Frame frame) {
+    final Topology topology = frame.topology;
+
+    if(topology.refCount++ == 0) {
+      memoryUsage += topology.bytes();
+    }
+
+    memoryUsage += frame.bytes();
+  }
+
+  private void release(@Nonnull final Frame frame) {
+    final Topology topology = frame.topology;
+
+    if(--topology.refCount == 0) {
+      memoryUsage -= topology.bytes();
+    }
+
+    memoryUsage -= frame.bytes();
+  }
+
+  private static final class Key {
+    private Animation animation;
+    private int frameIndex;
+    @Nullable
+    private Skin skin;
+    private boolean flipX, flipY;
+    private int hashCode;
+
+    @Nonnull
+    Key set(@Nonnull final Animation animation,
+            final int frameIndex,
+            @Nullable final Skin skin,
+            final boolean flipX,
+            final boolean flipY) {
+      this.animation = animation;
+      this.frameIndex = frameIndex;
+      this.skin = skin;
+      this.flipX = flipX;
+      this.flipY = flipY;
+
+      int hash = 31 * System.identityHashCode(animation) + frameIndex;
+      hash = 31 * hash + System.identityHashCode(skin);
+      hash = 31 * hash + (flipX ? 2 : 0) + (flipY ? 1 : 0);
+
+      this.hashCode = hash;
+      return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if(this == o) {
+        return true;
+      }
+
+      if(!(o instanceof Key)) {
+        return false;
+      }
+
+      final Key that = (Key)o;
+
+      return animation == that.animation
+          && frameIndex == that.frameIndex
+          && skin == that.skin
+          && flipX == that.flipX
+          && flipY == that.flipY;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /** Uvs, indices and draw calls shared by frames with the same attachments */
+  static final class Topology {
+    @Nonnull
+    final float[] uvs;
+
+    @Nonnull
+    final short[] indices;
+
+    @Nonnull
+    TextureData[] textures = new TextureData[8];
+
+    @Nonnull
+    BlendMode[] blendModes = new BlendMode[8];
+
+    /** Alpha of the attached skeleton each draw call belongs to, relative to the alpha of the skeleton */
+    @Nonnull
+    float[] alphas = new float[8];
+
+    @Nonnull
+    int[] vertexCounts = new int[8];
+
+    @Nonnull
+    int[] triangleCounts = new int[8];
+
+    int drawCount;
+
+    /** Number of cached frames using this topology */
+    int refCount;
+
+    Topology(@Nonnull final float[] uvs, final int vertexCount,
+             @Nonnull final short[] indices, final int triangleCount) {
+      this.uvs = Arrays.copyOf(uvs, vertexCount);
+      this.indices = Arrays.copyOf(indices, triangleCount);
+    }
+
+    int vertexCount() {
+      return uvs.length;
+    }
+
+    int triangleCount() {
+      return indices.length;
+    }
+
+    void add(@Nonnull final TextureData texture,
+             @Nonnull final BlendMode blendMode,
+             final float alpha,
+             final int vertexCount,
+             final int triangleCount) {
+      final int index = drawCount++;
+
+      if(index == textures.length) {
+        final int capacity = index << 1;
+        textures = Arrays.copyOf(textures, capacity);
+        blendModes = Arrays.copyOf(blendModes, capacity);
+        alphas = Arrays.copyOf(alphas, capacity);
+        vertexCounts = Arrays.copyOf(vertexCounts, capacity);
+        triangleCounts = Arrays.copyOf(triangleCounts, capacity);
+      }
+
+      textures[index] = texture;
+      blendModes[index] = blendMode;
+      alphas[index] = alpha;
+      vertexCounts[index] = vertexCount;
+      triangleCounts[index] = triangleCount;
+    }
+
+    /** Whether or not both topologies produce the same draw calls */
+    boolean sameAs(@Nonnull final Topology that) {
+      if(drawCount != that.drawCount
+          || !Arrays.equals(indices, that.indices)
+          || !Arrays.equals(uvs, that.uvs)) {
+        return false;
+      }
+
+      for(int i = 0; i < drawCount; ++i) {
+        if(    textures[i] != that.textures[i]
+            || blendModes[i] != that.blendModes[i]
+            || alphas[i] != that.alphas[i]
+            || vertexCounts[i] != that.vertexCounts[i]
+            || triangleCounts[i] != that.triangleCounts[i]) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    int bytes() {
+      return FRAME_OVERHEAD + (uvs.length << 2) + (indices.length << 1) + drawCount * 24;
+    }
+  }
+
+  /** Projected vertices and colors of a single frame */
+  static final class Frame {
+    @Nonnull
+    final Topology topology;
+
+    /** Vertices relative to the origin of the skeleton, see {@link #copyVertices(float[], float, float)} */
+    @Nonnull
+    final float[] vertices;
+
+    /** Colors of the frame, four values per vertex; null if the colors are packed */
+    @Nullable
+    final float[] colors;
+
+    /** Packed ARGB color of each vertex; null if the colors are not packed */
+    @Nullable
+    final int[] packedColors;
+
+    /** Pixel ratio the frame has been rendered with */
+    final float pixelRatio;
+
+    /** Bounds of the vertices relative to the origin of the skeleton */
+    final float minX, minY, maxX, maxY;
+
+    /**
+     * @param originX The x coordinate of the origin of the skeleton in the vertices
+     * @param originY The y coordinate of the origin of the skeleton in the vertices
+     */
+    Frame(@Nonnull final Topology topology,
+          @Nonnull final float[] vertices,
+          @Nonnull final float[] colors,
+          final boolean packColors,
+          final float pixelRatio,
+          final float originX,
+          final float originY) {
+      final int vertexCount = topology.vertexCount();
+
+      this.topology = topology;
+      this.vertices = new float[vertexCount];
+
+      if(packColors) {
+        // Two vertex values per vertex, so vertexCount / 2 colors
+        this.colors = null;
+        this.packedColors = new int[vertexCount >> 1];
+        PackedColors.pack(colors, 0, packedColors, 0, vertexCount >> 1);
+      } else {
+        this.colors = Arrays.copyOf(colors, vertexCount * 2);
+        this.packedColors = null;
+      }
+
+      this.pixelRatio = pixelRatio;
+
+      float
+          minX = Integer.MAX_VALUE,
+          minY = Integer.MAX_VALUE,
+          maxX = Integer.MIN_VALUE,
+          maxY = Integer.MIN_VALUE;
+
+      for(int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex += 2) {
+        final float vx = vertices[vertexIndex    ] - originX;
+        final float vy = vertices[vertexIndex + 1] - originY;
+
+        this.vertices[vertexIndex    ] = vx;
+        this.vertices[vertexIndex + 1] = vy;
+
+        if(vx < minX) { minX = vx; }
+        if(vx > maxX) { maxX = vx; }
+        if(vy < minY) { minY = vy; }
+        if(vy > maxY) { maxY = vy; }
+      }
+
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+    }
+
+    /** Whether or not the frame can be displayed with the given pixel ratio */
+    boolean matches(final float pixelRatio) {
+      return this.pixelRatio == pixelRatio;
+    }
+
+    /** Copies the vertices of the frame into a vertex array, moved to the given origin of the skeleton */
+    void copyVertices(@Nonnull final float[] target, final float originX, final float originY) {
+      final float[] vertices = this.vertices;
+
+      for(int vertexIndex = 0, n = vertices.length; vertexIndex < n; vertexIndex += 2) {
+        target[vertexIndex    ] = vertices[vertexIndex    ] + originX;
+        target[vertexIndex + 1] = vertices[vertexIndex + 1] + originY;
+      }
+    }
+
+    /** Copies the colors of the frame into a float stream */
+    void copyColors(@Nonnull final float[] target) {
+      if(packedColors != null) {
+        PackedColors.unpack(packedColors, 0, target, 0, packedColors.length);
+      } else {
+        assert colors != null;
+        System.arraycopy(colors, 0, target, 0, colors.length);
+      }
+    }
+
+    int bytes() {
+      final int colorCount = packedColors != null ? packedColors.length : colors.length;
+      return FRAME_OVERHEAD + ((vertices.length + colorCount) << 2);
+    }
+  }
+}
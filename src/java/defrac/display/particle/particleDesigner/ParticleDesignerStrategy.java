@@ -18,6 +18,7 @@ package defrac.display.particle.particleDesigner;
 
 import defrac.animation.AnimationSystem;
 import defrac.display.BlendMode;
+import defrac.display.PackedColors;
 import defrac.display.particle.ParticleSystemStrategy;
 import defrac.display.render.RenderContent;
 import defrac.display.render.Renderer;
@@ -50,6 +51,13 @@ public final class ParticleDesignerStrategy implements ParticleSystemStrategy {
   @Nonnull
   private final float[] colors;
 
+  /** Packed ARGB color of each vertex; null unless packed colors are used */
+  @Nullable
+  private final int[] packedColors;
+
+  /** Whether the packed colors changed since they have been expanded */
+  private boolean packedColorsDirty;
+
   @Nonnull
   private final short[] indices;
 
@@ -77,6 +85,18 @@ public final class ParticleDesignerStrategy implements ParticleSystemStrategy {
   private final EventDispatcher<ParticleSystemStrategy> onStop = EventDispatcher.create();
 
   public ParticleDesignerStrategy(@Nonnull final ParticleDesignerSettings settings) {
+    this(settings, false);
+  }
+
+  /**
+   * Creates and returns a new ParticleDesignerStrategy object
+   *
+   * @param settings The settings of the particle system
+   * @param packedColors Whether or not particle colors are written as a single packed
+   *                     ARGB value per vertex and only expanded when rendered
+   */
+  public ParticleDesignerStrategy(@Nonnull final ParticleDesignerSettings settings,
+                                  final boolean packedColors) {
     final int particleCount = settings.maxParticles;
 
     this.settings = settings;
@@ -90,6 +110,7 @@ public final class ParticleDesignerStrategy implements ParticleSystemStrategy {
     vertices = new float[numVertices * 2];
     uvs = new float[particleCount * UVS_EACH_PARTICLE];
     colors = new float[particleCount * COLORS_EACH_PARTICLE];
+    this.packedColors = packedColors ? new int[numVertices] : null;
     indices = new short[numTriangles * 3];
 
     int uvIndex = 0;
@@ -145,6 +166,11 @@ public final class ParticleDesignerStrategy implements ParticleSystemStrategy {
                               @Nonnull BlendMode parentBlendMode,
                               float parentAlpha,
                               final float pixelRatio) {
+    if(packedColors != null && packedColorsDirty) {
+      PackedColors.unpack(packedColors, 0, colors, 0, particleCount * COORDINATES_EACH_PARTICLE);
+      packedColorsDirty = false;
+    }
+
     if(content != null) {
       return content;
     }
@@ -302,18 +328,30 @@ public final class ParticleDesignerStrategy implements ParticleSystemStrategy {
 
     { // RENDER
       int vertexIndex = index * VERTICES_EACH_PARTICLE;
-      int colorIndex  = index * COLORS_EACH_PARTICLE;
 
       final float a = particle.colorA;
       final float r = particle.colorR * a;
       final float g = particle.colorG * a;
       final float b = particle.colorB * a;
 
-      for (int j = 0; j < 4; ++j) {
-        colors[colorIndex++] = r;
-        colors[colorIndex++] = g;
-        colors[colorIndex++] = b;
-        colors[colorIndex++] = a;
+      if(packedColors != null) {
+        final int packedIndex = index * COORDINATES_EACH_PARTICLE;
+        final int argb = PackedColors.pack(r, g, b, a);
+
+        packedColors[packedIndex    ] = argb;
+        packedColors[packedIndex + 1] = argb;
+        packedColors[packedIndex + 2] = argb;
+        packedColors[packedIndex + 3] = argb;
+        packedColorsDirty = true;
+      } else {
+        int colorIndex = index * COLORS_EACH_PARTICLE;
+
+        for (int j = 0; j < 4; ++j) {
+          colors[colorIndex++] = r;
+          colors[colorIndex++] = g;
+          colors[colorIndex++] = b;
+          colors[colorIndex++] = a;
+        }
       }
 
       final float halfSize = particle.size * 0.5f;